@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.jcstress;
+
+import io.appform.signals.combiners.LastValueResponseCombiner;
+import io.appform.signals.combiners.LongCombiners;
+import io.appform.signals.signals.GeneratingParallelSignal;
+import io.appform.signals.signals.LongSignal;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.JJ_Result;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Combiners receive handler results from many threads at the same time.
+ */
+public class CombinerAssimilationTest {
+
+    /**
+     * Concurrent dispatches on a primitive signal share its combiner, and each returns the sum for itself alone
+     */
+    @JCStressTest
+    @Outcome(id = "1, 2", expect = ACCEPTABLE, desc = "Each dispatch got its own sum")
+    @Outcome(expect = FORBIDDEN, desc = "Results of dispatches were mixed up")
+    @State
+    public static class Sum {
+        private final LongSignal signal = LongSignal.builder()
+                .combiner(LongCombiners.sum())
+                .build()
+                .connect(data -> data);
+
+        @Actor
+        public void first(JJ_Result r) {
+            r.r1 = signal.dispatch(1);
+        }
+
+        @Actor
+        public void second(JJ_Result r) {
+            r.r2 = signal.dispatch(2);
+        }
+    }
+
+    /**
+     * Concurrent dispatches on a generating parallel signal share its combiner, and every handler result is
+     * assimilated from a pool thread. Each dispatch returns the result of one of the handlers, never a missing one:
+     * dispatch waits for its own handlers, whose results are written to the combiner before their futures complete.
+     * As the combiner is shared, the result may come from a handler called for the other dispatch.
+     */
+    @JCStressTest
+    @Outcome(id = {"1, 1", "1, 2", "2, 1", "2, 2"}, expect = ACCEPTABLE, desc = "Saw a handler result")
+    @Outcome(expect = FORBIDDEN, desc = "Dispatch returned no result or failed")
+    @State
+    public static class ParallelDispatch {
+        private final GeneratingParallelSignal<Integer, Integer> signal
+                = GeneratingParallelSignal.<Integer, Integer>builder()
+                .combiner(new LastValueResponseCombiner<>())
+                .build();
+
+        public ParallelDispatch() {
+            signal.connect("one", data -> 1);
+            signal.connect("two", data -> 2);
+        }
+
+        @Actor
+        public void first(II_Result r) {
+            r.r1 = dispatch();
+        }
+
+        @Actor
+        public void second(II_Result r) {
+            r.r2 = dispatch();
+        }
+
+        private int dispatch() {
+            try {
+                final Integer result = signal.dispatch(0);
+                return null == result ? 0 : result;
+            }
+            catch (RuntimeException e) {
+                return -1;
+            }
+        }
+    }
+}
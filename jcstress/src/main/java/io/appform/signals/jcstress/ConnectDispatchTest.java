@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.jcstress;
+
+import io.appform.signals.signals.ConsumingSyncSignal;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Connecting a handler to a new group while a dispatch is in progress. The dispatch sees either the old or the new
+ * set of handlers, and never fails.
+ */
+@JCStressTest
+@Outcome(id = "1", expect = ACCEPTABLE, desc = "Dispatch used the handlers connected before")
+@Outcome(id = "2", expect = ACCEPTABLE, desc = "Dispatch saw the new handler")
+@Outcome(id = "-1", expect = FORBIDDEN, desc = "Dispatch failed while a handler was being connected")
+@State
+public class ConnectDispatchTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ConsumingSyncSignal<Integer> signal = new ConsumingSyncSignal<>();
+
+    public ConnectDispatchTest() {
+        signal.connect("first", data -> calls.incrementAndGet());
+    }
+
+    @Actor
+    public void connect() {
+        signal.connect(1, "second", data -> calls.incrementAndGet());
+    }
+
+    @Actor
+    public void dispatch(I_Result r) {
+        try {
+            signal.dispatch(1);
+            r.r1 = calls.get();
+        }
+        catch (RuntimeException e) {
+            r.r1 = -1;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.jcstress;
+
+import io.appform.signals.signals.ConsumingParallelSignal;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Disconnecting a handler from a group while a parallel dispatch to the same group is in progress. The dispatch
+ * calls either both handlers or only the one that stays connected, and never fails.
+ */
+@JCStressTest
+@Outcome(id = "1", expect = ACCEPTABLE, desc = "Dispatch saw the handler as disconnected")
+@Outcome(id = "2", expect = ACCEPTABLE, desc = "Dispatch ran before the handler was disconnected")
+@Outcome(id = "-1", expect = FORBIDDEN, desc = "Dispatch failed while a handler was being disconnected")
+@State
+public class DisconnectDispatchTest {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ConsumingParallelSignal<Integer> signal = new ConsumingParallelSignal<>();
+
+    public DisconnectDispatchTest() {
+        signal.connect("staying", data -> calls.incrementAndGet());
+        signal.connect("leaving", data -> calls.incrementAndGet());
+    }
+
+    @Actor
+    public void disconnect() {
+        signal.disconnect("leaving");
+    }
+
+    @Actor
+    public void dispatch(I_Result r) {
+        try {
+            signal.dispatch(1);
+            r.r1 = calls.get();
+        }
+        catch (RuntimeException e) {
+            r.r1 = -1;
+        }
+    }
+}
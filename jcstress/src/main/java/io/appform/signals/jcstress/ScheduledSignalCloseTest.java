@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.jcstress;
+
+import io.appform.signals.signals.ScheduledSignal;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.openjdk.jcstress.annotations.Expect.ACCEPTABLE;
+import static org.openjdk.jcstress.annotations.Expect.FORBIDDEN;
+
+/**
+ * Closing a scheduled signal while it is being dispatched, both by the schedule and by another thread. Once close
+ * returns, no scheduled dispatch starts anymore, and a direct dispatch either completes or is rejected.
+ * Close waits for the scheduler to terminate, so a scheduled dispatch can not start after the arbiter has run either.
+ */
+@JCStressTest
+@Outcome(id = "1, 0", expect = ACCEPTABLE, desc = "Direct dispatch ran, no scheduled dispatch after close")
+@Outcome(id = "2, 0", expect = ACCEPTABLE, desc = "Direct dispatch rejected, no scheduled dispatch after close")
+@Outcome(id = "-1, .*", expect = FORBIDDEN, desc = "Direct dispatch failed")
+@Outcome(id = ".*, [1-9][0-9]*", expect = FORBIDDEN, desc = "Scheduled dispatch started after close returned")
+@State
+public class ScheduledSignalCloseTest {
+    private static final Date DIRECT = new Date(0);
+
+    private final AtomicInteger lateTicks = new AtomicInteger();
+    private final ScheduledSignal signal = new ScheduledSignal(Duration.ofMillis(1));
+    private volatile boolean closed;
+
+    public ScheduledSignalCloseTest() {
+        signal.connect(date -> {
+            if (closed && date != DIRECT) {
+                lateTicks.incrementAndGet();
+            }
+        });
+    }
+
+    @Actor
+    public void close() {
+        signal.close();
+        closed = true;
+    }
+
+    @Actor
+    public void dispatch(II_Result r) {
+        try {
+            signal.dispatch(DIRECT);
+            r.r1 = 1;
+        }
+        catch (IllegalStateException e) {
+            r.r1 = 2;
+        }
+        catch (RuntimeException e) {
+            r.r1 = -1;
+        }
+    }
+
+    @Arbiter
+    public void arbiter(II_Result r) {
+        r.r2 = lateTicks.get();
+    }
+}
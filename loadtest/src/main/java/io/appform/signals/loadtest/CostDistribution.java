@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the time a simulated handler takes to run
+ */
+public interface CostDistribution {
+
+    /**
+     * @return Cost of the next invocation, in nanos
+     */
+    long nextNanos();
+
+    /**
+     * Parse a distribution from a spec. Supported specs, with durations like 250us, 2ms or 1s:
+     * <ul>
+     *     <li>fixed:&lt;cost&gt;</li>
+     *     <li>uniform:&lt;min&gt;:&lt;max&gt;</li>
+     *     <li>exponential:&lt;mean&gt;</li>
+     *     <li>bimodal:&lt;fast&gt;:&lt;slow&gt;:&lt;fraction of slow calls&gt;</li>
+     * </ul>
+     *
+     * @param spec The spec
+     * @return The distribution
+     */
+    static CostDistribution parse(String spec) {
+        final String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "fixed": {
+                checkParts(spec, parts, 2);
+                final long cost = Durations.parseNanos(parts[1]);
+                return () -> cost;
+            }
+            case "uniform": {
+                checkParts(spec, parts, 3);
+                final long min = Durations.parseNanos(parts[1]);
+                final long max = Durations.parseNanos(parts[2]);
+                if (max < min) {
+                    throw new IllegalArgumentException("Max cost is less than min cost in: " + spec);
+                }
+                return () -> min + (long) (ThreadLocalRandom.current().nextDouble() * (max - min));
+            }
+            case "exponential": {
+                checkParts(spec, parts, 2);
+                final long mean = Durations.parseNanos(parts[1]);
+                return () -> (long) (-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+            }
+            case "bimodal": {
+                checkParts(spec, parts, 4);
+                final long fast = Durations.parseNanos(parts[1]);
+                final long slow = Durations.parseNanos(parts[2]);
+                final double slowFraction = Double.parseDouble(parts[3]);
+                return () -> ThreadLocalRandom.current().nextDouble() < slowFraction ? slow : fast;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown cost distribution: " + spec);
+        }
+    }
+
+    static void checkParts(String spec, String[] parts, int expected) {
+        if (parts.length != expected) {
+            throw new IllegalArgumentException("Invalid cost distribution: " + spec);
+        }
+    }
+}
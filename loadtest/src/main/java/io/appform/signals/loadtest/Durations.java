@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses durations written as a number followed by ns, us, ms or s
+ */
+final class Durations {
+    private Durations() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static long parseNanos(String value) {
+        final String trimmed = value.trim();
+        int split = 0;
+        while (split < trimmed.length()
+                && (Character.isDigit(trimmed.charAt(split)) || trimmed.charAt(split) == '.')) {
+            split++;
+        }
+        if (split == 0) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+        final double amount = Double.parseDouble(trimmed.substring(0, split));
+        switch (trimmed.substring(split)) {
+            case "ns":
+                return (long) amount;
+            case "us":
+                return (long) (amount * TimeUnit.MICROSECONDS.toNanos(1));
+            case "ms":
+                return (long) (amount * TimeUnit.MILLISECONDS.toNanos(1));
+            case "s":
+                return (long) (amount * TimeUnit.SECONDS.toNanos(1));
+            default:
+                throw new IllegalArgumentException("Invalid duration unit in: " + value);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records latencies from handler threads and writes the reports:
+ * <ul>
+ *     <li>latency-corrected.hgrm: Percentile spectrum of latency measured from the intended dispatch time</li>
+ *     <li>latency-uncorrected.hgrm: Percentile spectrum of latency measured from the actual dispatch time</li>
+ *     <li>throughput.csv: Completions and latency percentiles for every reporting interval</li>
+ * </ul>
+ * Latencies are recorded in nanos and reported in micros.
+ */
+final class LatencyReport implements AutoCloseable {
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(10);
+
+    private final Recorder corrected = new Recorder(MAX_LATENCY, 3);
+    private final Recorder uncorrected = new Recorder(MAX_LATENCY, 3);
+    private final AtomicLong maxLag = new AtomicLong();
+    private final Histogram correctedTotal = new Histogram(MAX_LATENCY, 3);
+    private final Histogram uncorrectedTotal = new Histogram(MAX_LATENCY, 3);
+    private final Path out;
+    private final PrintStream csv;
+    private Histogram correctedInterval;
+    private Histogram uncorrectedInterval;
+
+    LatencyReport(Path out) throws IOException {
+        this.out = Files.createDirectories(out);
+        this.csv = new PrintStream(Files.newOutputStream(out.resolve("throughput.csv")), true, "UTF-8");
+        csv.println("elapsed_s,completed,throughput_per_s,p50_us,p90_us,p99_us,p999_us,max_us,"
+                            + "uncorrected_p99_us,producer_lag_ms");
+    }
+
+    void record(Request request, long completedAt) {
+        if (request.recorded) {
+            corrected.recordValue(Math.min(MAX_LATENCY, completedAt - request.intendedAt));
+            uncorrected.recordValue(Math.min(MAX_LATENCY, completedAt - request.sentAt));
+        }
+    }
+
+    /**
+     * Track how far behind schedule producers are. A growing lag means the signal is past saturation.
+     */
+    void lag(long lagNanos) {
+        maxLag.accumulateAndGet(lagNanos, Math::max);
+    }
+
+    /**
+     * Add one row to the throughput CSV for the interval since the last call
+     */
+    synchronized void interval(double elapsedSeconds, double intervalSeconds) {
+        correctedInterval = corrected.getIntervalHistogram(correctedInterval);
+        uncorrectedInterval = uncorrected.getIntervalHistogram(uncorrectedInterval);
+        correctedTotal.add(correctedInterval);
+        uncorrectedTotal.add(uncorrectedInterval);
+        final long count = correctedInterval.getTotalCount();
+        csv.printf("%.1f,%d,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f,%.1f%n",
+                   elapsedSeconds,
+                   count,
+                   count / intervalSeconds,
+                   micros(correctedInterval.getValueAtPercentile(50)),
+                   micros(correctedInterval.getValueAtPercentile(90)),
+                   micros(correctedInterval.getValueAtPercentile(99)),
+                   micros(correctedInterval.getValueAtPercentile(99.9)),
+                   micros(correctedInterval.getMaxValue()),
+                   micros(uncorrectedInterval.getValueAtPercentile(99)),
+                   maxLag.getAndSet(0) / 1_000_000.0);
+    }
+
+    /**
+     * Forget everything recorded so far, used at the end of warmup
+     */
+    synchronized void reset() {
+        corrected.reset();
+        uncorrected.reset();
+        correctedTotal.reset();
+        uncorrectedTotal.reset();
+        maxLag.set(0);
+    }
+
+    /**
+     * Print a summary and write percentile spectra
+     */
+    synchronized void summarize(PrintStream console, double seconds) {
+        writeSpectrum("latency-corrected.hgrm", correctedTotal);
+        writeSpectrum("latency-uncorrected.hgrm", uncorrectedTotal);
+        console.printf("Completed %d dispatches in %.1fs (%.1f/s)%n",
+                       correctedTotal.getTotalCount(), seconds, correctedTotal.getTotalCount() / seconds);
+        console.printf("Latency (us)     p50 %10.1f  p99 %10.1f  p99.9 %10.1f  max %10.1f%n",
+                       micros(correctedTotal.getValueAtPercentile(50)),
+                       micros(correctedTotal.getValueAtPercentile(99)),
+                       micros(correctedTotal.getValueAtPercentile(99.9)),
+                       micros(correctedTotal.getMaxValue()));
+        console.printf("Uncorrected (us) p50 %10.1f  p99 %10.1f  p99.9 %10.1f  max %10.1f%n",
+                       micros(uncorrectedTotal.getValueAtPercentile(50)),
+                       micros(uncorrectedTotal.getValueAtPercentile(99)),
+                       micros(uncorrectedTotal.getValueAtPercentile(99.9)),
+                       micros(uncorrectedTotal.getMaxValue()));
+        console.printf("Reports written to %s%n", out.toAbsolutePath());
+    }
+
+    @Override
+    public void close() {
+        csv.close();
+    }
+
+    private void writeSpectrum(String fileName, Histogram histogram) {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(out.resolve(fileName)), true, "UTF-8")) {
+            histogram.outputPercentileDistribution(stream, NANOS_PER_MICRO);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator. Producers dispatch to a signal on a fixed schedule that does not slow down when the signal
+ * does, and latency is measured from the time a dispatch was scheduled for, so that queueing behind a slow signal
+ * shows up in the results instead of being omitted. Run at increasing rates to find the saturation knee of an executor
+ * configuration: the point where corrected latency and producer lag start to climb.
+ */
+public final class LoadTest {
+    private LoadTest() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestConfig config;
+        try {
+            config = LoadTestConfig.parse(args);
+        }
+        catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestConfig.USAGE);
+            System.exit(1);
+            return;
+        }
+        System.out.println("Running load test: " + config);
+        try (LatencyReport report = new LatencyReport(config.out)) {
+            run(config, report);
+        }
+    }
+
+    static void run(LoadTestConfig config, LatencyReport report) throws Exception {
+        final long start = System.nanoTime();
+        final long measureFrom = start + config.warmupNanos;
+        final long end = measureFrom + config.durationNanos;
+        final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        try (SignalTarget target = SignalTarget.create(config, report)) {
+            reporter.schedule(report::reset, config.warmupNanos, TimeUnit.NANOSECONDS);
+            reporter.scheduleAtFixedRate(
+                    () -> {
+                        final long now = System.nanoTime();
+                        if (now > measureFrom) {
+                            report.interval((now - measureFrom) / 1e9, config.intervalNanos / 1e9);
+                        }
+                    },
+                    config.warmupNanos + config.intervalNanos, config.intervalNanos, TimeUnit.NANOSECONDS);
+            final List<Thread> producers = new ArrayList<>(config.producers);
+            final long period = (long) (config.producers * 1e9 / config.rate);
+            for (int i = 0; i < config.producers; i++) {
+                //Spread producers evenly over the period
+                final long first = start + i * period / config.producers;
+                final Thread producer = new Thread(() -> produce(target, report, first, period, measureFrom, end),
+                                                   "producer-" + i);
+                producer.start();
+                producers.add(producer);
+            }
+            for (Thread producer : producers) {
+                producer.join();
+            }
+        }
+        reporter.shutdown();
+        reporter.awaitTermination(config.intervalNanos, TimeUnit.NANOSECONDS);
+        report.interval((System.nanoTime() - measureFrom) / 1e9, config.intervalNanos / 1e9);
+        report.summarize(System.out, config.durationNanos / 1e9);
+    }
+
+    private static void produce(
+            SignalTarget target,
+            LatencyReport report,
+            long first,
+            long period,
+            long measureFrom,
+            long end) {
+        final int handlers = target.handlers();
+        long intended = first;
+        while (intended < end) {
+            long now = System.nanoTime();
+            while (now < intended) {
+                LockSupport.parkNanos(intended - now);
+                now = System.nanoTime();
+            }
+            report.lag(now - intended);
+            target.dispatch(new Request(intended, now, intended >= measureFrom, handlers));
+            intended += period;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options for a load test run, parsed from arguments of the form -name value
+ */
+final class LoadTestConfig {
+    static final String USAGE = String.join(
+            "\n",
+            "Usage: java -jar loadtest.jar -rate <dispatches per second> [options]",
+            "  -signal    fire-forget | parallel (GeneratingParallelSignal). Default: fire-forget",
+            "  -executor  shared | cached | fixed:<threads>. Default: shared",
+            "  -rate      Target dispatches per second across all producers. Required",
+            "  -producers Number of producer threads. Default: 1",
+            "  -handlers  Number of handlers connected to the signal. Default: 1",
+            "  -cost      Handler cost: fixed:<d> | uniform:<min>:<max> | exponential:<mean>",
+            "             | bimodal:<fast>:<slow>:<slow fraction>. Default: fixed:100us",
+            "  -costMode  spin (burn cpu) | sleep (park the thread). Default: spin",
+            "  -warmup    Time before latencies are recorded, like 10s. Default: 10s",
+            "  -duration  Time latencies are recorded for, like 5m. Default: 60s",
+            "  -interval  Reporting interval for the throughput CSV. Default: 1s",
+            "  -out       Directory for reports. Default: loadtest-results");
+
+    final String signal;
+    final String executor;
+    final double rate;
+    final int producers;
+    final int handlers;
+    final CostDistribution cost;
+    final boolean spin;
+    final long warmupNanos;
+    final long durationNanos;
+    final long intervalNanos;
+    final Path out;
+
+    private LoadTestConfig(Map<String, String> options) {
+        if (!options.containsKey("rate")) {
+            throw new IllegalArgumentException("Target rate is required");
+        }
+        this.signal = options.getOrDefault("signal", "fire-forget");
+        this.executor = options.getOrDefault("executor", "shared");
+        this.rate = Double.parseDouble(options.get("rate"));
+        this.producers = Integer.parseInt(options.getOrDefault("producers", "1"));
+        this.handlers = Integer.parseInt(options.getOrDefault("handlers", "1"));
+        this.cost = CostDistribution.parse(options.getOrDefault("cost", "fixed:100us"));
+        this.spin = !"sleep".equals(options.getOrDefault("costMode", "spin"));
+        this.warmupNanos = Durations.parseNanos(options.getOrDefault("warmup", "10s"));
+        this.durationNanos = Durations.parseNanos(minutesToSeconds(options.getOrDefault("duration", "60s")));
+        this.intervalNanos = Durations.parseNanos(options.getOrDefault("interval", "1s"));
+        this.out = Paths.get(options.getOrDefault("out", "loadtest-results"));
+        if (rate <= 0 || producers <= 0 || handlers <= 0 || intervalNanos <= 0) {
+            throw new IllegalArgumentException("Rate, producers, handlers and interval must be positive");
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        final Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("-") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected -name value, found: " + args[i]);
+            }
+            options.put(args[i].substring(1), args[i + 1]);
+        }
+        return new LoadTestConfig(options);
+    }
+
+    /**
+     * Intervals of a sustained test are easier to write in minutes
+     */
+    private static String minutesToSeconds(String value) {
+        return value.endsWith("m") && !value.endsWith("ms")
+               ? Double.parseDouble(value.substring(0, value.length() - 1)) * 60 + "s"
+               : value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("signal=%s executor=%s rate=%.0f/s producers=%d handlers=%d warmup=%ds duration=%ds",
+                             signal, executor, rate, producers, handlers,
+                             warmupNanos / 1_000_000_000L, durationNanos / 1_000_000_000L);
+    }
+}
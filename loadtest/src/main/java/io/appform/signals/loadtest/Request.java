@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A dispatch made by a producer. Latency is recorded when the last handler finishes.
+ */
+final class Request {
+    /**
+     * When the dispatch should have been made as per the schedule. Measuring from here corrects for coordinated
+     * omission, as a producer that falls behind does not hide the time requests spend waiting to be sent.
+     */
+    final long intendedAt;
+
+    /**
+     * When the dispatch was actually made
+     */
+    final long sentAt;
+
+    /**
+     * false for dispatches made during warmup
+     */
+    final boolean recorded;
+
+    private final AtomicInteger pending;
+
+    Request(long intendedAt, long sentAt, boolean recorded, int handlers) {
+        this.intendedAt = intendedAt;
+        this.sentAt = sentAt;
+        this.recorded = recorded;
+        this.pending = new AtomicInteger(handlers);
+    }
+
+    /**
+     * @return true for the call made by the last handler to finish
+     */
+    boolean handlerDone() {
+        return pending.decrementAndGet() == 0;
+    }
+}
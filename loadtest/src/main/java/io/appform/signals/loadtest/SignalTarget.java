@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.loadtest;
+
+import io.appform.signals.Signal;
+import io.appform.signals.executors.SharedExecutors;
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import io.appform.signals.signals.GeneratingParallelSignal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The signal under test, with simulated handlers connected
+ */
+final class SignalTarget implements Closeable {
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final Signal<Request, ?, ?> signal;
+    private final Closeable closer;
+    private final int handlers;
+
+    private SignalTarget(Signal<Request, ?, ?> signal, Closeable closer, int handlers) {
+        this.signal = signal;
+        this.closer = closer;
+        this.handlers = handlers;
+    }
+
+    static SignalTarget create(LoadTestConfig config, LatencyReport report) {
+        final ExecutorService executorService = executorService(config.executor);
+        switch (config.signal) {
+            case "fire-forget": {
+                final ConsumingFireForgetSignal<Request> signal = ConsumingFireForgetSignal.<Request>builder()
+                        .executorService(executorService)
+                        .build();
+                for (int i = 0; i < config.handlers; i++) {
+                    signal.connect("handler-" + i, request -> handle(config, report, request));
+                }
+                return new SignalTarget(signal, signal, config.handlers);
+            }
+            case "parallel": {
+                final GeneratingParallelSignal<Request, Long> signal
+                        = GeneratingParallelSignal.<Request, Long>builder()
+                        .executorService(executorService)
+                        .build();
+                for (int i = 0; i < config.handlers; i++) {
+                    signal.connect("handler-" + i, request -> handle(config, report, request));
+                }
+                return new SignalTarget(signal, signal, config.handlers);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown signal type: " + config.signal);
+        }
+    }
+
+    int handlers() {
+        return handlers;
+    }
+
+    void dispatch(Request request) {
+        signal.dispatch(request);
+    }
+
+    @Override
+    public void close() throws IOException {
+        signal.awaitQuiescence(DRAIN_TIMEOUT);
+        closer.close();
+    }
+
+    private static Long handle(LoadTestConfig config, LatencyReport report, Request request) {
+        final long cost = config.cost.nextNanos();
+        if (config.spin) {
+            final long end = System.nanoTime() + cost;
+            while (System.nanoTime() < end) {
+                //Burning cpu to simulate work
+            }
+        }
+        else {
+            LockSupport.parkNanos(cost);
+        }
+        if (request.handlerDone()) {
+            report.record(request, System.nanoTime());
+        }
+        return cost;
+    }
+
+    private static ExecutorService executorService(String spec) {
+        if ("shared".equals(spec)) {
+            return SharedExecutors.parallel();
+        }
+        if ("cached".equals(spec)) {
+            return Executors.newCachedThreadPool();
+        }
+        if (spec.startsWith("fixed:")) {
+            return Executors.newFixedThreadPool(Integer.parseInt(spec.substring("fixed:".length())));
+        }
+        throw new IllegalArgumentException("Unknown executor: " + spec);
+    }
+}
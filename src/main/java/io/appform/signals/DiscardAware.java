@@ -0,0 +1,25 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals;
+
+/**
+ * Implemented by handlers that hold on to something for every invocation, like a journal offset or a pooled event.
+ * Executors call {@link #discarded(Object)} when an invocation ends without the handler being called again, because
+ * its deadline expired, the executor rejected it or the executor was drained. Called at most once per invocation, and
+ * never for invocations that ran to completion or failed for good.
+ */
+public interface DiscardAware<T> {
+    void discarded(T data);
+}
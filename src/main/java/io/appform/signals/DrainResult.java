@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals;
+
+import lombok.Value;
+
+/**
+ * Outcome of draining a signal.
+ */
+@Value
+public class DrainResult {
+    /**
+     * true if all in-flight work finished before the deadline
+     */
+    boolean completed;
+
+    /**
+     * Number of handler invocations that were discarded before they could start, including pending retries
+     */
+    int dropped;
+
+    /**
+     * Number of handler invocations that were still running at the deadline and were interrupted
+     */
+    int interrupted;
+
+    public static DrainResult complete() {
+        return new DrainResult(true, 0, 0);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals;
+
+import lombok.Value;
+
+/**
+ * Point in time statistics for handler invocations submitted by a signal to its executor
+ */
+@Value
+public class ExecutorStats {
+    private static final ExecutorStats NONE = new ExecutorStats(0, 0, 0);
+
+    /**
+     * Number of handler invocations waiting in the queue of the executor
+     */
+    int queued;
+
+    /**
+     * Number of handler invocations that are running, including ones waiting for a retry
+     */
+    int active;
+
+    /**
+     * Number of handler invocations rejected by the executor since it was created
+     */
+    long rejected;
+
+    public static ExecutorStats none() {
+        return NONE;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Per handler counts of invocations and failures for a signal. Counting is enabled on a signal by calling
+ * {@link Signal#handlerCounters()}. Counters are kept for connected handlers only, and are dropped when a handler is
+ * disconnected.
+ */
+public final class HandlerCounters {
+    private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+
+    HandlerCounters() {
+    }
+
+    /**
+     * @return Number of times every handler has been invoked, by handler name
+     */
+    public Map<String, Long> invocations() {
+        return snapshot(counts -> counts.invocations);
+    }
+
+    /**
+     * @return Number of failed invocations of every handler, by handler name
+     */
+    public Map<String, Long> failures() {
+        return snapshot(counts -> counts.failures);
+    }
+
+    /**
+     * Keep counters for the given handlers, and drop the ones for any others
+     *
+     * @param handlerNames Names of connected handlers
+     * @return Counters of the handlers by name, for lookups without allocating
+     */
+    Map<String, Counts> retain(final Set<String> handlerNames) {
+        counts.keySet().retainAll(handlerNames);
+        final Map<String, Counts> lookup = new HashMap<>(handlerNames.size() * 2);
+        handlerNames.forEach(name -> lookup.put(name, counts.computeIfAbsent(name, n -> new Counts())));
+        return Collections.unmodifiableMap(lookup);
+    }
+
+    private Map<String, Long> snapshot(final Function<Counts, LongAdder> counter) {
+        final Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((name, handlerCounts) -> {
+            final long count = counter.apply(handlerCounts).sum();
+            if (count > 0) {
+                snapshot.put(name, count);
+            }
+        });
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    static final class Counts {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        void invoked() {
+            invocations.increment();
+        }
+
+        void failed() {
+            failures.increment();
+        }
+    }
+}
@@ -14,7 +14,10 @@
 
 package io.appform.signals;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.Set;
+import java.util.function.LongConsumer;
 
 /**
  * An abstraction for all executors for signal handlers
@@ -25,4 +28,60 @@ public interface HandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> {
             final T data,
             final ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy);
+
+    /**
+     * Wait till no handler invocation is queued or running. Executors that run handlers in the calling thread are
+     * always quiescent once execute returns.
+     * @param timeout Max time to wait
+     * @return true if quiescent, false if the timeout expired
+     */
+    default boolean awaitQuiescence(Duration timeout) {
+        return true;
+    }
+
+    /**
+     * Stop the executor after giving queued and running handler invocations time to finish. Work still pending at the
+     * deadline is discarded.
+     * @param timeout Max time to wait for pending work
+     * @return Details of work that could not be finished
+     */
+    default DrainResult drain(Duration timeout) {
+        return DrainResult.complete();
+    }
+
+    /**
+     * Set a listener for the time handler invocations wait in the queue before they start running. Executors that
+     * run handlers in the calling thread have no queue and ignore this.
+     * @param listener Receives the queueing delay of every invocation, in nanos
+     */
+    default void queueDelayListener(LongConsumer listener) {
+        //No queue, nothing to report
+    }
+
+    /**
+     * Set a listener called every time a queued handler invocation finishes or is dropped, after it stops counting
+     * towards {@link #stats()}. Executors that run handlers in the calling thread are done when execute returns and
+     * ignore this.
+     * @param listener Called in the thread that finished the invocation
+     */
+    default void completionListener(Runnable listener) {
+        //Nothing is left running after execute
+    }
+
+    /**
+     * Called by the signal after handlers have been connected or disconnected, while holding the signal lock.
+     * Executors keeping state for every handler can drop it for handlers that are gone.
+     * @param handlerNames Names of the handlers connected now
+     */
+    default void handlersChanged(Set<String> handlerNames) {
+        //No state per handler
+    }
+
+    /**
+     * @return Statistics for handler invocations submitted to this executor. Executors that run handlers in the
+     * calling thread have nothing queued and report no statistics.
+     */
+    default ExecutorStats stats() {
+        return ExecutorStats.none();
+    }
 }
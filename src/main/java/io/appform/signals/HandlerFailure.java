@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals;
+
+import lombok.Value;
+
+/**
+ * Details about a failed invocation of a signal handler.
+ */
+@Value
+public class HandlerFailure {
+    /**
+     * Name of the handler that failed
+     */
+    String handlerName;
+
+    /**
+     * Data that was passed to the handler
+     */
+    Object data;
+
+    /**
+     * Exception thrown by the handler
+     */
+    Exception error;
+
+    /**
+     * The attempt that failed, starting at 1
+     */
+    int attempt;
+}
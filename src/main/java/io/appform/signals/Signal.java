@@ -14,10 +14,21 @@
 
 package io.appform.signals;
 
+import io.appform.signals.admission.CoDelAdmissionController;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.dedup.Deduplicator;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.retry.RetryPolicy;
+import lombok.AllArgsConstructor;
 import lombok.Value;
+import lombok.val;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 
 import static io.appform.signals.utils.SignalUtils.isEmpty;
@@ -30,15 +41,26 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
     private static final int DEFAULT_GROUP = 0;
 
     private final Map<Integer, HandlerGroup<T, R, F>> handlers;
+    private volatile List<HandlerGroup<T, R, F>> dispatchGroups = Collections.emptyList();
     private final HandlerExecutor<T, R, F> executor;
     private final ResponseCombiner<R> combiner;
     private final TaskErrorHandler errorHandlingStrategy;
+    private final TaskErrorHandler countingErrorHandler;
+    private final Set<String> paused = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private volatile HandlerCounters counters;
+    //Counters of connected handlers by name, rebuilt whenever handlers change. Null while counting is not enabled.
+    private volatile Map<String, HandlerCounters.Counts> handlerCounts;
+    private volatile Deduplicator<? super T> deduplicator;
+    private volatile CoDelAdmissionController<? super T> admissionController;
+    private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
 
     protected Signal(
             HandlerExecutor<T, R, F> executor,
             ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy) {
         this.errorHandlingStrategy = errorHandlingStrategy;
+        this.countingErrorHandler = new CountingErrorHandler();
         this.handlers = new TreeMap<>();
         this.combiner = combiner;
         this.executor = executor;
@@ -65,9 +87,7 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
      * @return This same signal, for chaining
      */
     public final synchronized Signal<T, R, F> connect(int groupId, final F handler) {
-        handlers.computeIfAbsent(groupId, g -> new HandlerGroup<>(groupId, new ArrayList<>()))
-                .add(UUID.randomUUID().toString(), handler);
-        return this;
+        return connect(groupId, UUID.randomUUID().toString(), handler);
     }
 
     /**
@@ -93,9 +113,44 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
      * @return This same signal, for chaining
      */
     public final synchronized Signal<T, R, F> connect(int groupId, final String handlerName, final F handler) {
+        return connect(groupId, handlerName, handler, null);
+    }
+
+    /**
+     * Connect a named handler to the default group with a policy to retry failed invocations.
+     *
+     * @param handlerName Name to identify the handler
+     * @param handler A signal handler
+     * @param retryPolicy Policy for retrying failed invocations of this handler
+     * @return This same signal, for chaining
+     */
+    public final synchronized Signal<T, R, F> connect(
+            final String handlerName,
+            final F handler,
+            final RetryPolicy retryPolicy) {
+        return connect(DEFAULT_GROUP, handlerName, handler, retryPolicy);
+    }
+
+    /**
+     * Connect a named handler to a specific group with a policy to retry failed invocations. Executors backed by a
+     * thread pool schedule retries on a shared timer, so no pool thread is held during backoff.
+     *
+     * @param groupId Group id to be assigned to.
+     * @param handlerName Name to identify the handler
+     * @param handler A signal handler
+     * @param retryPolicy Policy for retrying failed invocations of this handler. Null disables retries.
+     * @return This same signal, for chaining
+     */
+    public final synchronized Signal<T, R, F> connect(
+            int groupId,
+            final String handlerName,
+            final F handler,
+            final RetryPolicy retryPolicy) {
         checkHandlerName(handlerName);
         handlers.computeIfAbsent(groupId, g -> new HandlerGroup<>(groupId, new ArrayList<>()))
-                .add(handlerName, handler);
+                .add(new NamedHandler<>(handlerName, handler, retryPolicy));
+        refreshDispatchGroups();
+        handlersChanged();
         return this;
     }
 
@@ -109,7 +164,8 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
     }
 
     /**
-     * Disconnect a named handler from the signal.
+     * Disconnect a named handler from the signal. A paused handler is resumed once it is not connected to any group,
+     * so that a handler connected later with the same name does not start out paused.
      * @param handlerName Name that identifies a handler
      * @return This same signal, for chaining
      */
@@ -118,24 +174,446 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
             v.remove(handlerName);
             return v;
         });
+        if (!findHandler(handlerName).isPresent()) {
+            paused.remove(handlerName);
+        }
+        refreshDispatchGroups();
+        handlersChanged();
+        return this;
+    }
+
+    /**
+     * Find a named handler connected to this signal in any group.
+     * @param handlerName Name that identifies a handler
+     * @return The handler if connected, empty otherwise
+     */
+    public final synchronized Optional<F> findHandler(final String handlerName) {
+        return handlers.values()
+                .stream()
+                .flatMap(group -> group.getHandlers().stream())
+                .filter(handler -> handler.getName().equals(handlerName))
+                .map(NamedHandler::getHandler)
+                .findFirst();
+    }
+
+    /**
+     * Names of connected handlers by group, in order of group id.
+     *
+     * @return Handler names for every group
+     */
+    public final synchronized Map<Integer, List<String>> handlerNames() {
+        val names = new LinkedHashMap<Integer, List<String>>();
+        handlers.forEach((groupId, group) -> {
+            val groupNames = new ArrayList<String>(group.getHandlers().size());
+            group.getHandlers().forEach(handler -> groupNames.add(handler.getName()));
+            names.put(groupId, groupNames);
+        });
+        return names;
+    }
+
+    /**
+     * Stop calling a handler till it is resumed. The handler stays connected and dispatches in the meantime are not
+     * delivered to it. Names of handlers that are not connected are ignored.
+     *
+     * @param handlerName Name that identifies a handler
+     * @return this signal
+     */
+    public final synchronized Signal<T, R, F> pause(final String handlerName) {
+        checkHandlerName(handlerName);
+        if (findHandler(handlerName).isPresent()) {
+            paused.add(handlerName);
+        }
+        return this;
+    }
+
+    /**
+     * Resume calling a handler that was paused.
+     *
+     * @param handlerName Name that identifies a handler
+     * @return this signal
+     */
+    public final Signal<T, R, F> resume(final String handlerName) {
+        paused.remove(handlerName);
+        return this;
+    }
+
+    /**
+     * @param handlerName Name that identifies a handler
+     * @return true if the handler has been paused
+     */
+    public final boolean isPaused(final String handlerName) {
+        return paused.contains(handlerName);
+    }
+
+    /**
+     * Counts of invocations and failures for every handler. Counting starts with the first call to this method.
+     *
+     * @return Counters for handlers of this signal
+     */
+    public final HandlerCounters handlerCounters() {
+        HandlerCounters current = counters;
+        if (null == current) {
+            synchronized (this) {
+                current = counters;
+                if (null == current) {
+                    current = new HandlerCounters();
+                    counters = current;
+                    refreshCounters(handlerNameSet());
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @return Statistics for handler invocations submitted to the executor of this signal
+     */
+    public final ExecutorStats executorStats() {
+        return executor.stats();
+    }
+
+    /**
+     * Drop duplicate events before they reach any handler. Pass null to stop deduplicating.
+     *
+     * @param deduplicator Detects duplicates by a key extracted from events
+     * @return this signal
+     */
+    public final Signal<T, R, F> deduplicate(final Deduplicator<? super T> deduplicator) {
+        this.deduplicator = deduplicator;
+        return this;
+    }
+
+    /**
+     * Shed dispatches when handler invocations wait too long in the executor queue. This only has an effect for
+     * signals backed by a thread-pool.
+     *
+     * @param admissionController Decides which dispatches to reject based on the queueing delay
+     * @return this signal
+     */
+    public final Signal<T, R, F> admissionController(final CoDelAdmissionController<? super T> admissionController) {
+        this.admissionController = admissionController;
+        executor.queueDelayListener(null == admissionController ? null : admissionController::recordQueueDelay);
+        return this;
+    }
+
+    /**
+     * Add a listener called every time a handler invocation queued on the executor of this signal finishes or is
+     * dropped, once it no longer counts towards {@link #executorStats()}. Signals that run handlers in the calling
+     * thread are done when dispatch returns, and never call it.
+     *
+     * @param listener Called in the thread that finished the invocation, so it must be quick
+     * @return this signal
+     */
+    public final synchronized Signal<T, R, F> addCompletionListener(final Runnable listener) {
+        completionListeners.add(Objects.requireNonNull(listener, "Listener can't be null"));
+        executor.completionListener(this::handlerCompleted);
+        return this;
+    }
+
+    /**
+     * Remove a listener added with {@link #addCompletionListener(Runnable)}
+     *
+     * @param listener Listener to remove
+     * @return this signal
+     */
+    public final synchronized Signal<T, R, F> removeCompletionListener(final Runnable listener) {
+        completionListeners.remove(listener);
+        if (completionListeners.isEmpty()) {
+            executor.completionListener(null);
+        }
         return this;
     }
 
     /**
      * Trigger the signal with the data. Handlers will get called according to how they have been connected and how the
-     * executors are being setup.
+     * executors are being setup. If a {@link Deduplicator} is set and the data is a duplicate, no handler is called.
+     * The same applies if a {@link CoDelAdmissionController} is set and rejects the dispatch.
      *
      * @param data The data to be passed to the signal handler
-     * @return Response from calling the handlers after they pass through the combiner
+     * @return Response from calling the handlers after they pass through the combiner. For duplicates and rejected
+     * dispatches, the current result of the combiner.
      */
     public final R dispatch(final T data) {
-        handlers.values()
-                .stream()
-                .map(group -> executor.execute(group.getHandlers(), data, combiner, errorHandlingStrategy))
-                .forEach(combiner::assimilateGroupResult);
+        if (DispatchContext.current().deadline().isPresent()) {
+            //Called from a handler of a dispatch with a deadline, which only applies to the work of that dispatch
+            return DispatchContext.none().call(() -> dispatchInContext(data));
+        }
+        return dispatchInContext(data);
+    }
+
+    /**
+     * Trigger the signal with the data, to be done by the deadline of the dispatch being handled in the calling thread,
+     * if there is one. Use this in handlers to pass on an event that is part of the work for the current dispatch.
+     * {@link #dispatch(Object)} does not inherit the deadline.
+     *
+     * @param data The data to be passed to the signal handler
+     * @return Response from calling the handlers that ran, after they pass through the combiner
+     */
+    public final R dispatchInherited(final T data) {
+        return dispatchInContext(data);
+    }
+
+    private R dispatchInContext(final T data) {
+        if (closed) {
+            throw new IllegalStateException("Signal has been closed");
+        }
+        val event = SignalEvents.beginDispatch();
+        boolean admitted = false;
+        try {
+            //Admission goes first, so that shed data is not remembered as seen and gets through when sent again
+            val admission = admissionController;
+            if (null != admission && !admission.admit(data)) {
+                skipped(data);
+                return combiner.result();
+            }
+            val dedup = deduplicator;
+            if (null != dedup && !dedup.firstSeen(data)) {
+                skipped(data);
+                return combiner.result();
+            }
+            admitted = true;
+            try {
+                return dispatchToGroups(data);
+            }
+            catch (RuntimeException | Error e) {
+                if (null != dedup) {
+                    //Not dispatched, so a retry by the caller must not be dropped as a duplicate
+                    dedup.forget(data);
+                }
+                throw e;
+            }
+        }
+        finally {
+            SignalEvents.endDispatch(event, getClass(), admitted);
+        }
+    }
+
+    /**
+     * Trigger the signal with the data, to be done by the given deadline. Handlers can read the remaining time from
+     * {@link DispatchContext#current()}, or as a parameter when they are
+     * {@link io.appform.signals.signalhandlers.ContextualSignalHandler}s. Handler groups that have not started when
+     * the deadline expires are skipped, and invocations still queued on executors at that time are discarded.
+     * If the dispatch happens inside another one with an earlier deadline, the earlier deadline applies.
+     *
+     * @param data     The data to be passed to the signal handler
+     * @param deadline Deadline for the dispatch
+     * @return Response from calling the handlers that ran, after they pass through the combiner
+     */
+    public final R dispatch(final T data, final Deadline deadline) {
+        Objects.requireNonNull(deadline, "Deadline can't be null");
+        val effective = DispatchContext.current()
+                .deadline()
+                .map(outer -> outer.earlier(deadline))
+                .orElse(deadline);
+        return new DispatchContext(effective).call(() -> dispatchInContext(data));
+    }
+
+    /**
+     * Wait till all handler invocations queued or running on the executor have finished.
+     *
+     * @param timeout Max time to wait
+     * @return true if there is no pending work, false if the timeout expired
+     */
+    public final boolean awaitQuiescence(final Duration timeout) {
+        return executor.awaitQuiescence(timeout);
+    }
+
+    /**
+     * Stop accepting dispatches and give handler invocations that are queued or running time to finish. Invocations
+     * still queued at the deadline are discarded and running ones are interrupted. Executor services passed in to the
+     * signal are not shut down, as they might be shared.
+     *
+     * @param timeout Max time to wait for pending work
+     * @return Details of work that could not be finished
+     */
+    public final DrainResult drain(final Duration timeout) {
+        closed = true;
+        return executor.drain(timeout);
+    }
+
+    /**
+     * @return true if this signal does not accept dispatches anymore
+     */
+    public final boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Executes the handler groups in order of group id using the configured executor. Subclasses can override this to
+     * add behaviour around the actual execution of handlers.
+     *
+     * @param data The data to be passed to the signal handler
+     * @return Response from calling the handlers after they pass through the combiner
+     */
+    protected R dispatchToGroups(final T data) {
+        val context = DispatchContext.current();
+        for (val group : dispatchGroups) {
+            if (context.isExpired()) {
+                log.debug("Deadline expired, skipping remaining handler groups");
+                break;
+            }
+            val active = activeHandlers(group.getHandlers());
+            val event = SignalEvents.beginGroup();
+            try {
+                combiner.assimilateGroupResult(executor.execute(active, data, combiner, countingErrorHandler));
+            }
+            finally {
+                SignalEvents.endGroup(event, getClass(), group.getId(), active.size());
+            }
+        }
         return combiner.result();
     }
 
+    /**
+     * Called instead of {@link #dispatchToGroups(Object)} for data that is not dispatched, because it is a duplicate
+     * or was rejected by the admission controller.
+     *
+     * @param data The data that was skipped
+     */
+    protected void skipped(final T data) {
+        //Nothing to do by default
+    }
+
+    /**
+     * Publish an immutable copy of the handler groups for dispatches, so that dispatching never sees handlers being
+     * changed. Called with the signal lock held.
+     */
+    private void refreshDispatchGroups() {
+        val groups = new ArrayList<HandlerGroup<T, R, F>>(handlers.size());
+        handlers.values().forEach(group -> groups.add(new HandlerGroup<>(
+                group.getId(), Collections.unmodifiableList(new ArrayList<>(group.getHandlers())))));
+        dispatchGroups = Collections.unmodifiableList(groups);
+        val names = handlerNameSet();
+        executor.handlersChanged(names);
+        refreshCounters(names);
+    }
+
+    /**
+     * Look counters up for connected handlers once here, instead of on every dispatch, and drop the ones of
+     * disconnected handlers. Called with the signal lock held.
+     */
+    private void refreshCounters(final Set<String> names) {
+        val current = counters;
+        if (null != current) {
+            handlerCounts = current.retain(names);
+        }
+    }
+
+    private Set<String> handlerNameSet() {
+        val names = new HashSet<String>();
+        handlers.values().forEach(group -> group.getHandlers().forEach(handler -> names.add(handler.getName())));
+        return Collections.unmodifiableSet(names);
+    }
+
+    private void handlerCompleted() {
+        for (val listener : completionListeners) {
+            try {
+                listener.run();
+            }
+            catch (RuntimeException e) {
+                log.error("Error in completion listener: ", e);
+            }
+        }
+    }
+
+    /**
+     * Called after a handler has been connected or disconnected, while holding the signal lock. Subclasses caching
+     * anything derived from the set of handlers can invalidate it here.
+     */
+    protected void handlersChanged() {
+        //Nothing to do by default
+    }
+
+    /**
+     * Remove paused handlers from a list of handlers about to be invoked and count invocations for the rest, if
+     * counting has been enabled. Subclasses that invoke handlers themselves should pass them through this.
+     *
+     * @param handlers Handlers to be invoked
+     * @return Handlers that should be invoked
+     */
+    protected final List<NamedHandler<F>> activeHandlers(final List<NamedHandler<F>> handlers) {
+        val active = withoutPaused(handlers);
+        val counts = handlerCounts;
+        if (null != counts) {
+            for (int i = 0; i < active.size(); i++) {
+                val count = counts.get(active.get(i).getName());
+                //Not there only if the handler got disconnected while this dispatch was starting
+                if (null != count) {
+                    count.invoked();
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return The same list if no handler in it is paused, which is the common case, otherwise a filtered copy
+     */
+    private List<NamedHandler<F>> withoutPaused(final List<NamedHandler<F>> handlers) {
+        if (paused.isEmpty()) {
+            return handlers;
+        }
+        int first = 0;
+        while (first < handlers.size() && !paused.contains(handlers.get(first).getName())) {
+            first++;
+        }
+        if (first == handlers.size()) {
+            return handlers;
+        }
+        val active = new ArrayList<NamedHandler<F>>(handlers.size() - 1);
+        active.addAll(handlers.subList(0, first));
+        for (int i = first + 1; i < handlers.size(); i++) {
+            val handler = handlers.get(i);
+            if (!paused.contains(handler.getName())) {
+                active.add(handler);
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Error handler to be passed to executors by subclasses that invoke handlers themselves. Failures are counted
+     * before being passed on to the configured error handler.
+     *
+     * @return Error handler for handler invocations
+     */
+    protected final TaskErrorHandler errorHandler() {
+        return countingErrorHandler;
+    }
+
+    /**
+     * A snapshot of all handlers connected to this signal, in order of group id.
+     *
+     * @return List of connected handlers
+     */
+    protected final synchronized List<NamedHandler<F>> connectedHandlers() {
+        val connected = new ArrayList<NamedHandler<F>>();
+        handlers.values().forEach(group -> connected.addAll(group.getHandlers()));
+        return connected;
+    }
+
+    /**
+     * A snapshot of all handlers connected to this signal, grouped in order of group id.
+     *
+     * @return List of handler groups
+     */
+    protected final synchronized List<List<NamedHandler<F>>> connectedGroups() {
+        val connected = new ArrayList<List<NamedHandler<F>>>(handlers.size());
+        handlers.values().forEach(group -> connected.add(new ArrayList<>(group.getHandlers())));
+        return connected;
+    }
+
+    /**
+     * A snapshot of all handlers connected to this signal by group id, in order of group id.
+     *
+     * @return Handlers of every group
+     */
+    protected final synchronized Map<Integer, List<NamedHandler<F>>> connectedGroupsById() {
+        val connected = new LinkedHashMap<Integer, List<NamedHandler<F>>>(handlers.size());
+        handlers.values().forEach(group -> connected.put(group.getId(), new ArrayList<>(group.getHandlers())));
+        return connected;
+    }
+
     /**
      * Base class for providing a builder for configuring subtypes of the Signal class.
      * @param <T> Type of parameter to handler
@@ -151,6 +629,7 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
             C extends ResponseCombiner<R>,
             S extends Signal<T, R, F>> {
         protected ExecutorService executorService;
+        protected HandlerExecutor<T, R, F> handlerExecutor;
         protected C combiner;
         protected TaskErrorHandler errorHandler;
 
@@ -158,9 +637,15 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
     }
 
     @Value
+    @AllArgsConstructor
     public static class NamedHandler<F> {
         String name;
         F handler;
+        RetryPolicy retryPolicy;
+
+        public NamedHandler(String name, F handler) {
+            this(name, handler, null);
+        }
     }
 
     /**
@@ -172,9 +657,9 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
         int id;
         List<NamedHandler<F>> handlers;
 
-        void add(String handlerName, F function) {
-            checkHandlerName(handlerName);
-            handlers.add(new NamedHandler<>(handlerName, function));
+        void add(NamedHandler<F> handler) {
+            checkHandlerName(handler.getName());
+            handlers.add(handler);
         }
 
         void remove(final String handlerName) {
@@ -183,6 +668,26 @@ public abstract class Signal<T, R, F extends SignalHandlerBase<T, R>> {
         }
     }
 
+    /**
+     * Counts failures for handlers before passing them on to the configured error handler
+     */
+    private final class CountingErrorHandler implements TaskErrorHandler {
+        @Override
+        public void handle(Exception e) {
+            errorHandlingStrategy.handle(e);
+        }
+
+        @Override
+        public void handle(HandlerFailure failure) {
+            val counts = handlerCounts;
+            val failedCounts = null == counts ? null : counts.get(failure.getHandlerName());
+            if (null != failedCounts) {
+                failedCounts.failed();
+            }
+            errorHandlingStrategy.handle(failure);
+        }
+    }
+
     /**
      * Ensures handler name is not null or empty
      * @param handlerName The name ot identify the handler
@@ -24,4 +24,13 @@ public interface TaskErrorHandler {
      * @param e Exception thrown by the handler
      */
     void handle(Exception e);
+
+    /**
+     * Handle an exception thrown by a signal handler, with details about the failed invocation. By default, this
+     * calls {@link #handle(Exception)}.
+     * @param failure Details about the failed invocation
+     */
+    default void handle(HandlerFailure failure) {
+        handle(failure.getError());
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.admission;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * Admission control for signals backed by a thread-pool, based on the CoDel (controlled delay) algorithm. The time
+ * handler invocations wait in the executor queue is measured, and if even the smallest wait seen in an interval is
+ * above the target, the signal is considered overloaded till an interval passes with some wait below the target.
+ * While overloaded, dispatches with a priority below the protected priority are rejected before any work is queued,
+ * following the CoDel control law: the first one is rejected right away, and every next rejection comes after
+ * interval / sqrt(rejections so far), so shedding gets more aggressive the longer the delay stays above the target.
+ * Other dispatches are admitted in between. If the signal gets overloaded again soon after recovering, shedding resumes
+ * close to the rate it had reached.
+ * This keeps queueing delay close to the target without having to pick a queue size.
+ * Set on a signal using {@link io.appform.signals.Signal#admissionController(CoDelAdmissionController)}.
+ * Defaults:
+ *  - Target - 5 ms
+ *  - Interval - 100 ms
+ *  - Priority - 0 for all dispatches
+ *  - Protected priority - 1, so all dispatches can be shed by default
+ */
+@Slf4j
+public class CoDelAdmissionController<T> {
+    private static final int RESUME_INTERVALS = 16;
+
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final ToIntFunction<? super T> priority;
+    private final int protectedPriority;
+    private final ShedListener<? super T> shedListener;
+    private final AtomicLong minDelay = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong shed = new AtomicLong();
+    private volatile long intervalEnd;
+    private volatile long lastSample;
+    private volatile boolean overloaded;
+    //Control law state, guarded by this
+    private long dropNext;
+    private int dropCount;
+    private long recoveredAt;
+
+    private CoDelAdmissionController(
+            long targetNanos,
+            long intervalNanos,
+            ToIntFunction<? super T> priority,
+            int protectedPriority,
+            ShedListener<? super T> shedListener) {
+        this.targetNanos = targetNanos;
+        this.intervalNanos = intervalNanos;
+        this.priority = priority;
+        this.protectedPriority = protectedPriority;
+        this.shedListener = shedListener;
+        this.intervalEnd = System.nanoTime() + intervalNanos;
+    }
+
+    /**
+     * Record the time a handler invocation waited in the queue. Called by executors.
+     *
+     * @param delayNanos Queueing delay in nanos
+     */
+    public void recordQueueDelay(long delayNanos) {
+        val now = System.nanoTime();
+        lastSample = now;
+        minDelay.accumulateAndGet(delayNanos, Math::min);
+        if (now - intervalEnd >= 0) {
+            synchronized (this) {
+                if (now - intervalEnd >= 0) {
+                    val wasOverloaded = overloaded;
+                    val nowOverloaded = minDelay.getAndSet(Long.MAX_VALUE) > targetNanos;
+                    intervalEnd = now + intervalNanos;
+                    if (nowOverloaded && !wasOverloaded) {
+                        startShedding(now);
+                    }
+                    else if (!nowOverloaded && wasOverloaded) {
+                        recoveredAt = now;
+                    }
+                    overloaded = nowOverloaded;
+                    if (overloaded != wasOverloaded) {
+                        log.info("Queueing delay {} target. Shedding: {}", overloaded ? "above" : "back under", overloaded);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if a dispatch can go ahead.
+     *
+     * @param data The data being dispatched
+     * @return true if admitted, false if the dispatch should be rejected
+     */
+    public boolean admit(final T data) {
+        if (!overloaded) {
+            return true;
+        }
+        val now = System.nanoTime();
+        if (now - lastSample > intervalNanos) {
+            //Nothing has run for an interval, so there is nothing to measure. Let dispatches through to find out.
+            synchronized (this) {
+                if (overloaded) {
+                    overloaded = false;
+                    recoveredAt = now;
+                }
+            }
+            return true;
+        }
+        if (priority.applyAsInt(data) >= protectedPriority || !dropNow(now)) {
+            return true;
+        }
+        val total = shed.incrementAndGet();
+        if (null != shedListener) {
+            try {
+                shedListener.onShed(data, total);
+            }
+            catch (RuntimeException e) {
+                log.error("Error in shed listener: ", e);
+            }
+        }
+        return false;
+    }
+
+    private void startShedding(long now) {
+        //Resume near the previous rate if the last overload ended recently, as the load has probably not changed
+        dropCount = dropCount > 2 && now - recoveredAt < RESUME_INTERVALS * intervalNanos
+                    ? dropCount - 2
+                    : 0;
+        dropNext = now;
+    }
+
+    private synchronized boolean dropNow(long now) {
+        if (!overloaded || now - dropNext < 0) {
+            return false;
+        }
+        dropCount++;
+        dropNext = now + (long) (intervalNanos / Math.sqrt(dropCount));
+        return true;
+    }
+
+    /**
+     * @return true if dispatches are being shed
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * @return Number of dispatches rejected so far
+     */
+    public long shed() {
+        return shed.get();
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T> {
+        private Duration target = Duration.ofMillis(5);
+        private Duration interval = Duration.ofMillis(100);
+        private ToIntFunction<? super T> priority = data -> 0;
+        private int protectedPriority = 1;
+        private ShedListener<? super T> shedListener;
+
+        /**
+         * Acceptable queueing delay
+         */
+        public Builder<T> target(final Duration target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Time the queueing delay needs to stay above the target to start shedding. Should be more than the usual
+         * time taken by handlers.
+         */
+        public Builder<T> interval(final Duration interval) {
+            this.interval = interval;
+            return this;
+        }
+
+        public Builder<T> priority(final ToIntFunction<? super T> priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Dispatches with at least this priority are never shed
+         */
+        public Builder<T> protectedPriority(int protectedPriority) {
+            this.protectedPriority = protectedPriority;
+            return this;
+        }
+
+        public Builder<T> shedListener(final ShedListener<? super T> shedListener) {
+            this.shedListener = shedListener;
+            return this;
+        }
+
+        public CoDelAdmissionController<T> build() {
+            Objects.requireNonNull(target, "Target is needed for admission controller");
+            Objects.requireNonNull(interval, "Interval is needed for admission controller");
+            Objects.requireNonNull(priority, "Priority is needed for admission controller");
+            if (target.isNegative() || interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Target and interval must be positive");
+            }
+            return new CoDelAdmissionController<>(target.toNanos(),
+                                                  interval.toNanos(),
+                                                  priority,
+                                                  protectedPriority,
+                                                  shedListener);
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.combiners;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * Common {@link DoubleResponseCombiner} implementations. Results are computed for every dispatch on its own, and the
+ * combiners can be shared between signals.
+ */
+@UtilityClass
+public class DoubleCombiners {
+    private static final DoubleResponseCombiner LAST = of(0.0, (current, data) -> data);
+    private static final DoubleResponseCombiner SUM = of(0.0, Double::sum);
+    private static final DoubleResponseCombiner MIN = of(Double.POSITIVE_INFINITY, Math::min);
+    private static final DoubleResponseCombiner MAX = of(Double.NEGATIVE_INFINITY, Math::max);
+
+    /**
+     * @return A combiner that keeps the last value it encounters. This is the default for DoubleSignal.
+     */
+    public static DoubleResponseCombiner last() {
+        return LAST;
+    }
+
+    /**
+     * @return A combiner that sums all handler results
+     */
+    public static DoubleResponseCombiner sum() {
+        return SUM;
+    }
+
+    /**
+     * @return A combiner that keeps the smallest handler result, or Double.POSITIVE_INFINITY if there is none
+     */
+    public static DoubleResponseCombiner min() {
+        return MIN;
+    }
+
+    /**
+     * @return A combiner that keeps the largest handler result, or Double.NEGATIVE_INFINITY if there is none
+     */
+    public static DoubleResponseCombiner max() {
+        return MAX;
+    }
+
+    /**
+     * @param initial  Result of a dispatch without handler results
+     * @param operator Combines the result so far with the next handler result
+     * @return A combiner folding handler results with the operator
+     */
+    public static DoubleResponseCombiner of(double initial, DoubleBinaryOperator operator) {
+        return new Folding(initial, operator);
+    }
+
+    private static final class Folding implements DoubleResponseCombiner {
+        private final double initial;
+        private final DoubleBinaryOperator operator;
+
+        private Folding(double initial, DoubleBinaryOperator operator) {
+            this.initial = initial;
+            this.operator = operator;
+        }
+
+        @Override
+        public double initial() {
+            return initial;
+        }
+
+        @Override
+        public double combine(double current, double data) {
+            return operator.applyAsDouble(current, data);
+        }
+    }
+}
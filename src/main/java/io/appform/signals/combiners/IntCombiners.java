@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.combiners;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Common {@link IntResponseCombiner} implementations. Results are computed for every dispatch on its own, and the
+ * combiners can be shared between signals.
+ */
+@UtilityClass
+public class IntCombiners {
+    private static final IntResponseCombiner LAST = of(0, (current, data) -> data);
+    private static final IntResponseCombiner SUM = of(0, Integer::sum);
+    private static final IntResponseCombiner MIN = of(Integer.MAX_VALUE, Math::min);
+    private static final IntResponseCombiner MAX = of(Integer.MIN_VALUE, Math::max);
+
+    /**
+     * @return A combiner that keeps the last value it encounters. This is the default for IntSignal.
+     */
+    public static IntResponseCombiner last() {
+        return LAST;
+    }
+
+    /**
+     * @return A combiner that sums all handler results
+     */
+    public static IntResponseCombiner sum() {
+        return SUM;
+    }
+
+    /**
+     * @return A combiner that keeps the smallest handler result, or Integer.MAX_VALUE if there is none
+     */
+    public static IntResponseCombiner min() {
+        return MIN;
+    }
+
+    /**
+     * @return A combiner that keeps the largest handler result, or Integer.MIN_VALUE if there is none
+     */
+    public static IntResponseCombiner max() {
+        return MAX;
+    }
+
+    /**
+     * @param initial  Result of a dispatch without handler results
+     * @param operator Combines the result so far with the next handler result
+     * @return A combiner folding handler results with the operator
+     */
+    public static IntResponseCombiner of(int initial, IntBinaryOperator operator) {
+        return new Folding(initial, operator);
+    }
+
+    private static final class Folding implements IntResponseCombiner {
+        private final int initial;
+        private final IntBinaryOperator operator;
+
+        private Folding(int initial, IntBinaryOperator operator) {
+            this.initial = initial;
+            this.operator = operator;
+        }
+
+        @Override
+        public int initial() {
+            return initial;
+        }
+
+        @Override
+        public int combine(int current, int data) {
+            return operator.applyAsInt(current, data);
+        }
+    }
+}
@@ -20,7 +20,7 @@ import io.appform.signals.ResponseCombiner;
  * A {@link ResponseCombiner} that stores the last value it encounters. This is the default consumer for Generating Signals.
  */
 public class LastValueResponseCombiner<R> implements ResponseCombiner<R> {
-    private R current;
+    private volatile R current;
 
     public LastValueResponseCombiner() {
         this(null);
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.combiners;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Common {@link LongResponseCombiner} implementations. Results are computed for every dispatch on its own, and the
+ * combiners can be shared between signals.
+ */
+@UtilityClass
+public class LongCombiners {
+    private static final LongResponseCombiner LAST = of(0L, (current, data) -> data);
+    private static final LongResponseCombiner SUM = of(0L, Long::sum);
+    private static final LongResponseCombiner MIN = of(Long.MAX_VALUE, Math::min);
+    private static final LongResponseCombiner MAX = of(Long.MIN_VALUE, Math::max);
+
+    /**
+     * @return A combiner that keeps the last value it encounters. This is the default for LongSignal.
+     */
+    public static LongResponseCombiner last() {
+        return LAST;
+    }
+
+    /**
+     * @return A combiner that sums all handler results
+     */
+    public static LongResponseCombiner sum() {
+        return SUM;
+    }
+
+    /**
+     * @return A combiner that keeps the smallest handler result, or Long.MAX_VALUE if there is none
+     */
+    public static LongResponseCombiner min() {
+        return MIN;
+    }
+
+    /**
+     * @return A combiner that keeps the largest handler result, or Long.MIN_VALUE if there is none
+     */
+    public static LongResponseCombiner max() {
+        return MAX;
+    }
+
+    /**
+     * @param initial  Result of a dispatch without handler results
+     * @param operator Combines the result so far with the next handler result
+     * @return A combiner folding handler results with the operator
+     */
+    public static LongResponseCombiner of(long initial, LongBinaryOperator operator) {
+        return new Folding(initial, operator);
+    }
+
+    private static final class Folding implements LongResponseCombiner {
+        private final long initial;
+        private final LongBinaryOperator operator;
+
+        private Folding(long initial, LongBinaryOperator operator) {
+            this.initial = initial;
+            this.operator = operator;
+        }
+
+        @Override
+        public long initial() {
+            return initial;
+        }
+
+        @Override
+        public long combine(long current, long data) {
+            return operator.applyAsLong(current, data);
+        }
+    }
+}
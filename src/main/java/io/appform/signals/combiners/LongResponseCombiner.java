@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.combiners;
+
+/**
+ * Combines primitive results from handlers of a {@link io.appform.signals.signals.LongSignal} into the result of a
+ * dispatch. This mirrors {@link io.appform.signals.ResponseCombiner} without boxing. The result being built is kept by
+ * the dispatching thread and passed in, so combiners have no state, are safe to share between concurrent dispatches
+ * and return the result for every dispatch on its own. Use {@link LongCombiners} for common implementations.
+ */
+public interface LongResponseCombiner {
+    /**
+     * @return Result of a dispatch before any handler result has been combined into it
+     */
+    long initial();
+
+    /**
+     * Combine a result from a call to {@link io.appform.signals.signalhandlers.LongSignalHandler#handle(long)} into the
+     * result of the dispatch.
+     * @param current Result of the dispatch so far
+     * @param data    The result from handler call
+     * @return The updated result of the dispatch
+     */
+    long combine(long current, long data);
+}
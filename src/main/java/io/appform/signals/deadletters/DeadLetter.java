@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import lombok.Value;
+
+/**
+ * An event that could not be processed by a handler.
+ */
+@Value
+public class DeadLetter<T> {
+    /**
+     * Name of the signal the event was dispatched on
+     */
+    String signalName;
+
+    /**
+     * Name of the handler that failed
+     */
+    String handlerName;
+
+    /**
+     * The event
+     */
+    T event;
+
+    /**
+     * Description of the error thrown by the handler
+     */
+    String error;
+
+    /**
+     * The attempt that failed, starting at 1
+     */
+    int attempt;
+
+    /**
+     * Time of failure in epoch milliseconds
+     */
+    long timestamp;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Dead letters read from a {@link DeadLetterStore} without removing them.
+ */
+@Value
+public class DeadLetterBatch<T> {
+    /**
+     * Dead letters in the order they were added
+     */
+    List<DeadLetter<T>> deadLetters;
+
+    /**
+     * Position to continue reading from, or to commit once the dead letters have been handled
+     */
+    long nextPosition;
+
+    public boolean isEmpty() {
+        return deadLetters.isEmpty();
+    }
+}
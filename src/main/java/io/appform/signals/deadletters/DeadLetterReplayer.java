@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import io.appform.signals.Signal;
+import io.appform.signals.SignalHandlerBase;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayList;
+
+/**
+ * Replays dead letters from a {@link DeadLetterStore} to a handler in batches. Dead letters that fail again are put
+ * back in the store with the attempt incremented once the replay finishes. Replayed dead letters are committed to the
+ * store only after that, so a replay that is interrupted midway replays them again.
+ */
+@Slf4j
+public class DeadLetterReplayer<T> {
+    private final DeadLetterStore<T> store;
+
+    /**
+     * Outcome of a replay
+     */
+    @Value
+    public static class ReplayResult {
+        long replayed;
+        long failed;
+    }
+
+    public DeadLetterReplayer(DeadLetterStore<T> store) {
+        this.store = store;
+    }
+
+    /**
+     * Replay dead letters for a named handler connected to a signal
+     *
+     * @param signal The signal to which the handler is connected
+     * @param handlerName Name of the handler
+     * @param batchSize Number of dead letters taken from the store at a time
+     * @return Counts of successful and failed replays
+     */
+    public <R, F extends SignalHandlerBase<T, R>> ReplayResult replay(
+            final Signal<T, R, F> signal,
+            final String handlerName,
+            int batchSize) {
+        val handler = signal.findHandler(handlerName)
+                .orElseThrow(() -> new IllegalArgumentException("No handler named " + handlerName + " is connected"));
+        return replay(handlerName, handler, batchSize);
+    }
+
+    /**
+     * Replay dead letters recorded for handlerName to the provided handler
+     *
+     * @param handlerName Name of the handler for which dead letters were recorded
+     * @param handler The handler to pass the events to
+     * @param batchSize Number of dead letters taken from the store at a time
+     * @return Counts of successful and failed replays
+     */
+    public ReplayResult replay(final String handlerName, final SignalHandlerBase<T, ?> handler, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        val failures = new ArrayList<DeadLetter<T>>();
+        long replayed = 0;
+        long position = 0;
+        while (true) {
+            val batch = store.read(handlerName, position, batchSize);
+            position = batch.getNextPosition();
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (val deadLetter : batch.getDeadLetters()) {
+                try {
+                    handler.handle(deadLetter.getEvent());
+                    replayed++;
+                }
+                catch (Exception e) {
+                    log.warn("Replay of dead letter to handler {} failed: {}", handlerName, e.getMessage());
+                    failures.add(new DeadLetter<>(deadLetter.getSignalName(),
+                                                  handlerName,
+                                                  deadLetter.getEvent(),
+                                                  String.valueOf(e),
+                                                  deadLetter.getAttempt() + 1,
+                                                  System.currentTimeMillis()));
+                }
+            }
+        }
+        //Failures are added back only at the end so that they are not picked up again in this replay. Replayed dead
+        //letters are committed after that, so nothing is lost if the replay is interrupted midway.
+        failures.forEach(store::add);
+        store.commit(handlerName, position);
+        log.info("Replayed {} dead letters to handler {}. Failed: {}", replayed, handlerName, failures.size());
+        return new ReplayResult(replayed, failures.size());
+    }
+}
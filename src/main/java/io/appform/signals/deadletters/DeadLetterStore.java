@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import java.util.List;
+
+/**
+ * Storage for {@link DeadLetter}s till they are replayed.
+ */
+public interface DeadLetterStore<T> {
+    /**
+     * Store a dead letter
+     * @param deadLetter The dead letter
+     */
+    void add(DeadLetter<T> deadLetter);
+
+    /**
+     * Read the oldest dead letters for a handler without removing them
+     * @param handlerName Name of the handler
+     * @param position Next position of the previous {@link DeadLetterBatch}, or 0 to start from the oldest
+     *                 dead letter
+     * @param maxItems Maximum number of dead letters to return
+     * @return Dead letters in the order they were added. Empty if nothing is left for the handler after the position.
+     */
+    DeadLetterBatch<T> read(String handlerName, long position, int maxItems);
+
+    /**
+     * Remove the dead letters for a handler that were read before the position. Call this only once they have been
+     * handled, so that they are read again if handling them fails midway.
+     * @param handlerName Name of the handler
+     * @param position Next position of the last {@link DeadLetterBatch} that was handled
+     */
+    void commit(String handlerName, long position);
+
+    /**
+     * Remove and return the oldest dead letters for a handler
+     * @param handlerName Name of the handler
+     * @param maxItems Maximum number of dead letters to return
+     * @return Dead letters in the order they were added. Empty if nothing is left for the handler.
+     */
+    default List<DeadLetter<T>> take(String handlerName, int maxItems) {
+        final DeadLetterBatch<T> batch = read(handlerName, 0, maxItems);
+        commit(handlerName, batch.getNextPosition());
+        return batch.getDeadLetters();
+    }
+}
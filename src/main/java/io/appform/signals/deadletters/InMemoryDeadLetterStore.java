@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/**
+ * A {@link DeadLetterStore} that keeps a bounded number of dead letters in memory. Once full, the oldest dead letter
+ * is dropped to make space for a new one.
+ */
+@Slf4j
+public class InMemoryDeadLetterStore<T> implements DeadLetterStore<T> {
+    private final int capacity;
+    private final Deque<Entry<T>> deadLetters = new ArrayDeque<>();
+    private long sequence;
+    private long dropped;
+
+    public InMemoryDeadLetterStore(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void add(DeadLetter<T> deadLetter) {
+        if (deadLetters.size() >= capacity) {
+            val evicted = deadLetters.pollFirst();
+            dropped++;
+            log.warn("Dead letter store is full. Dropped dead letter for handler {}",
+                     evicted.deadLetter.getHandlerName());
+        }
+        deadLetters.addLast(new Entry<>(++sequence, deadLetter));
+    }
+
+    @Override
+    public synchronized DeadLetterBatch<T> read(String handlerName, long position, int maxItems) {
+        val read = new ArrayList<DeadLetter<T>>();
+        long next = position;
+        for (val entry : deadLetters) {
+            if (read.size() >= maxItems) {
+                break;
+            }
+            if (entry.sequence >= position && entry.deadLetter.getHandlerName().equals(handlerName)) {
+                read.add(entry.deadLetter);
+                next = entry.sequence + 1;
+            }
+        }
+        return new DeadLetterBatch<>(read, next);
+    }
+
+    @Override
+    public synchronized void commit(String handlerName, long position) {
+        deadLetters.removeIf(entry -> entry.sequence < position
+                && entry.deadLetter.getHandlerName().equals(handlerName));
+    }
+
+    /**
+     * @return Number of dead letters currently stored
+     */
+    public synchronized int size() {
+        return deadLetters.size();
+    }
+
+    /**
+     * @return Number of dead letters dropped because the store was full
+     */
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    private static final class Entry<T> {
+        private final long sequence;
+        private final DeadLetter<T> deadLetter;
+
+        private Entry(long sequence, DeadLetter<T> deadLetter) {
+            this.sequence = sequence;
+            this.deadLetter = deadLetter;
+        }
+    }
+}
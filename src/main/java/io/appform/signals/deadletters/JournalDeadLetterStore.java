@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import io.appform.signals.journal.EventSerializer;
+import io.appform.signals.journal.HandlerOffsets;
+import io.appform.signals.journal.JournalConfig;
+import io.appform.signals.journal.MappedJournal;
+import lombok.val;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DeadLetterStore} that appends dead letters to a {@link MappedJournal}, so that they survive restarts.
+ * A read position is maintained for every handler. Segments are deleted once dead letters in them have been committed
+ * for all handlers.
+ */
+public class JournalDeadLetterStore<T> implements DeadLetterStore<T>, Closeable {
+    private static final String OFFSETS_FILE = "offsets.properties";
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final EventSerializer<T> serializer;
+    private final MappedJournal journal;
+    private final HandlerOffsets offsets;
+
+    public JournalDeadLetterStore(final JournalConfig journalConfig, final EventSerializer<T> serializer) {
+        this.serializer = serializer;
+        this.journal = new MappedJournal(journalConfig.getDirectory(),
+                                         journalConfig.getSegmentSize(),
+                                         journalConfig.getFsyncBatchSize());
+        this.offsets = new HandlerOffsets(journalConfig.getDirectory().resolve(OFFSETS_FILE));
+    }
+
+    @Override
+    public synchronized void add(DeadLetter<T> deadLetter) {
+        val offset = journal.append(encode(deadLetter));
+        if (offsets.committed(deadLetter.getHandlerName()) < 0) {
+            offsets.register(deadLetter.getHandlerName(), offset);
+            offsets.store();
+        }
+    }
+
+    @Override
+    public synchronized DeadLetterBatch<T> read(String handlerName, long position, int maxItems) {
+        val read = new ArrayList<DeadLetter<T>>();
+        val end = journal.endOffset();
+        val committed = offsets.committed(handlerName);
+        if (committed < 0) {
+            return new DeadLetterBatch<>(read, position);
+        }
+        val from = Math.max(committed, position);
+        if (from >= end || maxItems < 1) {
+            return new DeadLetterBatch<>(read, from);
+        }
+        val next = new AtomicLong(from);
+        journal.read(from, end, (offset, nextOffset, payload) -> {
+            val deadLetter = decode(payload);
+            if (deadLetter.getHandlerName().equals(handlerName)) {
+                read.add(deadLetter);
+            }
+            next.set(nextOffset);
+            return read.size() < maxItems;
+        });
+        return new DeadLetterBatch<>(read, next.get());
+    }
+
+    @Override
+    public synchronized void commit(String handlerName, long position) {
+        val committed = offsets.committed(handlerName);
+        if (committed < 0 || position <= committed) {
+            return;
+        }
+        offsets.advance(handlerName, position);
+        journal.flush();
+        offsets.store();
+        journal.deleteBefore(offsets.minCommitted());
+    }
+
+    @Override
+    public synchronized void close() {
+        offsets.store();
+        journal.close();
+    }
+
+    private byte[] encode(DeadLetter<T> deadLetter) {
+        val bytes = new ByteArrayOutputStream();
+        try (val out = new DataOutputStream(bytes)) {
+            out.writeUTF(deadLetter.getSignalName());
+            out.writeUTF(deadLetter.getHandlerName());
+            out.writeUTF(truncate(deadLetter.getError()));
+            out.writeInt(deadLetter.getAttempt());
+            out.writeLong(deadLetter.getTimestamp());
+            val event = serializer.serialize(deadLetter.getEvent());
+            out.writeInt(event.length);
+            out.write(event);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not encode dead letter", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private DeadLetter<T> decode(byte[] payload) {
+        try (val in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            val signalName = in.readUTF();
+            val handlerName = in.readUTF();
+            val error = in.readUTF();
+            val attempt = in.readInt();
+            val timestamp = in.readLong();
+            val event = new byte[in.readInt()];
+            in.readFully(event);
+            return new DeadLetter<>(signalName,
+                                    handlerName,
+                                    serializer.deserialize(event),
+                                    error,
+                                    attempt,
+                                    timestamp);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not decode dead letter", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        if (null == error) {
+            return "";
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
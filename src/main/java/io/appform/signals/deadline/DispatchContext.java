@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadline;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Context of the dispatch a handler is being called for. The context is available to handlers through
+ * {@link #current()}, including those running on executor threads, and is passed as a parameter to
+ * {@link io.appform.signals.signalhandlers.ContextualSignalHandler}s.
+ */
+public final class DispatchContext {
+    private static final ThreadLocal<DispatchContext> CURRENT = new ThreadLocal<>();
+    private static final DispatchContext NONE = new DispatchContext(null);
+
+    private final Deadline deadline;
+
+    public DispatchContext(final Deadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * @return Context for the dispatch being handled in this thread, or an empty context outside any dispatch
+     */
+    public static DispatchContext current() {
+        final DispatchContext context = CURRENT.get();
+        return null == context ? NONE : context;
+    }
+
+    /**
+     * @return A context without a deadline
+     */
+    public static DispatchContext none() {
+        return NONE;
+    }
+
+    /**
+     * @return Deadline for the dispatch, if there is one
+     */
+    public Optional<Deadline> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /**
+     * @return Time left for the dispatch. Practically unbounded if there is no deadline.
+     */
+    public Duration remaining() {
+        return null == deadline ? Duration.ofNanos(Long.MAX_VALUE) : deadline.remaining();
+    }
+
+    /**
+     * @return true if there is a deadline and it has expired
+     */
+    public boolean isExpired() {
+        return null != deadline && deadline.isExpired();
+    }
+
+    /**
+     * Run with this as the current context of the calling thread, restoring the previous one afterwards.
+     */
+    public <V> V call(final Supplier<V> action) {
+        final DispatchContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.get();
+        }
+        finally {
+            if (null == previous) {
+                CURRENT.remove();
+            }
+            else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run with this as the current context of the calling thread, restoring the previous one afterwards.
+     */
+    public void run(final Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+}
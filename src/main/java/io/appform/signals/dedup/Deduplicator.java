@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.dedup;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * Detects duplicate events by a key extracted from them. Keys are remembered for a configurable time in a bounded
+ * cache. The cache is split into segments, each a small LRU map with its own lock, so concurrent dispatches
+ * rarely contend. When a segment is full, the least recently seen key is forgotten, so memory stays bounded at
+ * the configured capacity at the cost of missing some duplicates of old events.
+ * Set on a signal using {@link io.appform.signals.Signal#deduplicate(Deduplicator)}.
+ * Defaults:
+ *  - Capacity - 100,000 keys
+ *  - Time to live - 5 minutes
+ *  - Segments - 16
+ */
+public class Deduplicator<T> {
+    private static final int DEFAULT_CAPACITY = 100_000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final Function<? super T, ?> keyExtractor;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Segment[] segments;
+    private final LongAdder duplicates = new LongAdder();
+
+    public Deduplicator(
+            final Function<? super T, ?> keyExtractor,
+            int capacity,
+            final Duration ttl,
+            int segmentCount) {
+        this(keyExtractor, capacity, ttl, segmentCount, System::currentTimeMillis);
+    }
+
+    Deduplicator(
+            final Function<? super T, ?> keyExtractor,
+            int capacity,
+            final Duration ttl,
+            int segmentCount,
+            final LongSupplier clock) {
+        this.keyExtractor = Objects.requireNonNull(keyExtractor, "Key extractor is needed for deduplication");
+        Objects.requireNonNull(ttl, "Time to live is needed for deduplication");
+        if (capacity <= 0 || segmentCount <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Capacity, segment count and time to live must be positive");
+        }
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        val count = Math.min(segmentCount, capacity);
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            //Spread the remainder so that the total is exactly the capacity
+            segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0), ttlMillis);
+        }
+    }
+
+    /**
+     * Record an event and check whether it was seen before within the time to live.
+     *
+     * @param event Event to be checked
+     * @return true if the event is seen for the first time, false if it is a duplicate
+     */
+    public boolean firstSeen(final T event) {
+        val key = keyExtractor.apply(event);
+        if (null == key) {
+            return true;
+        }
+        val unique = segment(key).record(key, clock.getAsLong());
+        if (!unique) {
+            duplicates.increment();
+        }
+        return unique;
+    }
+
+    /**
+     * Forget an event recorded by {@link #firstSeen(Object)}, so that it is not treated as a duplicate when it is sent
+     * again. Used when the event could not be dispatched.
+     *
+     * @param event Event to be forgotten
+     */
+    public void forget(final T event) {
+        val key = keyExtractor.apply(event);
+        if (null != key) {
+            segment(key).forget(key);
+        }
+    }
+
+    /**
+     * @return Number of duplicates detected so far
+     */
+    public long duplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * @return Number of keys currently remembered
+     */
+    public int size() {
+        int size = 0;
+        for (val segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segment(final Object key) {
+        return segments[(spread(key.hashCode()) & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Segment {
+        private final int capacity;
+        private final long ttlMillis;
+        private final LinkedHashMap<Object, Long> seen;
+
+        private Segment(int capacity, long ttlMillis) {
+            this.capacity = capacity;
+            this.ttlMillis = ttlMillis;
+            this.seen = new LinkedHashMap<>(16, 0.75f, true);
+        }
+
+        synchronized boolean record(final Object key, long now) {
+            val seenAt = seen.get(key);
+            if (null != seenAt && now - seenAt < ttlMillis) {
+                return false;
+            }
+            seen.put(key, now);
+            val iterator = seen.entrySet().iterator();
+            while (iterator.hasNext()) {
+                val eldest = iterator.next();
+                if (seen.size() <= capacity && now - eldest.getValue() < ttlMillis) {
+                    break;
+                }
+                iterator.remove();
+            }
+            return true;
+        }
+
+        synchronized void forget(final Object key) {
+            seen.remove(key);
+        }
+
+        synchronized int size() {
+            return seen.size();
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T> {
+        private Function<? super T, ?> keyExtractor;
+        private Integer capacity;
+        private Duration ttl;
+        private Integer segments;
+
+        public Builder<T> keyExtractor(final Function<? super T, ?> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+            return this;
+        }
+
+        public Builder<T> capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder<T> ttl(final Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public Builder<T> segments(int segments) {
+            this.segments = segments;
+            return this;
+        }
+
+        public Deduplicator<T> build() {
+            return new Deduplicator<>(keyExtractor,
+                                      requireNonNullElse(capacity, DEFAULT_CAPACITY),
+                                      requireNonNullElse(ttl, DEFAULT_TTL),
+                                      requireNonNullElse(segments, DEFAULT_SEGMENTS));
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.errorhandlers;
+
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.deadletters.DeadLetter;
+import io.appform.signals.deadletters.DeadLetterStore;
+
+import java.util.Objects;
+
+/**
+ * A {@link TaskErrorHandler} that records failed handler invocations in a {@link DeadLetterStore} so that they can be
+ * replayed later using {@link io.appform.signals.deadletters.DeadLetterReplayer}. All errors are passed on to the
+ * delegate error handler as well. Errors without invocation details are only passed to the delegate.
+ */
+public class DeadLetteringTaskErrorHandler<T> implements TaskErrorHandler {
+    private final String signalName;
+    private final DeadLetterStore<T> store;
+    private final TaskErrorHandler delegate;
+
+    public DeadLetteringTaskErrorHandler(String signalName, DeadLetterStore<T> store) {
+        this(signalName, store, new LoggingTaskErrorHandler());
+    }
+
+    public DeadLetteringTaskErrorHandler(String signalName, DeadLetterStore<T> store, TaskErrorHandler delegate) {
+        this.signalName = Objects.requireNonNull(signalName, "Signal name is needed for dead lettering");
+        this.store = Objects.requireNonNull(store, "Dead letter store is needed for dead lettering");
+        this.delegate = Objects.requireNonNull(delegate, "Delegate error handler is needed for dead lettering");
+    }
+
+    @Override
+    public void handle(Exception e) {
+        delegate.handle(e);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handle(HandlerFailure failure) {
+        store.add(new DeadLetter<>(signalName,
+                                   failure.getHandlerName(),
+                                   (T) failure.getData(),
+                                   String.valueOf(failure.getError()),
+                                   failure.getAttempt(),
+                                   System.currentTimeMillis()));
+        delegate.handle(failure);
+    }
+}
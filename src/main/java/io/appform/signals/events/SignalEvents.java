@@ -0,0 +1,92 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.events;
+
+/**
+ * Hooks for recording signal activity as Java Flight Recorder events. This Java 8 version does nothing. On Java 11 and
+ * above it is replaced by a version from the multi-release jar that emits JFR events, each only if enabled in the
+ * recording. Methods that begin an event return a token to be passed back to the matching end method; the token is
+ * null when the event is disabled.
+ * Meant to be used by signals and executors, not by application code.
+ */
+public final class SignalEvents {
+    private SignalEvents() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * @return true if events are recorded on this JVM
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    public static Object beginDispatch() {
+        return null;
+    }
+
+    /**
+     * @param event      Token returned by {@link #beginDispatch()}
+     * @param signalType Class of the signal
+     * @param admitted   false if the dispatch was dropped as a duplicate or rejected by admission control
+     */
+    public static void endDispatch(Object event, Class<?> signalType, boolean admitted) {
+        //Nothing to record
+    }
+
+    public static Object beginGroup() {
+        return null;
+    }
+
+    /**
+     * @param event      Token returned by {@link #beginGroup()}
+     * @param signalType Class of the signal
+     * @param groupId    Id of the handler group
+     * @param handlers   Number of handlers invoked
+     */
+    public static void endGroup(Object event, Class<?> signalType, int groupId, int handlers) {
+        //Nothing to record
+    }
+
+    public static Object beginHandler() {
+        return null;
+    }
+
+    /**
+     * @param event       Token returned by {@link #beginHandler()}
+     * @param handlerName Name of the handler
+     * @param attempt     Attempt number, starting at 1
+     * @param failed      true if the handler threw an exception
+     */
+    public static void endHandler(Object event, String handlerName, int attempt, boolean failed) {
+        //Nothing to record
+    }
+
+    /**
+     * @param handlerName Name of the handler
+     * @param attempt     Attempt number, starting at 1
+     * @param error       Exception thrown by the handler
+     */
+    public static void handlerError(String handlerName, int attempt, Exception error) {
+        //Nothing to record
+    }
+
+    /**
+     * @param enqueuedAt {@link System#nanoTime()} when the handler invocation was queued on the executor
+     */
+    public static void queueWait(long enqueuedAt) {
+        //Nothing to record
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.*;
+import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * An executor that measures how long every handler takes and runs cheap handlers in the calling thread while
+ * offloading expensive ones to the executor service. Handlers start offloaded. A handler is moved inline once its
+ * moving average execution time drops below the inline threshold, and moved back only when it rises above the offload
+ * threshold, so that handlers close to the boundary do not keep switching.
+ * Handlers with a {@link io.appform.signals.retry.RetryPolicy} are always offloaded.
+ * Calls {@link ResponseCombiner#assimilateHandlerResult(Object)} on every response from handler.
+ */
+@Slf4j
+public class AdaptiveHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
+    private static final Duration DEFAULT_INLINE_THRESHOLD = Duration.ofNanos(20_000);
+    private static final Duration DEFAULT_OFFLOAD_THRESHOLD = Duration.ofNanos(100_000);
+
+    private final TrackingExecutor executor;
+    private final long inlineThresholdNanos;
+    private final long offloadThresholdNanos;
+    private final Map<String, HandlerCost> costs = new ConcurrentHashMap<>();
+
+    public AdaptiveHandlerExecutor(ExecutorService executorService) {
+        this(executorService, DEFAULT_INLINE_THRESHOLD, DEFAULT_OFFLOAD_THRESHOLD);
+    }
+
+    public AdaptiveHandlerExecutor(
+            ExecutorService executorService,
+            Duration inlineThreshold,
+            Duration offloadThreshold) {
+        if (inlineThreshold.compareTo(offloadThreshold) > 0) {
+            throw new IllegalArgumentException("Inline threshold cannot be more than offload threshold");
+        }
+        this.executor = new TrackingExecutor(executorService);
+        this.inlineThresholdNanos = inlineThreshold.toNanos();
+        this.offloadThresholdNanos = offloadThreshold.toNanos();
+    }
+
+    @Override
+    public R execute(
+            Collection<Signal.NamedHandler<F>> handlers,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        val futures = new ArrayList<Future<R>>();
+        List<Signal.NamedHandler<F>> inline = null;
+        RejectedExecutionException rejected = null;
+        for (val handler : handlers) {
+            if (null != handler.getRetryPolicy()) {
+                futures.add(executor.track(() -> SignalUtils.executeAsync(
+                        handler, data, combiner, errorHandlingStrategy, executor.untracked())));
+                continue;
+            }
+            val cost = costs.computeIfAbsent(handler.getName(), name -> new HandlerCost());
+            if (cost.isOffloaded()) {
+                val task = new InvocationTask<R>(() -> timed(cost, handler, data, combiner, errorHandlingStrategy),
+                                                 () -> SignalUtils.discarded(handler, data));
+                try {
+                    executor.execute(task);
+                    futures.add(task);
+                }
+                catch (RejectedExecutionException e) {
+                    //The task has been discarded, the rest still need to run
+                    if (null == rejected) {
+                        rejected = e;
+                    }
+                }
+            }
+            else {
+                if (null == inline) {
+                    inline = new ArrayList<>();
+                }
+                inline.add(handler);
+            }
+        }
+        //Offloaded handlers are submitted first so that they run while the inline ones are being executed
+        if (null != inline) {
+            inline.forEach(handler -> timed(costs.computeIfAbsent(handler.getName(), name -> new HandlerCost()),
+                                            handler, data, combiner, errorHandlingStrategy));
+        }
+        for (val f : futures) {
+            val failure = result(errorHandlingStrategy, f);
+            if (null == rejected) {
+                rejected = failure;
+            }
+        }
+        if (null != rejected) {
+            throw rejected;
+        }
+        return combiner.result();
+    }
+
+    /**
+     * Check if a handler is currently being run in the calling thread
+     * @param handlerName Name of the handler
+     * @return true if the handler is run inline
+     */
+    public boolean isInline(final String handlerName) {
+        val cost = costs.get(handlerName);
+        return null != cost && !cost.isOffloaded();
+    }
+
+    /**
+     * Forget the measured costs of disconnected handlers
+     */
+    @Override
+    public void handlersChanged(Set<String> handlerNames) {
+        costs.keySet().retainAll(handlerNames);
+    }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return executor.awaitQuiescence(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        return executor.drain(timeout);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        executor.queueDelayListener(listener);
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        executor.completionListener(listener);
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        return executor.stats();
+    }
+
+    /**
+     * @return Number of handlers with a measured cost
+     */
+    int trackedHandlers() {
+        return costs.size();
+    }
+
+    private R timed(
+            HandlerCost cost,
+            Signal.NamedHandler<F> handler,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        val start = System.nanoTime();
+        try {
+            return SignalUtils.execute(handler, data, combiner, errorHandlingStrategy);
+        }
+        finally {
+            cost.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Wait for an invocation to finish and pass failures on to the error handler. An attempt of a retried handler
+     * rejected by the executor is returned instead, so that it is thrown like rejections of other handlers.
+     */
+    private RejectedExecutionException result(TaskErrorHandler errorHandlingStrategy, Future<R> f) {
+        try {
+            f.get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return (RejectedExecutionException) e.getCause();
+            }
+            errorHandlingStrategy.handle(e);
+        }
+        catch (CancellationException e) {
+            //Discarded at the deadline or while draining, not a failure of the handler
+            log.debug("Handler invocation was discarded without running");
+        }
+        catch (InterruptedException e) {
+            log.error("Thread has been interrupted...");
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Exponentially weighted moving average of execution time with a weight of 1/8 for new samples. Updates from
+     * concurrent executions can occasionally be lost, which is fine for this purpose.
+     */
+    private final class HandlerCost {
+        private volatile long averageNanos = -1;
+        private volatile boolean offloaded = true;
+
+        private boolean isOffloaded() {
+            return offloaded;
+        }
+
+        private void record(long elapsedNanos) {
+            val current = averageNanos;
+            val updated = current < 0 ? elapsedNanos : current + ((elapsedNanos - current) >> 3);
+            averageNanos = updated;
+            if (offloaded && updated < inlineThresholdNanos) {
+                offloaded = false;
+            }
+            else if (!offloaded && updated > offloadThresholdNanos) {
+                offloaded = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.*;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link HandlerExecutor} that does not respond back, and submits handler invocations to the executor service in
+ * batches. Invocations are first collected in buffers striped by the dispatching thread, so producers rarely touch the
+ * same buffer. A buffer is handed to the executor service as a single task once it holds a batch, or once the linger
+ * time has passed since its first invocation, whichever comes first. This trades up to the linger time of latency for
+ * fewer operations on the queue of the executor service.
+ * A thread that has run invocations of a batch for longer than the max run time asks for help, by submitting the batch
+ * again so that an idle worker can run the remaining invocations alongside it. Slow handlers thus don't hold the rest of
+ * the batch behind them on one thread.
+ * Handlers connected with a {@link io.appform.signals.retry.RetryPolicy} are not batched, and are retried on a shared
+ * timer like in {@link FireForgetHandlerExecutor}.
+ * Invocations that are dropped without running are reported to {@link DiscardAware} handlers.
+ * Draining does not shut the executor service down, as it may be shared. Invocations of batches that have not run yet
+ * are dropped, and threads running a batch are interrupted.
+ */
+@Slf4j
+public class BatchingHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
+    private static final int DEFAULT_BATCH_SIZE = 64;
+    private static final Duration DEFAULT_LINGER = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(100));
+    private static final Duration DEFAULT_MAX_RUN_TIME = Duration.ofMillis(1);
+
+    private final ExecutorService executorService;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long maxRunNanos;
+    private final List<Stripe> stripes;
+    private final ScheduledExecutorService flusher;
+    private final Executor retryExecutor;
+    private final Set<Batch> batches = ConcurrentHashMap.newKeySet();
+    private final Set<CompletableFuture<?>> chains = ConcurrentHashMap.newKeySet();
+    private final InFlightCounter inFlight = new InFlightCounter();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile LongConsumer queueDelayListener;
+    private volatile Runnable completionListener;
+    private volatile boolean closed;
+
+    public BatchingHandlerExecutor(ExecutorService executorService) {
+        this(executorService, DEFAULT_BATCH_SIZE, DEFAULT_LINGER);
+    }
+
+    public BatchingHandlerExecutor(ExecutorService executorService, int batchSize, Duration linger) {
+        this(executorService, batchSize, linger, DEFAULT_MAX_RUN_TIME);
+    }
+
+    public BatchingHandlerExecutor(
+            ExecutorService executorService,
+            int batchSize,
+            Duration linger,
+            Duration maxRunTime) {
+        if (batchSize <= 0 || linger.isNegative() || linger.isZero()
+                || maxRunTime.isNegative() || maxRunTime.isZero()) {
+            throw new IllegalArgumentException("Batch size, linger time and max run time must be positive");
+        }
+        this.executorService = executorService;
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.maxRunNanos = maxRunTime.toNanos();
+        val count = stripeCount();
+        this.stripes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stripes.add(new Stripe());
+        }
+        val pool = new ScheduledThreadPoolExecutor(1, task -> {
+            val thread = new Thread(task, "signal-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.flusher = pool;
+        this.retryExecutor = task -> {
+            if (closed) {
+                throw new RejectedExecutionException("Executor has been drained");
+            }
+            executorService.execute(task);
+        };
+    }
+
+    @Override
+    public R execute(
+            Collection<Signal.NamedHandler<F>> handlers,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        val context = DispatchContext.current();
+        val stripe = stripes.get(stripeIndex());
+        handlers.forEach(handler -> {
+            inFlight.increment();
+            if (null == handler.getRetryPolicy()) {
+                queued.incrementAndGet();
+                stripe.add(new Invocation(
+                        () -> SignalUtils.execute(handler, data, combiner, errorHandlingStrategy),
+                        () -> SignalUtils.discarded(handler, data),
+                        context));
+            }
+            else {
+                val chain = SignalUtils.executeAsync(handler, data, combiner, errorHandlingStrategy, retryExecutor);
+                chains.add(chain);
+                chain.whenComplete((result, error) -> {
+                    chains.remove(chain);
+                    done();
+                });
+            }
+        });
+        return null;
+    }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        flushAll();
+        return inFlight.await(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        val completed = awaitQuiescence(timeout);
+        closed = true;
+        //The flusher is owned by this executor
+        flusher.shutdownNow();
+        //Anything buffered meanwhile is dropped as the executor is closed
+        flushAll();
+        if (completed) {
+            return DrainResult.complete();
+        }
+        int dropped = 0;
+        int interrupted = 0;
+        for (val batch : batches) {
+            dropped += batch.drop();
+        }
+        for (val chain : chains) {
+            if (chain.cancel(true)) {
+                dropped++;
+            }
+        }
+        //Only once nothing is left to pick up, so that interrupted threads don't start queued batches meanwhile
+        for (val batch : batches) {
+            interrupted += batch.interrupt();
+        }
+        log.warn("Executor drained with pending work. Dropped: {} Interrupted: {}", dropped, interrupted);
+        return new DrainResult(false, dropped, interrupted);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        this.queueDelayListener = listener;
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        this.completionListener = listener;
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        val waiting = queued.get();
+        return new ExecutorStats(waiting, Math.max(0, inFlight.get() - waiting), 0);
+    }
+
+    private void flushAll() {
+        for (val stripe : stripes) {
+            stripe.flush();
+        }
+    }
+
+    private void submit(List<Invocation> invocations) {
+        val batch = new Batch(invocations);
+        if (closed) {
+            log.warn("Dropping {} handler invocations as the executor has been drained", batch.drop());
+            return;
+        }
+        batches.add(batch);
+        try {
+            executorService.execute(batch);
+        }
+        catch (RejectedExecutionException e) {
+            log.warn("Dropping {} handler invocations as the executor has been shut down", batch.drop());
+        }
+    }
+
+    private void done() {
+        inFlight.done();
+        val listener = completionListener;
+        if (null != listener) {
+            listener.run();
+        }
+    }
+
+    private static int stripeCount() {
+        val target = 2 * Runtime.getRuntime().availableProcessors();
+        int count = 1;
+        while (count < target) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    private int stripeIndex() {
+        val id = Thread.currentThread().getId();
+        val hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (stripes.size() - 1);
+    }
+
+    private static final class Invocation {
+        private final Runnable invocation;
+        private final Runnable onDiscard;
+        private final DispatchContext context;
+        private final long enqueuedAt = System.nanoTime();
+
+        private Invocation(Runnable invocation, Runnable onDiscard, DispatchContext context) {
+            this.invocation = invocation;
+            this.onDiscard = onDiscard;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Invocations collected from the threads that map to this stripe
+     */
+    private final class Stripe {
+        //Guarded by this
+        private List<Invocation> buffer = new ArrayList<>();
+        private ScheduledFuture<?> lingerTimer;
+
+        void add(Invocation invocation) {
+            List<Invocation> full = null;
+            synchronized (this) {
+                buffer.add(invocation);
+                if (buffer.size() >= batchSize) {
+                    full = take();
+                }
+                else if (buffer.size() == 1) {
+                    try {
+                        lingerTimer = flusher.schedule(this::flush, lingerNanos, TimeUnit.NANOSECONDS);
+                    }
+                    catch (RejectedExecutionException e) {
+                        //Drained, flush right away so that nothing is left in the buffer
+                        full = take();
+                    }
+                }
+            }
+            if (null != full) {
+                submit(full);
+            }
+        }
+
+        void flush() {
+            final List<Invocation> pending;
+            synchronized (this) {
+                if (buffer.isEmpty()) {
+                    return;
+                }
+                pending = take();
+            }
+            submit(pending);
+        }
+
+        private List<Invocation> take() {
+            if (null != lingerTimer) {
+                //Otherwise it would flush the next buffer before that has lingered
+                lingerTimer.cancel(false);
+                lingerTimer = null;
+            }
+            val taken = buffer;
+            buffer = new ArrayList<>(Math.min(batchSize, taken.size() * 2));
+            return taken;
+        }
+    }
+
+    /**
+     * A batch of invocations run as one task on the executor service. Invocations are claimed one at a time through a
+     * cursor, so that draining can drop the ones that have not started yet, and so that several threads can run the
+     * batch together.
+     */
+    private final class Batch implements Runnable {
+        private final List<Invocation> invocations;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicBoolean helpRequested = new AtomicBoolean();
+        //Guarded by this, so that a thread is only interrupted while running this batch
+        private final Set<Thread> runners = new HashSet<>();
+        private final Set<Thread> interrupted = new HashSet<>();
+
+        private Batch(List<Invocation> invocations) {
+            this.invocations = invocations;
+        }
+
+        @Override
+        public void run() {
+            val thread = Thread.currentThread();
+            synchronized (this) {
+                runners.add(thread);
+            }
+            helpRequested.set(false);
+            try {
+                val listener = queueDelayListener;
+                long sliceEnd = System.nanoTime() + maxRunNanos;
+                int index;
+                while ((index = cursor.getAndIncrement()) < invocations.size()) {
+                    val invocation = invocations.get(index);
+                    queued.decrementAndGet();
+                    try {
+                        SignalEvents.queueWait(invocation.enqueuedAt);
+                        if (null != listener) {
+                            listener.accept(System.nanoTime() - invocation.enqueuedAt);
+                        }
+                        if (invocation.context.isExpired()) {
+                            log.debug("Discarding handler invocation as the dispatch deadline has expired");
+                            invocation.onDiscard.run();
+                            continue;
+                        }
+                        invocation.context.run(invocation.invocation);
+                    }
+                    catch (RuntimeException e) {
+                        log.error("Error running handler invocation: ", e);
+                    }
+                    finally {
+                        done();
+                    }
+                    if (System.nanoTime() - sliceEnd >= 0) {
+                        requestHelp();
+                        sliceEnd = System.nanoTime() + maxRunNanos;
+                    }
+                }
+            }
+            finally {
+                boolean last;
+                synchronized (this) {
+                    runners.remove(thread);
+                    if (interrupted.remove(thread)) {
+                        //Don't leak the interrupt to the next task of the executor service
+                        Thread.interrupted();
+                    }
+                    last = runners.isEmpty();
+                }
+                //Everything has been claimed once a runner is done, but others might still be running
+                if (last) {
+                    batches.remove(this);
+                }
+            }
+        }
+
+        /**
+         * Submit this batch again for an idle worker to run the rest alongside. There is at most one such request
+         * waiting in the queue, so a busy executor service does not get flooded with them.
+         */
+        private void requestHelp() {
+            if (closed || cursor.get() >= invocations.size() || !helpRequested.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executorService.execute(this);
+            }
+            catch (RejectedExecutionException e) {
+                //The current thread goes on with the batch by itself
+                helpRequested.set(false);
+            }
+        }
+
+        /**
+         * Drop invocations that have not started yet
+         *
+         * @return Number of invocations dropped
+         */
+        int drop() {
+            val size = invocations.size();
+            val from = Math.min(cursor.getAndSet(size), size);
+            for (int i = from; i < size; i++) {
+                queued.decrementAndGet();
+                invocations.get(i).onDiscard.run();
+                done();
+            }
+            synchronized (this) {
+                if (runners.isEmpty()) {
+                    batches.remove(this);
+                }
+            }
+            return size - from;
+        }
+
+        /**
+         * Interrupt threads running this batch
+         *
+         * @return Number of threads interrupted
+         */
+        synchronized int interrupt() {
+            for (val runner : runners) {
+                interrupted.add(runner);
+                runner.interrupt();
+            }
+            return runners.size();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.*;
+import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * An executor that executes handlers in parallel, in chunks. The handlers are split into roughly
+ * (parallelism x chunksPerThread) chunks, every chunk is submitted as a single task that runs its handlers
+ * sequentially, and the calling thread runs the last chunk itself. Completion is tracked with a single latch instead
+ * of a future per handler. Use this for groups with a large number of handlers.
+ * Calls {@link ResponseCombiner#assimilateHandlerResult(Object)} on every response from handler.
+ * Handlers with a {@link io.appform.signals.retry.RetryPolicy} are executed separately, like in
+ * {@link ParallelHandlerExecutor}.
+ */
+@Slf4j
+public class ChunkedParallelHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
+    private static final int DEFAULT_CHUNKS_PER_THREAD = 4;
+
+    private final TrackingExecutor executor;
+    private final int maxChunks;
+
+    public ChunkedParallelHandlerExecutor(ExecutorService executorService) {
+        this(executorService, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNKS_PER_THREAD);
+    }
+
+    public ChunkedParallelHandlerExecutor(ExecutorService executorService, int parallelism, int chunksPerThread) {
+        if (parallelism < 1 || chunksPerThread < 1) {
+            throw new IllegalArgumentException("Parallelism and chunks per thread must be at least 1");
+        }
+        this.executor = new TrackingExecutor(executorService);
+        this.maxChunks = parallelism * chunksPerThread;
+    }
+
+    @Override
+    public R execute(
+            Collection<Signal.NamedHandler<F>> handlers,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        val plain = new ArrayList<Signal.NamedHandler<F>>(handlers.size());
+        List<CompletableFuture<R>> retrying = null;
+        for (val handler : handlers) {
+            if (null == handler.getRetryPolicy()) {
+                plain.add(handler);
+            }
+            else {
+                if (null == retrying) {
+                    retrying = new ArrayList<>();
+                }
+                retrying.add(executor.track(() -> SignalUtils.executeAsync(
+                        handler, data, combiner, errorHandlingStrategy, executor.untracked())));
+            }
+        }
+        val count = plain.size();
+        RejectedExecutionException rejected = null;
+        if (count > 0) {
+            val chunks = Math.min(count, maxChunks);
+            val escaped = new ConcurrentLinkedQueue<Exception>();
+            val latch = new CountDownLatch(chunks - 1);
+            for (int chunk = 0; chunk < chunks - 1; chunk++) {
+                val start = from(chunk, chunks, count);
+                val end = from(chunk + 1, chunks, count);
+                val chunkTask = chunk(plain, start, end, data, combiner, errorHandlingStrategy, escaped);
+                try {
+                    executor.execute(new ChunkTask(chunkTask, discard(plain, start, end, data), latch));
+                }
+                catch (RejectedExecutionException e) {
+                    //The chunk has been discarded and counted down, the rest still need to run
+                    if (null == rejected) {
+                        rejected = e;
+                    }
+                }
+            }
+            chunk(plain, from(chunks - 1, chunks, count), count, data, combiner, errorHandlingStrategy, escaped)
+                    .run();
+            await(latch);
+            escaped.forEach(e -> errorHandlingStrategy.handle(new ExecutionException(e)));
+        }
+        if (null != retrying) {
+            for (val f : retrying) {
+                val failure = result(errorHandlingStrategy, f);
+                if (null == rejected) {
+                    rejected = failure;
+                }
+            }
+        }
+        if (null != rejected) {
+            throw rejected;
+        }
+        return combiner.result();
+    }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return executor.awaitQuiescence(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        return executor.drain(timeout);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        executor.queueDelayListener(listener);
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        executor.completionListener(listener);
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        return executor.stats();
+    }
+
+    private Runnable chunk(
+            List<Signal.NamedHandler<F>> handlers,
+            int from,
+            int to,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy,
+            Queue<Exception> escaped) {
+        return () -> {
+            for (int i = from; i < to; i++) {
+                try {
+                    SignalUtils.execute(handlers.get(i), data, combiner, errorHandlingStrategy);
+                }
+                catch (RuntimeException e) {
+                    //Thrown by the error handler, reported from the calling thread
+                    escaped.add(e);
+                }
+            }
+        };
+    }
+
+    private Runnable discard(List<Signal.NamedHandler<F>> handlers, int from, int to, T data) {
+        return () -> {
+            for (int i = from; i < to; i++) {
+                SignalUtils.discarded(handlers.get(i), data);
+            }
+        };
+    }
+
+    private static int from(int chunk, int chunks, int count) {
+        return (int) ((long) chunk * count / chunks);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            log.error("Thread has been interrupted...");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for an invocation to finish and pass failures on to the error handler. An attempt of a retried handler
+     * rejected by the executor is returned instead, so that it is thrown like rejections of other handlers.
+     */
+    private RejectedExecutionException result(TaskErrorHandler errorHandlingStrategy, CompletableFuture<R> f) {
+        try {
+            f.get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return (RejectedExecutionException) e.getCause();
+            }
+            errorHandlingStrategy.handle(e);
+        }
+        catch (CancellationException e) {
+            //Discarded at the deadline or while draining, not a failure of the handler
+            log.debug("Handler invocation was discarded without running");
+        }
+        catch (InterruptedException e) {
+            log.error("Thread has been interrupted...");
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Counts down the latch when the chunk finishes or is cancelled while draining. Handlers of cancelled chunks are
+     * told that their invocations were discarded.
+     */
+    private static final class ChunkTask extends FutureTask<Void> {
+        private final Runnable onDiscard;
+        private final CountDownLatch latch;
+
+        private ChunkTask(Runnable chunk, Runnable onDiscard, CountDownLatch latch) {
+            super(chunk, null);
+            this.onDiscard = onDiscard;
+            this.latch = latch;
+        }
+
+        @Override
+        protected void done() {
+            try {
+                if (isCancelled()) {
+                    onDiscard.run();
+                }
+            }
+            finally {
+                latch.countDown();
+            }
+        }
+    }
+}
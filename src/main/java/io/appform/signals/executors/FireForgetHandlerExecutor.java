@@ -16,21 +16,29 @@ package io.appform.signals.executors;
 
 import io.appform.signals.*;
 import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
 
 /**
  * A {@link HandlerExecutor} that does not respond back.
  * However, all responses are provided to {@link io.appform.signals.ResponseCombiner#assimilateHandlerResult(Object)}
+ * Retries for handlers connected with a {@link io.appform.signals.retry.RetryPolicy} are scheduled on a shared timer.
+ * Invocations that are dropped without running are reported to {@link DiscardAware} handlers.
  */
+@Slf4j
 public class FireForgetHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
 
-    private final ExecutorService executorService;
+    private final TrackingExecutor executor;
 
     public FireForgetHandlerExecutor(
             ExecutorService executorService) {
-        this.executorService = executorService;
+        this.executor = new TrackingExecutor(executorService);
     }
 
     @Override
@@ -39,8 +47,63 @@ public class FireForgetHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>>
             T data,
             ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy) {
-        handlers.forEach(handler -> executorService.execute(
-                () -> SignalUtils.execute(handler, data, combiner, errorHandlingStrategy)));
+        RejectedExecutionException rejected = null;
+        for (val handler : handlers) {
+            if (null == handler.getRetryPolicy()) {
+                try {
+                    executor.execute(new InvocationTask<>(
+                            () -> {
+                                try {
+                                    return SignalUtils.execute(handler, data, combiner, errorHandlingStrategy);
+                                }
+                                catch (RuntimeException e) {
+                                    //Nobody waits on the result, so this would go unnoticed otherwise
+                                    log.error("Error running handler invocation: ", e);
+                                    return null;
+                                }
+                            },
+                            () -> SignalUtils.discarded(handler, data)));
+                }
+                catch (RejectedExecutionException e) {
+                    //The rest of the handlers still get their invocation, or get to know it was discarded
+                    if (null == rejected) {
+                        rejected = e;
+                    }
+                }
+            }
+            else {
+                executor.track(() -> SignalUtils.executeAsync(
+                        handler, data, combiner, errorHandlingStrategy, executor.untracked()));
+            }
+        }
+        if (null != rejected) {
+            throw rejected;
+        }
         return null;
     }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return executor.awaitQuiescence(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        return executor.drain(timeout);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        executor.queueDelayListener(listener);
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        executor.completionListener(listener);
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        return executor.stats();
+    }
 }
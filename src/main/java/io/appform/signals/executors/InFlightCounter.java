@@ -0,0 +1,98 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Counts work that has been accepted but has not finished yet, and lets threads wait for it to finish. Used by
+ * executors to implement {@link io.appform.signals.HandlerExecutor#awaitQuiescence(Duration)}.
+ */
+@Slf4j
+final class InFlightCounter {
+    private final AtomicInteger count = new AtomicInteger();
+    private final Object monitor = new Object();
+
+    void increment() {
+        count.incrementAndGet();
+    }
+
+    /**
+     * Count a piece of work as finished, waking up waiting threads if it was the last one
+     */
+    void done() {
+        if (count.decrementAndGet() == 0) {
+            wakeUp();
+        }
+    }
+
+    int get() {
+        return count.get();
+    }
+
+    /**
+     * Wake up waiting threads so that they check their condition again
+     */
+    void wakeUp() {
+        synchronized (monitor) {
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Wait for all work to finish
+     *
+     * @param timeout Maximum time to wait
+     * @return true if nothing was left in flight before the timeout, false on timeout or interrupt
+     */
+    boolean await(Duration timeout) {
+        try {
+            return awaitUntil(() -> count.get() <= 0, timeout.toNanos());
+        }
+        catch (InterruptedException e) {
+            log.error("Thread has been interrupted...");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Wait for a condition that is rechecked whenever the count drops to zero or {@link #wakeUp()} is called
+     *
+     * @param condition    Condition to wait for
+     * @param timeoutNanos Maximum time to wait
+     * @return true if the condition was met before the timeout
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    boolean awaitUntil(BooleanSupplier condition, long timeoutNanos) throws InterruptedException {
+        val deadline = System.nanoTime() + timeoutNanos;
+        synchronized (monitor) {
+            while (!condition.getAsBoolean()) {
+                val remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.ResponseCombiner;
+import io.appform.signals.Signal;
+import io.appform.signals.SignalHandlerBase;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.utils.SignalUtils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A handler invocation submitted to an executor service. If the task is cancelled before it runs, as happens when its
+ * deadline expires, it is rejected or the executor is drained, the handler is told through
+ * {@link io.appform.signals.DiscardAware}.
+ */
+class InvocationTask<R> extends FutureTask<R> {
+    private final Runnable onDiscard;
+
+    InvocationTask(Callable<R> invocation, Runnable onDiscard) {
+        super(invocation);
+        this.onDiscard = onDiscard;
+    }
+
+    static <T, R, F extends SignalHandlerBase<T, R>> InvocationTask<R> of(
+            final Signal.NamedHandler<F> handler,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        return new InvocationTask<>(() -> SignalUtils.execute(handler, data, combiner, errorHandlingStrategy),
+                                    () -> SignalUtils.discarded(handler, data));
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) {
+            onDiscard.run();
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.*;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link HandlerExecutor} that does not respond back, and gives every handler a mailbox. A handler runs on at most
+ * one thread at a time and sees data in dispatch order, so it can keep state without locks. Different handlers still
+ * run in parallel on the shared executor service. A mailbox processes up to a batch of messages on every turn, and then
+ * goes back to the executor service so that busy handlers do not hold threads away from others.
+ * Retries for handlers connected with a {@link io.appform.signals.retry.RetryPolicy} happen within the turn, holding
+ * back later messages for the handler till the invocation is done.
+ * Messages that are dropped without running are reported to {@link DiscardAware} handlers.
+ * Draining does not shut the executor service down, as it may be shared. Messages still in mailboxes are dropped and
+ * threads running a mailbox turn are interrupted.
+ * Mailboxes of disconnected handlers are removed once their last message has been processed.
+ */
+@Slf4j
+public class MailboxHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
+    private static final int DEFAULT_BATCH_SIZE = 32;
+
+    private final ExecutorService executorService;
+    private final int batchSize;
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final InFlightCounter inFlight = new InFlightCounter();
+    private final AtomicInteger queued = new AtomicInteger();
+    private volatile LongConsumer queueDelayListener;
+    private volatile Runnable completionListener;
+    private volatile boolean closed;
+    //Null till the signal reports its handlers
+    private volatile Set<String> connected;
+
+    public MailboxHandlerExecutor(ExecutorService executorService) {
+        this(executorService, DEFAULT_BATCH_SIZE);
+    }
+
+    public MailboxHandlerExecutor(ExecutorService executorService, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.executorService = executorService;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public R execute(
+            Collection<Signal.NamedHandler<F>> handlers,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        val context = DispatchContext.current();
+        RejectedExecutionException rejected = null;
+        for (val handler : handlers) {
+            try {
+                post(handler.getName(),
+                     new Message(() -> SignalUtils.execute(handler, data, combiner, errorHandlingStrategy),
+                                 () -> SignalUtils.discarded(handler, data),
+                                 context));
+            }
+            catch (RejectedExecutionException e) {
+                //The message has been discarded, the rest still need to be posted
+                if (null == rejected) {
+                    rejected = e;
+                }
+            }
+        }
+        if (null != rejected) {
+            throw rejected;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return inFlight.await(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        val completed = awaitQuiescence(timeout);
+        closed = true;
+        if (completed) {
+            return DrainResult.complete();
+        }
+        int dropped = 0;
+        int interrupted = 0;
+        for (val mailbox : mailboxes.values()) {
+            dropped += mailbox.clear();
+        }
+        //Only once nothing is left to pick up, so that interrupted threads don't process messages meanwhile
+        for (val mailbox : mailboxes.values()) {
+            if (mailbox.interrupt()) {
+                interrupted++;
+            }
+        }
+        log.warn("Mailboxes drained with pending work. Dropped: {} Interrupted: {}", dropped, interrupted);
+        return new DrainResult(false, dropped, interrupted);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        this.queueDelayListener = listener;
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        this.completionListener = listener;
+    }
+
+    @Override
+    public void handlersChanged(Set<String> handlerNames) {
+        connected = handlerNames;
+        mailboxes.forEach((name, mailbox) -> {
+            mailbox.disconnected = !handlerNames.contains(name);
+            if (mailbox.disconnected) {
+                mailbox.retireIfIdle();
+            }
+        });
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        val waiting = queued.get();
+        return new ExecutorStats(waiting, Math.max(0, inFlight.get() - waiting), 0);
+    }
+
+    /**
+     * @return Number of mailboxes, for handlers that are connected or still have messages
+     */
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    private void post(String handlerName, Message message) {
+        while (true) {
+            val mailbox = mailboxes.computeIfAbsent(handlerName, Mailbox::new);
+            if (mailbox.post(message)) {
+                return;
+            }
+            //Retired while being looked up, make way for a new one
+            mailboxes.remove(handlerName, mailbox);
+        }
+    }
+
+    private void done() {
+        inFlight.done();
+        val listener = completionListener;
+        if (null != listener) {
+            listener.run();
+        }
+    }
+
+    private static final class Message {
+        private final Runnable invocation;
+        private final Runnable onDiscard;
+        private final DispatchContext context;
+        private final long enqueuedAt = System.nanoTime();
+
+        private Message(Runnable invocation, Runnable onDiscard, DispatchContext context) {
+            this.invocation = invocation;
+            this.onDiscard = onDiscard;
+            this.context = context;
+        }
+    }
+
+    /**
+     * Messages for one handler. Scheduled on the executor service at most once at a time.
+     * A mailbox is retired, and accepts no more messages, only when it has no messages posted or being processed, so
+     * that a handler never has messages in two mailboxes.
+     */
+    private final class Mailbox implements Runnable {
+        private static final int RETIRED = -1;
+
+        private final String handlerName;
+        private final Queue<Message> messages = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        //Messages posted and not yet processed or dropped, or RETIRED
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean disconnected;
+        //Guarded by this, so that a thread is only interrupted while running a turn of this mailbox
+        private Thread runner;
+        private boolean interrupted;
+
+        private Mailbox(String handlerName) {
+            this.handlerName = handlerName;
+            //For dispatches that started before the handler got disconnected
+            val handlerNames = connected;
+            this.disconnected = null != handlerNames && !handlerNames.contains(handlerName);
+        }
+
+        /**
+         * @return false if the mailbox has been retired, and the message needs to go to a new one
+         */
+        boolean post(Message message) {
+            int current;
+            do {
+                current = pending.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!pending.compareAndSet(current, current + 1));
+            inFlight.increment();
+            queued.incrementAndGet();
+            messages.add(message);
+            try {
+                schedule();
+            }
+            catch (RejectedExecutionException e) {
+                if (messages.remove(message)) {
+                    queued.decrementAndGet();
+                    message.onDiscard.run();
+                    pending.decrementAndGet();
+                    done();
+                }
+                throw e;
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            try {
+                int processed = 0;
+                Message message;
+                while (processed < batchSize && null != (message = messages.poll())) {
+                    queued.decrementAndGet();
+                    process(message);
+                    pending.decrementAndGet();
+                    processed++;
+                }
+            }
+            finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interrupted) {
+                        //Don't leak the interrupt to the next task of the executor service
+                        Thread.interrupted();
+                    }
+                }
+                scheduled.set(false);
+            }
+            //Messages posted while the flag was still set would not have scheduled a turn
+            if (!messages.isEmpty()) {
+                try {
+                    schedule();
+                }
+                catch (RejectedExecutionException e) {
+                    log.warn("Dropped {} messages as the mailbox could not be scheduled", clear());
+                }
+            }
+            else if (disconnected) {
+                retireIfIdle();
+            }
+        }
+
+        void retireIfIdle() {
+            if (pending.compareAndSet(0, RETIRED)) {
+                mailboxes.remove(handlerName, this);
+            }
+        }
+
+        synchronized boolean interrupt() {
+            if (null == runner) {
+                return false;
+            }
+            interrupted = true;
+            runner.interrupt();
+            return true;
+        }
+
+        int clear() {
+            int cleared = 0;
+            Message message;
+            while (null != (message = messages.poll())) {
+                queued.decrementAndGet();
+                message.onDiscard.run();
+                pending.decrementAndGet();
+                done();
+                cleared++;
+            }
+            return cleared;
+        }
+
+        private void schedule() {
+            if (closed) {
+                throw new RejectedExecutionException("Executor has been drained");
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executorService.execute(this);
+                }
+                catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+
+        private void process(Message message) {
+            try {
+                SignalEvents.queueWait(message.enqueuedAt);
+                val listener = queueDelayListener;
+                if (null != listener) {
+                    listener.accept(System.nanoTime() - message.enqueuedAt);
+                }
+                if (message.context.isExpired()) {
+                    log.debug("Discarding handler invocation as the dispatch deadline has expired");
+                    message.onDiscard.run();
+                    return;
+                }
+                message.context.run(message.invocation);
+            }
+            catch (RuntimeException e) {
+                log.error("Error running handler invocation: ", e);
+            }
+            finally {
+                done();
+            }
+        }
+    }
+}
@@ -19,24 +19,31 @@ import io.appform.signals.utils.SignalUtils;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
 
 /**
  * An executor that executes handlers in parallel
  * and calls {@link ResponseCombiner#assimilateHandlerResult(Object)} on every response from handler.
  * Null responses are ignored.
+ * Retries for handlers connected with a {@link io.appform.signals.retry.RetryPolicy} are scheduled on a shared timer,
+ * the calling thread waits for them to finish but no pool thread is held during the backoff.
+ * If the executor service rejects an invocation or a retry attempt, the rest of the handlers still run and the
+ * {@link RejectedExecutionException} is thrown to the caller afterwards, without going to the error handler.
  */
 @Slf4j
 public class ParallelHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
-    private final ExecutorService executorService;
+    private final TrackingExecutor executor;
 
     public ParallelHandlerExecutor(ExecutorService executorService) {
-        this.executorService = executorService;
+        this.executor = new TrackingExecutor(executorService);
     }
 
     @Override
@@ -45,25 +52,86 @@ public class ParallelHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> im
             T data,
             ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy) {
-        val c = new ExecutorCompletionService<R>(executorService);
-        val futures = handlers.stream()
-                .map(handler -> c.submit(() -> (R) SignalUtils.execute(handler, data, combiner, errorHandlingStrategy)))
-                .collect(Collectors.toList());
-        //Please do not combine the two by removing the collection, it will serialise the operations
-        futures.forEach(f -> result(errorHandlingStrategy, f));
+        val futures = new ArrayList<Future<R>>(handlers.size());
+        RejectedExecutionException rejected = null;
+        for (val handler : handlers) {
+            if (null != handler.getRetryPolicy()) {
+                futures.add(executor.track(() -> SignalUtils.executeAsync(
+                        handler, data, combiner, errorHandlingStrategy, executor.untracked())));
+                continue;
+            }
+            val task = InvocationTask.of(handler, data, combiner, errorHandlingStrategy);
+            try {
+                executor.execute(task);
+                futures.add(task);
+            }
+            catch (RejectedExecutionException e) {
+                //The task has been discarded, the rest still need to be submitted
+                if (null == rejected) {
+                    rejected = e;
+                }
+            }
+        }
+        //Please do not combine the two by waiting in the loop above, it will serialise the operations
+        for (val f : futures) {
+            val failure = result(errorHandlingStrategy, f);
+            if (null == rejected) {
+                rejected = failure;
+            }
+        }
+        if (null != rejected) {
+            throw rejected;
+        }
         return combiner.result();
     }
 
-    private void result(TaskErrorHandler errorHandlingStrategy, Future<R> f) {
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return executor.awaitQuiescence(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        return executor.drain(timeout);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        executor.queueDelayListener(listener);
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        executor.completionListener(listener);
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        return executor.stats();
+    }
+
+    /**
+     * Wait for an invocation to finish and pass failures on to the error handler. An attempt of a retried handler
+     * rejected by the executor is returned instead, so that it is thrown like rejections of other handlers.
+     */
+    private RejectedExecutionException result(TaskErrorHandler errorHandlingStrategy, Future<R> f) {
         try {
             f.get();
         }
         catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                return (RejectedExecutionException) e.getCause();
+            }
             errorHandlingStrategy.handle(e);
         }
+        catch (CancellationException e) {
+            //Discarded at the deadline or while draining, not a failure of the handler
+            log.debug("Handler invocation was discarded without running");
+        }
         catch (InterruptedException e) {
             log.error("Thread has been interrupted...");
             Thread.currentThread().interrupt();
         }
+        return null;
     }
 }
@@ -23,6 +23,7 @@ import java.util.Collection;
  * An executor that executes handlers in the caller thread
  * and calls {@link ResponseCombiner#assimilateHandlerResult(Object)} on every response from handler.
  * Null responses are ignored.
+ * Retries for handlers connected with a {@link io.appform.signals.retry.RetryPolicy} happen in the caller thread.
  */
 public class SameThreadHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> implements HandlerExecutor<T, R, F> {
     @Override
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A view over a shared pool that belongs to a single signal. Tasks are queued in the view and run on the pool with at
+ * most the configured number of them running at the same time; with a limit of one they run in submission order.
+ * Shutting the view down stops it from accepting tasks and {@link #shutdownNow()} hands back tasks queued in the view,
+ * but the shared pool is left alone. Running tasks are not interrupted. The pool is looked up on the first task.
+ */
+@Slf4j
+final class SharedExecutorView extends AbstractExecutorService {
+    private final Supplier<ExecutorService> pool;
+    private final int maxConcurrency;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workers = new AtomicInteger();
+    private final InFlightCounter tasks = new InFlightCounter();
+    private volatile boolean shutdown;
+
+    SharedExecutorView(Supplier<ExecutorService> pool, int maxConcurrency) {
+        this.pool = pool;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        tasks.increment();
+        queue.add(task);
+        schedule();
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tasks.wakeUp();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        val pending = new ArrayList<Runnable>();
+        Runnable task;
+        while (null != (task = queue.poll())) {
+            pending.add(task);
+            tasks.done();
+        }
+        tasks.wakeUp();
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && tasks.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return tasks.awaitUntil(this::isTerminated, unit.toNanos(timeout));
+    }
+
+    private void schedule() {
+        while (!queue.isEmpty()) {
+            val running = workers.get();
+            if (running >= maxConcurrency) {
+                return;
+            }
+            if (workers.compareAndSet(running, running + 1)) {
+                try {
+                    pool.get().execute(this::drainQueue);
+                }
+                catch (RuntimeException e) {
+                    workers.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private void drainQueue() {
+        try {
+            Runnable task;
+            while (null != (task = queue.poll())) {
+                try {
+                    task.run();
+                }
+                catch (RuntimeException e) {
+                    log.error("Error running task: ", e);
+                }
+                finally {
+                    tasks.done();
+                }
+            }
+        }
+        finally {
+            workers.decrementAndGet();
+        }
+        //A task might have been queued after the queue was found empty but before this worker left
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Registry of named thread pools shared by signals, used by signals that are not given an executor service.
+ * Pools are created on the first task submitted to them, so declaring signals does not start any thread. Signals get
+ * their own view over a pool from {@link #parallel(String)} or {@link #serial(String)}; closing a signal shuts down
+ * its view only. Pool threads are daemons that time out when idle. A shutdown hook stops all pools on JVM exit, or call
+ * {@link #shutdown(Duration)}.
+ * The default pool adds a thread whenever none is idle, like a cached pool. Parallel signals block the dispatching
+ * thread till their handlers finish, so a handler on a bounded pool that dispatches to another parallel signal on the
+ * same pool can wait forever for a thread once the pool is full.
+ * Use {@link #configure(String, Function)} before first use to change how a pool is created. Only bound a pool if
+ * handlers running on it never wait on other tasks of the same pool.
+ */
+@Slf4j
+public final class SharedExecutors {
+    public static final String DEFAULT_POOL = "default";
+    private static final long SHUTDOWN_HOOK_TIMEOUT_SECONDS = 5;
+
+    private static final Map<String, Function<String, ExecutorService>> FACTORIES = new ConcurrentHashMap<>();
+    private static final Map<String, ExecutorService> POOLS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean HOOK_INSTALLED = new AtomicBoolean();
+
+    private SharedExecutors() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * @return A view of the default pool that runs tasks in parallel
+     */
+    public static ExecutorService parallel() {
+        return parallel(DEFAULT_POOL);
+    }
+
+    /**
+     * @param poolName Name of the pool
+     * @return A view of the named pool that runs tasks in parallel
+     */
+    public static ExecutorService parallel(final String poolName) {
+        return new SharedExecutorView(() -> pool(poolName), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return A view of the default pool that runs tasks one at a time in submission order
+     */
+    public static ExecutorService serial() {
+        return serial(DEFAULT_POOL);
+    }
+
+    /**
+     * @param poolName Name of the pool
+     * @return A view of the named pool that runs tasks one at a time in submission order
+     */
+    public static ExecutorService serial(final String poolName) {
+        return new SharedExecutorView(() -> pool(poolName), 1);
+    }
+
+    /**
+     * Set the factory used to create a pool. Has no effect if the pool has already been created.
+     *
+     * @param poolName Name of the pool
+     * @param factory  Creates the executor service, given the pool name
+     */
+    public static void configure(final String poolName, final Function<String, ExecutorService> factory) {
+        Objects.requireNonNull(factory, "Factory is needed to configure pool");
+        if (POOLS.containsKey(poolName)) {
+            log.warn("Pool {} has already been created, new configuration is ignored", poolName);
+        }
+        FACTORIES.put(poolName, factory);
+    }
+
+    /**
+     * @param poolName Name of the pool
+     * @return true if the pool has been created
+     */
+    public static boolean isCreated(final String poolName) {
+        return POOLS.containsKey(poolName);
+    }
+
+    /**
+     * Shut down all pools created so far and wait for running tasks to finish. Pools are created afresh if used again.
+     *
+     * @param timeout Max time to wait for every pool
+     */
+    public static void shutdown(final Duration timeout) {
+        for (val name : POOLS.keySet()) {
+            val pool = POOLS.remove(name);
+            if (null == pool) {
+                continue;
+            }
+            pool.shutdown();
+            try {
+                if (!pool.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    log.warn("Pool {} did not terminate in time, {} tasks dropped", name, pool.shutdownNow().size());
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    static ExecutorService pool(final String poolName) {
+        return POOLS.computeIfAbsent(poolName, name -> {
+            installShutdownHook();
+            log.info("Creating shared signal pool: {}", name);
+            return FACTORIES.getOrDefault(name, SharedExecutors::defaultPool).apply(name);
+        });
+    }
+
+    private static ExecutorService defaultPool(final String name) {
+        val counter = new AtomicInteger();
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), task -> {
+            val thread = new Thread(task, "signals-" + name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void installShutdownHook() {
+        if (HOOK_INSTALLED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                    () -> shutdown(Duration.ofSeconds(SHUTDOWN_HOOK_TIMEOUT_SECONDS)), "signals-shutdown"));
+        }
+    }
+}
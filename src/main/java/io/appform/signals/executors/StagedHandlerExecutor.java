@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.DrainResult;
+import io.appform.signals.ExecutorStats;
+import io.appform.signals.SignalHandlerBase;
+import io.appform.signals.events.SignalEvents;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs handlers in the calling thread, and provides stages for a signal that moves every event through its handler
+ * groups as a pipeline. Every stage has its own bounded queue and workers. Submitting to a stage whose queue is full
+ * blocks, so a slow stage holds back the ones before it. Stages are created on first use.
+ * Events in the pipeline are counted from {@link #begin()} to {@link #done()}, for quiescence and draining. Events
+ * still queued on a stage when draining are dropped and counted as done by the executor.
+ */
+@Slf4j
+public class StagedHandlerExecutor<T, R, F extends SignalHandlerBase<T, R>> extends SameThreadHandlerExecutor<T, R, F> {
+    private final int workersPerStage;
+    private final int queueCapacity;
+    private final List<ThreadPoolExecutor> stages = new CopyOnWriteArrayList<>();
+    private final InFlightCounter inFlight = new InFlightCounter();
+    private volatile boolean shutdown;
+    private volatile LongConsumer queueDelayListener;
+    private volatile Runnable completionListener;
+
+    public StagedHandlerExecutor(int workersPerStage, int queueCapacity) {
+        if (workersPerStage <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Workers per stage and queue capacity must be positive");
+        }
+        this.workersPerStage = workersPerStage;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Count an event entering the pipeline
+     */
+    public void begin() {
+        inFlight.increment();
+    }
+
+    /**
+     * Count an event leaving the pipeline, after its last stage or when it is dropped
+     */
+    public void done() {
+        inFlight.done();
+        val listener = completionListener;
+        if (null != listener) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Queue a task on a stage, waiting for space in the queue if needed
+     *
+     * @param stage Index of the stage, starting at 0
+     * @param task  Task to run
+     * @throws RejectedExecutionException if the executor has been drained
+     */
+    public void submit(int stage, Runnable task) {
+        submit(stage, task, () -> {});
+    }
+
+    /**
+     * Queue a task on a stage, waiting for space in the queue if needed
+     *
+     * @param stage  Index of the stage, starting at 0
+     * @param task   Task to run
+     * @param onDrop Called instead of the task if it is dropped from the queue while draining. The event is counted
+     *               as done right after.
+     * @throws RejectedExecutionException if the executor has been drained
+     */
+    public void submit(int stage, Runnable task, Runnable onDrop) {
+        stage(stage).execute(new StageEntry(task, onDrop, queueDelayListener));
+    }
+
+    @Override
+    public boolean awaitQuiescence(Duration timeout) {
+        return inFlight.await(timeout);
+    }
+
+    @Override
+    public DrainResult drain(Duration timeout) {
+        val completed = awaitQuiescence(timeout);
+        synchronized (stages) {
+            shutdown = true;
+        }
+        stages.forEach(ThreadPoolExecutor::shutdown);
+        if (completed) {
+            return DrainResult.complete();
+        }
+        val pending = inFlight.get();
+        int dropped = 0;
+        for (val stage : stages) {
+            for (val entry : stage.shutdownNow()) {
+                ((StageEntry) entry).drop();
+                dropped++;
+            }
+        }
+        val interrupted = Math.max(0, pending - dropped);
+        log.warn("Stages drained with pending work. Dropped: {} Interrupted: {}", dropped, interrupted);
+        return new DrainResult(false, dropped, interrupted);
+    }
+
+    @Override
+    public void queueDelayListener(LongConsumer listener) {
+        this.queueDelayListener = listener;
+    }
+
+    @Override
+    public void completionListener(Runnable listener) {
+        this.completionListener = listener;
+    }
+
+    @Override
+    public ExecutorStats stats() {
+        int queued = 0;
+        for (val stage : stages) {
+            queued += stage.getQueue().size();
+        }
+        return new ExecutorStats(queued, Math.max(0, inFlight.get() - queued), 0);
+    }
+
+    /**
+     * @return Number of stages created so far
+     */
+    public int stageCount() {
+        return stages.size();
+    }
+
+    private ThreadPoolExecutor stage(int index) {
+        if (index < stages.size()) {
+            return stages.get(index);
+        }
+        synchronized (stages) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+            while (stages.size() <= index) {
+                stages.add(newStage(stages.size()));
+            }
+            return stages.get(index);
+        }
+    }
+
+    private ThreadPoolExecutor newStage(int index) {
+        val counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                workersPerStage, workersPerStage, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "signal-stage-" + index + "-" + counter.incrementAndGet()),
+                (task, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Stage has been shut down");
+                    }
+                    try {
+                        executor.getQueue().put(task);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for space in stage queue", e);
+                    }
+                });
+    }
+
+    /**
+     * A task queued on a stage
+     */
+    private final class StageEntry implements Runnable {
+        private final Runnable task;
+        private final Runnable onDrop;
+        private final LongConsumer listener;
+        private final long enqueuedAt = System.nanoTime();
+
+        private StageEntry(Runnable task, Runnable onDrop, LongConsumer listener) {
+            this.task = task;
+            this.onDrop = onDrop;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            SignalEvents.queueWait(enqueuedAt);
+            if (null != listener) {
+                listener.accept(System.nanoTime() - enqueuedAt);
+            }
+            task.run();
+        }
+
+        private void drop() {
+            try {
+                onDrop.run();
+            }
+            catch (RuntimeException e) {
+                log.error("Error handling dropped stage task: ", e);
+            }
+            finally {
+                done();
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.DrainResult;
+import io.appform.signals.ExecutorStats;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.events.SignalEvents;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps an {@link ExecutorService} to keep count of handler invocations that are queued, running or waiting for a
+ * retry. This is used to implement {@link io.appform.signals.HandlerExecutor#awaitQuiescence(Duration)} and
+ * {@link io.appform.signals.HandlerExecutor#drain(Duration)}.
+ * The {@link DispatchContext} of the submitting thread is carried over to tasks, and tasks whose deadline has expired
+ * by the time they get a thread are discarded.
+ * The executor service may be shared with other users, so draining never shuts it down. Instead, this stops accepting
+ * tasks, drops its own tasks that are still queued and interrupts the threads running its own tasks.
+ */
+@Slf4j
+class TrackingExecutor implements Executor {
+    private final ExecutorService executorService;
+    private final Executor untracked;
+    private final InFlightCounter inFlight = new InFlightCounter();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final Set<CompletableFuture<?>> chains = ConcurrentHashMap.newKeySet();
+    private final Set<TrackedTask> tasks = ConcurrentHashMap.newKeySet();
+    private volatile LongConsumer queueDelayListener;
+    private volatile Runnable completionListener;
+    private volatile boolean closed;
+
+    TrackingExecutor(ExecutorService executorService) {
+        this.executorService = executorService;
+        this.untracked = task -> {
+            try {
+                if (closed) {
+                    throw new RejectedExecutionException("Executor has been drained");
+                }
+                executorService.execute(task);
+            }
+            catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Run a single handler invocation on the underlying executor service
+     */
+    @Override
+    public void execute(Runnable task) {
+        inFlight.increment();
+        queued.incrementAndGet();
+        TrackedTask tracked = null;
+        try {
+            if (closed) {
+                throw new RejectedExecutionException("Executor has been drained");
+            }
+            tracked = new TrackedTask(task);
+            tasks.add(tracked);
+            executorService.execute(tracked);
+        }
+        catch (RuntimeException e) {
+            if (null != tracked) {
+                tasks.remove(tracked);
+            }
+            if (e instanceof RejectedExecutionException) {
+                rejected.increment();
+            }
+            if (task instanceof Future) {
+                //Lets the handler know that the invocation is not going to run
+                ((Future<?>) task).cancel(false);
+            }
+            queued.decrementAndGet();
+            done();
+            throw e;
+        }
+    }
+
+    /**
+     * Track a handler invocation that might span multiple tasks, like one with retries. Tasks for such invocations
+     * should be submitted through {@link #untracked()}.
+     */
+    <V> CompletableFuture<V> track(Supplier<CompletableFuture<V>> invocation) {
+        inFlight.increment();
+        final CompletableFuture<V> future;
+        try {
+            future = invocation.get();
+        }
+        catch (RuntimeException e) {
+            done();
+            throw e;
+        }
+        chains.add(future);
+        future.whenComplete((result, error) -> {
+            chains.remove(future);
+            done();
+        });
+        return future;
+    }
+
+    /**
+     * Report the time every task waits in the queue of the executor service to the listener
+     */
+    void queueDelayListener(LongConsumer listener) {
+        this.queueDelayListener = listener;
+    }
+
+    /**
+     * Call the listener every time an invocation finishes or is dropped
+     */
+    void completionListener(Runnable listener) {
+        this.completionListener = listener;
+    }
+
+    /**
+     * @return Statistics for tasks submitted through this executor
+     */
+    ExecutorStats stats() {
+        val waiting = queued.get();
+        return new ExecutorStats(waiting, Math.max(0, inFlight.get() - waiting), rejected.sum());
+    }
+
+    /**
+     * @return An executor for tasks that belong to an invocation tracked through {@link #track(Supplier)}
+     */
+    Executor untracked() {
+        return untracked;
+    }
+
+    boolean awaitQuiescence(Duration timeout) {
+        return inFlight.await(timeout);
+    }
+
+    DrainResult drain(Duration timeout) {
+        val completed = awaitQuiescence(timeout);
+        closed = true;
+        if (completed) {
+            return DrainResult.complete();
+        }
+        int dropped = 0;
+        int interrupted = 0;
+        for (val task : tasks) {
+            if (task.cancel()) {
+                dropped++;
+            }
+        }
+        for (val chain : chains) {
+            if (chain.cancel(true)) {
+                dropped++;
+            }
+        }
+        //Only once nothing is left to pick up, so that interrupted threads don't start queued tasks meanwhile
+        for (val task : tasks) {
+            if (task.interrupt()) {
+                interrupted++;
+            }
+        }
+        log.warn("Executor drained with pending work. Dropped: {} Interrupted: {}", dropped, interrupted);
+        return new DrainResult(false, dropped, interrupted);
+    }
+
+    private void done() {
+        inFlight.done();
+        val listener = completionListener;
+        if (null != listener) {
+            listener.run();
+        }
+    }
+
+    private final class TrackedTask implements Runnable {
+        private final Runnable task;
+        private final DispatchContext context;
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        //Guarded by this, so that a thread is only interrupted while running this task
+        private Thread runner;
+        private boolean interrupted;
+
+        private TrackedTask(Runnable task) {
+            this.task = task;
+            this.context = DispatchContext.current();
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                //Dropped while draining
+                return;
+            }
+            queued.decrementAndGet();
+            SignalEvents.queueWait(enqueuedAt);
+            val listener = queueDelayListener;
+            if (null != listener) {
+                listener.accept(System.nanoTime() - enqueuedAt);
+            }
+            if (context.isExpired()) {
+                log.debug("Discarding handler invocation as the dispatch deadline has expired");
+                drop();
+                return;
+            }
+            synchronized (this) {
+                runner = Thread.currentThread();
+            }
+            try {
+                context.run(task);
+            }
+            finally {
+                synchronized (this) {
+                    runner = null;
+                    if (interrupted) {
+                        //Don't leak the interrupt to the next task of the executor service
+                        Thread.interrupted();
+                    }
+                }
+                tasks.remove(this);
+                done();
+            }
+        }
+
+        /**
+         * Drop the task if it has not started yet
+         */
+        private boolean cancel() {
+            if (!claimed.compareAndSet(false, true)) {
+                return false;
+            }
+            queued.decrementAndGet();
+            drop();
+            return true;
+        }
+
+        /**
+         * Interrupt the thread running the task, if it is still running
+         */
+        private synchronized boolean interrupt() {
+            if (null == runner) {
+                return false;
+            }
+            interrupted = true;
+            runner.interrupt();
+            return true;
+        }
+
+        private void drop() {
+            tasks.remove(this);
+            if (task instanceof Future) {
+                //Unblocks callers waiting on the result, and lets the handler know it is not going to run
+                ((Future<?>) task).cancel(false);
+            }
+            done();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.hedging;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Policy for hedging invocations of a handler. If an invocation has not completed after the hedge delay, a second
+ * one is started and the first result wins. The delay is either fixed, or the configured percentile of recently
+ * observed latencies, in which case the fixed delay is used till enough latencies have been observed. The budget
+ * caps hedged invocations at a fraction of all invocations. It works like a token bucket: every invocation adds the
+ * budget fraction of a token, every hedge takes a whole one, and at most burst tokens are kept. So after a quiet
+ * period only a burst of hedges can be made before falling back to the budget rate. Use the builder to create a policy.
+ */
+@Getter
+public class HedgePolicy {
+    private final Duration delay;
+    private final double percentile;
+    private final double budget;
+    private final int burst;
+
+    private HedgePolicy(Duration delay, double percentile, double budget, int burst) {
+        this.delay = delay;
+        this.percentile = percentile;
+        this.budget = budget;
+        this.burst = burst;
+    }
+
+    /**
+     * @return true if the delay is derived from observed latencies
+     */
+    public boolean isAdaptive() {
+        return percentile > 0;
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private Duration delay = Duration.ofMillis(50);
+        private double percentile;
+        private double budget = 0.05;
+        private int burst = 10;
+
+        /**
+         * Fixed hedge delay, also used for adaptive policies till enough latencies have been observed
+         */
+        public Builder delay(final Duration delay) {
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Derive the hedge delay from this percentile of observed latencies, for example 0.95
+         */
+        public Builder percentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Max fraction of invocations that can be hedged
+         */
+        public Builder budget(double budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Max hedges that can be made back to back with budget saved up earlier
+         */
+        public Builder burst(int burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        public HedgePolicy build() {
+            Objects.requireNonNull(delay, "Delay is needed for hedge policy");
+            if (delay.isNegative()) {
+                throw new IllegalArgumentException("Delay can't be negative");
+            }
+            if (percentile < 0.0 || percentile >= 1.0) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1");
+            }
+            if (budget < 0.0 || budget > 1.0) {
+                throw new IllegalArgumentException("Budget must be between 0 and 1");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("Burst must be positive");
+            }
+            return new HedgePolicy(delay, percentile, budget, burst);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.hedging;
+
+import io.appform.signals.retry.RetryTimer;
+import io.appform.signals.signalhandlers.SignalHandler;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link SignalHandler} that hedges invocations of another handler according to a {@link HedgePolicy}. The first
+ * invocation is started on the provided executor. If it has not completed after the hedge delay, a second one is
+ * started there as well. The calling thread returns the result of whichever succeeds first and the other one is
+ * cancelled with an interrupt, so a slow invocation stuck in blocking calls that ignore interrupts does not hold up the
+ * caller. If both fail, the error from the one that failed last is thrown. If the executor rejects the first
+ * invocation, it runs in the calling thread without hedging. The executor needs room for two invocations for every
+ * concurrent call to this handler.
+ * Only the latency of the first invocation to succeed is recorded for adaptive delays. When the hedge wins, this is the
+ * time the first invocation had been running for, as hedges that win are biased towards short latencies.
+ * Use this for handlers calling replicated services, where a duplicate call is cheap and safe.
+ * <pre>{@code
+ * signal.connect("pricing", new HedgedHandler<>(pricingClient::price, policy, executorService));
+ * }</pre>
+ */
+@Slf4j
+public class HedgedHandler<T, R> implements SignalHandler<T, R> {
+    private static final long TOKEN = 1_000_000L;
+
+    private final SignalHandler<T, R> handler;
+    private final HedgePolicy policy;
+    private final ExecutorService executorService;
+    private final LatencyTracker latencies;
+    private final long tokensPerInvocation;
+    private final long maxTokens;
+    private final AtomicLong tokens = new AtomicLong();
+    private final LongAdder invocations = new LongAdder();
+    private final AtomicLong hedges = new AtomicLong();
+
+    public HedgedHandler(
+            final SignalHandler<T, R> handler,
+            final HedgePolicy policy,
+            final ExecutorService executorService) {
+        this.handler = Objects.requireNonNull(handler, "Handler is needed for hedging");
+        this.policy = Objects.requireNonNull(policy, "Policy is needed for hedging");
+        this.executorService = Objects.requireNonNull(executorService, "Executor service is needed for hedging");
+        this.latencies = new LatencyTracker(policy.isAdaptive() ? policy.getPercentile() : 0.5);
+        this.tokensPerInvocation = Math.round(policy.getBudget() * TOKEN);
+        this.maxTokens = policy.getBurst() * TOKEN;
+    }
+
+    @Override
+    public R handle(T data) {
+        invocations.increment();
+        if (tokensPerInvocation > 0) {
+            tokens.accumulateAndGet(tokensPerInvocation, (current, added) -> Math.min(maxTokens, current + added));
+        }
+        val race = new Race(data);
+        if (!race.start()) {
+            log.warn("Running invocation in calling thread without hedging as the executor rejected it");
+            return handler.handle(data);
+        }
+        val timer = RetryTimer.schedule(race::hedge, hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        try {
+            return race.result.get();
+        }
+        catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for handler", e);
+        }
+        finally {
+            timer.cancel(false);
+            race.cancel();
+        }
+    }
+
+    /**
+     * @return Number of invocations of this handler
+     */
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * @return Number of hedged invocations
+     */
+    public long hedges() {
+        return hedges.get();
+    }
+
+    long hedgeDelayNanos() {
+        if (policy.isAdaptive()) {
+            val observed = latencies.percentileNanos();
+            if (observed >= 0) {
+                return observed;
+            }
+        }
+        return policy.getDelay().toNanos();
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            val current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                hedges.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(final ExecutionException e) {
+        val cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    /**
+     * State shared between the calling thread, the timer starting the hedge and the threads running the invocations.
+     * The first invocation to succeed completes the result, and the other one is cancelled once the caller returns.
+     */
+    private final class Race {
+        private final T data;
+        private final long start = System.nanoTime();
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+        //Guarded by this
+        private Future<?> primary;
+        private Future<?> hedge;
+        private int running;
+        private boolean failed;
+
+        private Race(T data) {
+            this.data = data;
+        }
+
+        /**
+         * @return false if the executor rejected the first invocation
+         */
+        synchronized boolean start() {
+            try {
+                primary = executorService.submit(this::run);
+                running = 1;
+                return true;
+            }
+            catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Called on the timer thread once the hedge delay has passed
+         */
+        synchronized void hedge() {
+            //Nothing to hedge once the first invocation is done, whether it succeeded or failed
+            if (result.isDone() || failed || !tryAcquireHedge()) {
+                return;
+            }
+            log.debug("Hedging invocation after {} ns", System.nanoTime() - start);
+            try {
+                hedge = executorService.submit(this::run);
+                running++;
+            }
+            catch (RejectedExecutionException e) {
+                log.warn("Could not hedge invocation as the executor rejected it");
+            }
+        }
+
+        synchronized void cancel() {
+            cancel(primary);
+            cancel(hedge);
+        }
+
+        private void run() {
+            final R value;
+            try {
+                value = handler.handle(data);
+            }
+            catch (Throwable t) {
+                failed(t);
+                return;
+            }
+            if (result.complete(value)) {
+                latencies.record(System.nanoTime() - start);
+            }
+        }
+
+        private synchronized void failed(Throwable t) {
+            failed = true;
+            if (--running == 0) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        private void cancel(Future<?> invocation) {
+            if (null != invocation) {
+                invocation.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.hedging;
+
+import lombok.val;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the most recent latencies in a ring and periodically recomputes a percentile from them.
+ */
+final class LatencyTracker {
+    private static final int SAMPLES = 1024;
+    private static final int MIN_SAMPLES = 64;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final AtomicLongArray ring = new AtomicLongArray(SAMPLES);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long current = -1;
+
+    LatencyTracker(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long latencyNanos) {
+        val count = recorded.getAndIncrement();
+        ring.set((int) (count % SAMPLES), latencyNanos);
+        if (count + 1 >= MIN_SAMPLES && (count + 1) % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(count + 1, SAMPLES));
+        }
+    }
+
+    /**
+     * @return The percentile in nanos, or -1 if not enough latencies have been recorded yet
+     */
+    long percentileNanos() {
+        return current;
+    }
+
+    private void recompute(int size) {
+        val copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = ring.get(i);
+        }
+        Arrays.sort(copy);
+        current = copy[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.journal;
+
+/**
+ * Converts events to and from bytes so that they can be written to a {@link MappedJournal}.
+ */
+public interface EventSerializer<T> {
+
+    /**
+     * Convert an event to bytes
+     * @param data The event being dispatched
+     * @return Serialized representation of the event
+     */
+    byte[] serialize(T data);
+
+    /**
+     * Convert bytes read back from the journal to an event
+     * @param data Bytes as returned earlier by {@link #serialize(Object)}
+     * @return The event
+     */
+    T deserialize(byte[] data);
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tracks consumption of journal records by every named handler. The committed offset of a handler is the offset from
+ * which records need to be re-delivered to it after a restart. Records can complete out of order when handlers are run
+ * on a thread pool, so this is the offset of the oldest record that has not yet been acknowledged.
+ */
+@Slf4j
+public class HandlerOffsets {
+    private final Path file;
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    public HandlerOffsets(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Record that a record has been handed over to a handler
+     * @param handlerName Name of the handler
+     * @param offset Offset of the record
+     * @param nextOffset Offset of the record after this one
+     */
+    public void track(final String handlerName, long offset, long nextOffset) {
+        val tracker = trackers.computeIfAbsent(handlerName, name -> new Tracker(offset));
+        tracker.pending.add(offset);
+        tracker.next = Math.max(tracker.next, nextOffset);
+    }
+
+    /**
+     * Start tracking a handler from the provided offset if it is not being tracked already
+     * @param handlerName Name of the handler
+     * @param offset Offset from which records need to be delivered to the handler
+     */
+    public void register(final String handlerName, long offset) {
+        trackers.computeIfAbsent(handlerName, name -> new Tracker(offset));
+    }
+
+    /**
+     * Move the committed offset of a handler forward to the provided offset
+     * @param handlerName Name of the handler
+     * @param offset Offset of the next record to be delivered to the handler
+     */
+    public void advance(final String handlerName, long offset) {
+        val tracker = trackers.computeIfAbsent(handlerName, name -> new Tracker(offset));
+        tracker.next = Math.max(tracker.next, offset);
+    }
+
+    /**
+     * Record that a handler has finished consuming a record
+     * @param handlerName Name of the handler
+     * @param offset Offset of the record
+     */
+    public void acknowledge(final String handlerName, long offset) {
+        val tracker = trackers.get(handlerName);
+        if (null != tracker) {
+            tracker.pending.remove(offset);
+        }
+    }
+
+    /**
+     * @param handlerName Name of the handler
+     * @return Offset from which records need to be replayed for this handler, -1 if the handler is not known
+     */
+    public long committed(final String handlerName) {
+        val tracker = trackers.get(handlerName);
+        return null == tracker ? -1 : tracker.committed();
+    }
+
+    /**
+     * @return Lowest committed offset across all handlers, -1 if nothing is being tracked
+     */
+    public long minCommitted() {
+        return trackers.values()
+                .stream()
+                .mapToLong(Tracker::committed)
+                .min()
+                .orElse(-1);
+    }
+
+    /**
+     * @return Names of all handlers being tracked
+     */
+    public Set<String> handlerNames() {
+        return trackers.keySet();
+    }
+
+    /**
+     * Stop tracking the provided handlers
+     * @param handlerNames Names of handlers to be removed
+     */
+    public void forget(final Collection<String> handlerNames) {
+        handlerNames.forEach(trackers::remove);
+    }
+
+    /**
+     * Atomically write committed offsets for all handlers to the offsets file
+     */
+    public synchronized void store() {
+        val properties = new Properties();
+        trackers.forEach((name, tracker) -> properties.setProperty(name, Long.toString(tracker.committed())));
+        val temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "Committed journal offsets per handler");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not write offsets to " + file, e);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        val properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read offsets from " + file, e);
+        }
+        val loaded = new HashMap<String, Long>();
+        properties.stringPropertyNames()
+                .forEach(name -> loaded.put(name, Long.parseLong(properties.getProperty(name))));
+        loaded.forEach((name, offset) -> trackers.put(name, new Tracker(offset)));
+        log.info("Loaded committed offsets for handlers: {}", loaded);
+    }
+
+    private static final class Tracker {
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+        private volatile long next;
+
+        private Tracker(long next) {
+            this.next = next;
+        }
+
+        private long committed() {
+            //Read next before pending, so that a record tracked in between is not skipped
+            val current = next;
+            val oldest = pending.ceiling(Long.MIN_VALUE);
+            return null == oldest ? current : Math.min(oldest, current);
+        }
+    }
+}
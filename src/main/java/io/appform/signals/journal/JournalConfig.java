@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.journal;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the {@link MappedJournal} used by durable signals.
+ */
+@Value
+@Builder
+public class JournalConfig {
+    /**
+     * Directory where segment and offset files are stored
+     */
+    @NonNull
+    Path directory;
+
+    /**
+     * Size of every segment file. Single events cannot be larger than this.
+     */
+    @Builder.Default
+    int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * Number of appends after which data is forced to disk
+     */
+    @Builder.Default
+    int fsyncBatchSize = 256;
+
+    /**
+     * Interval at which appended data is forced to disk and handler offsets are stored
+     */
+    @Builder.Default
+    @NonNull
+    Duration fsyncInterval = Duration.ofSeconds(1);
+}
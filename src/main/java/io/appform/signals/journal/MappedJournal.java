@@ -0,0 +1,317 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal backed by a set of fixed size, memory-mapped segment files.
+ * Every record is written as [length + 1][crc32][payload], so that a zero length word always means unwritten space,
+ * even for empty payloads. Records are identified by their offset, which is the position
+ * of the record in the journal across all segments. Appends only write to the mapped memory, the data is forced to
+ * the disk once every fsyncBatchSize appends or when {@link #flush()} is called.
+ */
+@Slf4j
+public class MappedJournal implements Closeable {
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int fsyncBatchSize;
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private Segment active;
+    private int unflushed;
+
+    /**
+     * Visitor for records read back from the journal
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        /**
+         * Called for every record read from the journal
+         * @param offset Offset of the record
+         * @param nextOffset Offset at which the next record can be found
+         * @param payload The payload that was appended
+         * @return true to continue reading, false to stop
+         */
+        boolean visit(long offset, long nextOffset, byte[] payload);
+    }
+
+    public MappedJournal(Path directory, int segmentSize, int fsyncBatchSize) {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("Segment size must be more than " + HEADER_SIZE + " bytes");
+        }
+        if (fsyncBatchSize < 1) {
+            throw new IllegalArgumentException("Fsync batch size must be at least 1");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncBatchSize = fsyncBatchSize;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .forEach(file -> segments.put(baseOffset(file), file));
+            }
+            if (segments.isEmpty()) {
+                this.active = createSegment(0L);
+            }
+            else {
+                val last = segments.lastEntry();
+                this.active = openSegment(last.getKey(), last.getValue());
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal at " + directory, e);
+        }
+    }
+
+    /**
+     * Append a record to the journal
+     * @param payload Bytes to be written
+     * @return Offset of the newly written record
+     */
+    public synchronized long append(final byte[] payload) {
+        val recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Record of size " + recordSize + " bytes does not fit in a segment");
+        }
+        if (active.position + recordSize > active.buffer.capacity()) {
+            roll();
+        }
+        val offset = active.base + active.position;
+        val buffer = active.buffer;
+        val view = buffer.duplicate();
+        ((Buffer) view).position(active.position + HEADER_SIZE);
+        view.put(payload);
+        buffer.putInt(active.position + Integer.BYTES, checksum(payload));
+        //Length is written last, a record with a non-zero length word is always complete
+        buffer.putInt(active.position, payload.length + 1);
+        active.position += recordSize;
+        if (++unflushed >= fsyncBatchSize) {
+            flush();
+        }
+        return offset;
+    }
+
+    /**
+     * @return The offset at which the next record will be written
+     */
+    public synchronized long endOffset() {
+        return active.base + active.position;
+    }
+
+    /**
+     * Read records between the two offsets
+     * @param from Offset of the first record to be read
+     * @param to Records at or after this offset will not be read
+     * @param visitor Called for every record till it returns false
+     */
+    public void read(long from, long to, final RecordVisitor visitor) {
+        val start = segments.floorKey(from);
+        val readable = null == start ? segments : segments.tailMap(start, true);
+        for (val segment : readable.entrySet()) {
+            val base = segment.getKey();
+            if (base >= to) {
+                break;
+            }
+            if (!readSegment(base, segment.getValue(), Math.max(from, base), to, visitor)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Force all appended data to disk
+     */
+    public synchronized void flush() {
+        if (unflushed > 0) {
+            active.buffer.force();
+            unflushed = 0;
+        }
+    }
+
+    /**
+     * Delete segments that contain only records before the provided offset. The active segment is never deleted.
+     * @param offset Offset before which records are not needed anymore
+     */
+    public synchronized void deleteBefore(long offset) {
+        for (val segment : segments.headMap(active.base, false).entrySet()) {
+            val next = segments.higherKey(segment.getKey());
+            if (null == next || next > offset) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segment.getValue());
+                segments.remove(segment.getKey());
+                log.debug("Deleted journal segment {}", segment.getValue());
+            }
+            catch (IOException e) {
+                log.warn("Could not delete journal segment {}: {}", segment.getValue(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        closeActive();
+    }
+
+    private void roll() {
+        active.buffer.force();
+        unflushed = 0;
+        closeActive();
+        try {
+            active = createSegment(active.base + active.buffer.capacity());
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not create new journal segment in " + directory, e);
+        }
+    }
+
+    private void closeActive() {
+        try {
+            active.channel.close();
+        }
+        catch (IOException e) {
+            log.warn("Error closing journal segment: {}", e.getMessage());
+        }
+    }
+
+    private Segment createSegment(long base) throws IOException {
+        val path = directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+        val channel = FileChannel.open(path,
+                                       StandardOpenOption.CREATE_NEW,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE);
+        segments.put(base, path);
+        return new Segment(base, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize), 0);
+    }
+
+    private Segment openSegment(long base, Path path) throws IOException {
+        val channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        val buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        int position = 0;
+        byte[] payload;
+        while (null != (payload = recordAt(buffer, position))) {
+            position += HEADER_SIZE + payload.length;
+        }
+        if (position + Integer.BYTES <= buffer.capacity() && buffer.getInt(position) != 0) {
+            //Torn or corrupt tail, clear it so that new appends are not followed or shadowed by garbage
+            log.warn("Invalid record in journal segment {} at position {}. Truncating segment.", path, position);
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+        log.info("Opened journal segment {} with {} bytes of data", path, position);
+        return new Segment(base, channel, buffer, position);
+    }
+
+    private boolean readSegment(long base, Path path, long from, long to, RecordVisitor visitor) {
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            val buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int position = (int) (from - base);
+            while (base + position < to) {
+                val payload = recordAt(buffer, position);
+                if (null == payload) {
+                    if (recordLength(buffer, position) >= 0) {
+                        log.warn("Checksum mismatch in journal segment {} at position {}. Skipping rest of segment.",
+                                 path, position);
+                    }
+                    return true;
+                }
+                val next = position + HEADER_SIZE + payload.length;
+                if (!visitor.visit(base + position, base + next, payload)) {
+                    return false;
+                }
+                position = next;
+            }
+            return true;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not read journal segment " + path, e);
+        }
+    }
+
+    /**
+     * @return Payload of the record at the position, or null if there is no complete record with a valid checksum there
+     */
+    private static byte[] recordAt(ByteBuffer buffer, int position) {
+        val length = recordLength(buffer, position);
+        if (length < 0) {
+            return null;
+        }
+        val payload = new byte[length];
+        val view = buffer.duplicate();
+        ((Buffer) view).position(position + HEADER_SIZE);
+        view.get(payload);
+        return checksum(payload) == buffer.getInt(position + Integer.BYTES) ? payload : null;
+    }
+
+    /**
+     * @return Length of the payload of the record at the position, or -1 if there is no complete record there
+     */
+    private static int recordLength(ByteBuffer buffer, int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        val length = buffer.getInt(position) - 1;
+        return length >= 0 && position + HEADER_SIZE + length <= buffer.capacity() ? length : -1;
+    }
+
+    private static int checksum(byte[] payload) {
+        val crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static long baseOffset(Path file) {
+        val name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final long base;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(long base, FileChannel channel, MappedByteBuffer buffer, int position) {
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.position = position;
+        }
+    }
+}
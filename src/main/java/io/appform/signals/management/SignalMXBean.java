@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.management;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Management interface published over JMX for every signal in a {@link SignalRegistry}. Statistics for a signal that
+ * has been garbage collected are empty.
+ */
+public interface SignalMXBean {
+    /**
+     * @return Name the signal was registered with
+     */
+    String getName();
+
+    /**
+     * @return false if the signal has been garbage collected
+     */
+    boolean isAlive();
+
+    /**
+     * @return true if the signal does not accept dispatches anymore
+     */
+    boolean isClosed();
+
+    /**
+     * @return Number of handlers connected to the signal
+     */
+    int getHandlerCount();
+
+    /**
+     * @return Number of handlers in every group, by group id
+     */
+    Map<Integer, Integer> getHandlersPerGroup();
+
+    /**
+     * @return Names of handlers that have been paused
+     */
+    List<String> getPausedHandlers();
+
+    /**
+     * @return Number of handler invocations waiting in the executor queue
+     */
+    int getQueueDepth();
+
+    /**
+     * @return Number of handler invocations running on the executor
+     */
+    int getActiveInvocations();
+
+    /**
+     * @return Number of handler invocations rejected by the executor
+     */
+    long getRejectedCount();
+
+    /**
+     * @return Number of invocations of every handler since the signal was registered, by handler name
+     */
+    Map<String, Long> getHandlerInvocations();
+
+    /**
+     * @return Number of failed invocations of every handler since the signal was registered, by handler name
+     */
+    Map<String, Long> getHandlerFailures();
+
+    /**
+     * Stop calling a handler till it is resumed.
+     *
+     * @param handlerName Name of the handler
+     */
+    void pauseHandler(String handlerName);
+
+    /**
+     * Resume calling a paused handler.
+     *
+     * @param handlerName Name of the handler
+     */
+    void resumeHandler(String handlerName);
+
+    /**
+     * Disconnect a handler from every group it is connected to.
+     *
+     * @param handlerName Name of the handler
+     * @return true if the handler was connected
+     */
+    boolean disconnectHandler(String handlerName);
+}
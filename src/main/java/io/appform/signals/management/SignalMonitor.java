@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.management;
+
+import io.appform.signals.ExecutorStats;
+import io.appform.signals.Signal;
+import lombok.val;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MBean for a signal. Holds the signal weakly, so that registering a signal does not keep it alive.
+ */
+final class SignalMonitor extends WeakReference<Signal<?, ?, ?>> implements SignalMXBean {
+    private final String name;
+
+    SignalMonitor(String name, Signal<?, ?, ?> signal, ReferenceQueue<Signal<?, ?, ?>> collected) {
+        super(signal, collected);
+        this.name = name;
+        //Start counting invocations from now on
+        signal.handlerCounters();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return null != get();
+    }
+
+    @Override
+    public boolean isClosed() {
+        val signal = get();
+        return null == signal || signal.isClosed();
+    }
+
+    @Override
+    public int getHandlerCount() {
+        return getHandlersPerGroup().values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public Map<Integer, Integer> getHandlersPerGroup() {
+        val signal = get();
+        if (null == signal) {
+            return Collections.emptyMap();
+        }
+        final Map<Integer, Integer> counts = new TreeMap<>();
+        signal.handlerNames().forEach((groupId, names) -> counts.put(groupId, names.size()));
+        return counts;
+    }
+
+    @Override
+    public List<String> getPausedHandlers() {
+        val signal = get();
+        if (null == signal) {
+            return Collections.emptyList();
+        }
+        val paused = new ArrayList<String>();
+        signal.handlerNames()
+                .values()
+                .forEach(names -> names.stream().filter(signal::isPaused).forEach(paused::add));
+        return paused;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return stats().getQueued();
+    }
+
+    @Override
+    public int getActiveInvocations() {
+        return stats().getActive();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return stats().getRejected();
+    }
+
+    @Override
+    public Map<String, Long> getHandlerInvocations() {
+        val signal = get();
+        return null == signal ? Collections.emptyMap() : signal.handlerCounters().invocations();
+    }
+
+    @Override
+    public Map<String, Long> getHandlerFailures() {
+        val signal = get();
+        return null == signal ? Collections.emptyMap() : signal.handlerCounters().failures();
+    }
+
+    @Override
+    public void pauseHandler(String handlerName) {
+        val signal = get();
+        if (null != signal) {
+            signal.pause(handlerName);
+        }
+    }
+
+    @Override
+    public void resumeHandler(String handlerName) {
+        val signal = get();
+        if (null != signal) {
+            signal.resume(handlerName);
+        }
+    }
+
+    @Override
+    public boolean disconnectHandler(String handlerName) {
+        val signal = get();
+        if (null == signal) {
+            return false;
+        }
+        boolean connected = false;
+        for (val group : signal.handlerNames().entrySet()) {
+            if (group.getValue().contains(handlerName)) {
+                signal.disconnect(group.getKey(), handlerName);
+                connected = true;
+            }
+        }
+        return connected;
+    }
+
+    private ExecutorStats stats() {
+        val signal = get();
+        return null == signal ? ExecutorStats.none() : signal.executorStats();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.management;
+
+import io.appform.signals.Signal;
+import io.appform.signals.utils.SignalUtils;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in registry of live signals. Every registered signal is published as a {@link SignalMXBean} named
+ * {@code <domain>:type=Signal,name=<name>}, through which operators can look at handlers, executor queue depth and
+ * per handler counters, and pause or disconnect handlers. Signals are held weakly; MBeans for signals that have been
+ * garbage collected are removed the next time the registry is used, or by calling {@link #purge()}.
+ */
+@Slf4j
+public class SignalRegistry {
+    public static final String DEFAULT_DOMAIN = "io.appform.signals";
+
+    private final MBeanServer server;
+    private final String domain;
+    private final Map<String, SignalMonitor> monitors = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Signal<?, ?, ?>> collected = new ReferenceQueue<>();
+
+    /**
+     * Registry that publishes to the platform MBean server
+     */
+    public SignalRegistry() {
+        this(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+    }
+
+    public SignalRegistry(MBeanServer server, String domain) {
+        this.server = server;
+        this.domain = domain;
+    }
+
+    /**
+     * Register a signal and publish its MBean.
+     *
+     * @param name   Unique name for the signal
+     * @param signal The signal
+     * @return The MBean published for the signal
+     * @throws IllegalArgumentException if a live signal is already registered with the same name
+     */
+    public synchronized SignalMXBean register(final String name, final Signal<?, ?, ?> signal) {
+        if (SignalUtils.isEmpty(name)) {
+            throw new IllegalArgumentException("Signal name can neither be null, nor empty");
+        }
+        purge();
+        if (monitors.containsKey(name)) {
+            throw new IllegalArgumentException("A signal is already registered with name " + name);
+        }
+        val monitor = new SignalMonitor(name, signal, collected);
+        try {
+            server.registerMBean(monitor, objectName(name));
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Could not register MBean for signal " + name, e);
+        }
+        monitors.put(name, monitor);
+        return monitor;
+    }
+
+    /**
+     * Remove a signal and its MBean.
+     *
+     * @param name Name the signal was registered with
+     * @return true if a signal was registered with the name
+     */
+    public synchronized boolean unregister(final String name) {
+        purge();
+        return remove(name);
+    }
+
+    /**
+     * @param name Name the signal was registered with
+     * @return The MBean for the signal, if it is registered and alive
+     */
+    public Optional<SignalMXBean> find(final String name) {
+        purge();
+        return Optional.<SignalMXBean>ofNullable(monitors.get(name)).filter(SignalMXBean::isAlive);
+    }
+
+    /**
+     * @return Names of registered signals that are alive
+     */
+    public Set<String> names() {
+        purge();
+        val names = new TreeSet<String>();
+        monitors.forEach((name, monitor) -> {
+            if (monitor.isAlive()) {
+                names.add(name);
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Remove MBeans of signals that have been garbage collected.
+     *
+     * @return Number of signals removed
+     */
+    public synchronized int purge() {
+        int removed = 0;
+        Reference<? extends Signal<?, ?, ?>> reference;
+        while (null != (reference = collected.poll())) {
+            val monitor = (SignalMonitor) reference;
+            if (monitors.get(monitor.getName()) == monitor && remove(monitor.getName())) {
+                log.debug("Removed collected signal {}", monitor.getName());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean remove(final String name) {
+        val monitor = monitors.remove(name);
+        if (null == monitor) {
+            return false;
+        }
+        try {
+            server.unregisterMBean(objectName(name));
+        }
+        catch (JMException e) {
+            log.warn("Could not unregister MBean for signal {}: {}", name, e.getMessage());
+        }
+        return true;
+    }
+
+    private ObjectName objectName(final String name) throws JMException {
+        return new ObjectName(domain + ":type=Signal,name=" + ObjectName.quote(name));
+    }
+}
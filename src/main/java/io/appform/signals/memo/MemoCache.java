@@ -0,0 +1,252 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.memo;
+
+import io.appform.signals.executors.SharedExecutors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent cache for memoizing computed values. Entries are kept in independently locked LRU segments that are
+ * bounded by weight, and expire a fixed time after being written. If refresh after write is configured, the first
+ * caller to see an entry older than that starts recomputing it in the background, and all callers get the old value
+ * till the new one is ready.
+ * Values are computed outside the locks. Concurrent misses for the same key may compute it more than once.
+ * Null values are not cached.
+ */
+@Slf4j
+public class MemoCache<K, V> {
+    private final ToIntBiFunction<K, V> weigher;
+    private final long ttlMillis;
+    private final long refreshMillis;
+    private final LongSupplier clock;
+    private final Executor refreshExecutor;
+    private final Segment<K, V>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private volatile long generation;
+
+    public MemoCache(final MemoConfig<K, V> config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    MemoCache(final MemoConfig<K, V> config, final LongSupplier clock) {
+        Objects.requireNonNull(config, "Memo config is required");
+        if (config.getMaxWeight() <= 0 || config.getSegments() <= 0 || config.getTtl().isNegative()) {
+            throw new IllegalArgumentException("Max weight, segments and TTL must be positive");
+        }
+        this.weigher = config.getWeigher();
+        this.ttlMillis = config.getTtl().toMillis();
+        this.refreshMillis = null == config.getRefreshAfterWrite()
+                             ? Long.MAX_VALUE
+                             : config.getRefreshAfterWrite().toMillis();
+        this.clock = clock;
+        this.refreshExecutor = null == config.getRefreshAfterWrite() || null != config.getRefreshExecutor()
+                               ? config.getRefreshExecutor()
+                               : SharedExecutors.parallel();
+        val count = (int) Math.min(config.getSegments(), config.getMaxWeight());
+        this.segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(config.getMaxWeight() / count + (i < config.getMaxWeight() % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Get the cached value for the key, computing it if missing, expired or due for refresh.
+     *
+     * @param key    Key to look up
+     * @param loader Computes the value for the key
+     * @return The cached or computed value
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        return get(key, loader, value -> true);
+    }
+
+    /**
+     * Get the cached value for the key, computing it if missing, expired or due for refresh. Computed values are
+     * only cached if accepted by the predicate, which is called right after the loader on the same thread.
+     *
+     * @param key       Key to look up
+     * @param loader    Computes the value for the key
+     * @param cacheable Decides if a computed value can be cached
+     * @return The cached or computed value
+     */
+    public V get(
+            final K key,
+            final Function<? super K, ? extends V> loader,
+            final Predicate<? super V> cacheable) {
+        val segment = segment(key);
+        val now = clock.getAsLong();
+        val entry = segment.get(key, now, ttlMillis);
+        if (null != entry) {
+            if (now - entry.writtenAt >= refreshMillis && entry.refreshing.compareAndSet(false, true)) {
+                refresh(segment, key, loader, cacheable, entry);
+            }
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        return load(segment, key, loader, cacheable);
+    }
+
+    /**
+     * Discard all entries. Values being computed at this time are not cached.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.increment();
+        for (val segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * @return Current statistics
+     */
+    public MemoStats stats() {
+        int size = 0;
+        for (val segment : segments) {
+            size += segment.size();
+        }
+        return new MemoStats(hits.sum(), misses.sum(), refreshes.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    private void refresh(
+            final Segment<K, V> segment,
+            final K key,
+            final Function<? super K, ? extends V> loader,
+            final Predicate<? super V> cacheable,
+            final Entry<V> entry) {
+        refreshes.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(segment, key, loader, cacheable);
+                }
+                catch (RuntimeException e) {
+                    log.warn("Error refreshing memoized value: {}", e.getMessage());
+                }
+                finally {
+                    //Lets a later caller try again if the value was not replaced
+                    entry.refreshing.set(false);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+            log.warn("Could not refresh memoized value: {}", e.getMessage());
+        }
+    }
+
+    private V load(
+            final Segment<K, V> segment,
+            final K key,
+            final Function<? super K, ? extends V> loader,
+            final Predicate<? super V> cacheable) {
+        val startGeneration = generation;
+        final V value = loader.apply(key);
+        if (null != value && cacheable.test(value)) {
+            val weight = weigher.applyAsInt(key, value);
+            synchronized (segment) {
+                //Skip caching if handlers changed while computing
+                if (startGeneration == generation) {
+                    evictions.add(segment.put(key, new Entry<>(value, clock.getAsLong(), weight)));
+                }
+            }
+        }
+        return value;
+    }
+
+    private Segment<K, V> segment(final K key) {
+        val hash = null == key ? 0 : key.hashCode();
+        return segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long writtenAt;
+        private final int weight;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(V value, long writtenAt, int weight) {
+            this.value = value;
+            this.writtenAt = writtenAt;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final long maxWeight;
+        private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Entry<V> get(final K key, long now, long ttlMillis) {
+            val entry = entries.get(key);
+            if (null != entry && now - entry.writtenAt >= ttlMillis) {
+                entries.remove(key);
+                weight -= entry.weight;
+                return null;
+            }
+            return entry;
+        }
+
+        /**
+         * @return Number of entries evicted to make room
+         */
+        synchronized int put(final K key, final Entry<V> entry) {
+            if (entry.weight > maxWeight) {
+                return 0;
+            }
+            val previous = entries.put(key, entry);
+            weight += entry.weight - (null == previous ? 0 : previous.weight);
+            int evicted = 0;
+            val iterator = entries.values().iterator();
+            while (weight > maxWeight && iterator.hasNext()) {
+                weight -= iterator.next().weight;
+                iterator.remove();
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            weight = 0;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
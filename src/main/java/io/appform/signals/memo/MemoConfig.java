@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.memo;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Configuration for a {@link MemoCache}.
+ */
+@Value
+@Builder
+public class MemoConfig<K, V> {
+    /**
+     * Max total weight of cached entries. With the default weigher, this is the max number of entries.
+     */
+    @Builder.Default
+    long maxWeight = 10_000;
+
+    /**
+     * Weight of an entry
+     */
+    @Builder.Default
+    @NonNull
+    ToIntBiFunction<K, V> weigher = (key, value) -> 1;
+
+    /**
+     * Time after which an entry is discarded
+     */
+    @Builder.Default
+    @NonNull
+    Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Time after which an entry is recomputed in the background on the first access, while callers keep getting the
+     * old value. Disabled if not set. Should be shorter than the TTL to be of use.
+     */
+    Duration refreshAfterWrite;
+
+    /**
+     * Runs background refreshes. Defaults to a view of the shared default pool, see
+     * {@link io.appform.signals.executors.SharedExecutors}.
+     */
+    Executor refreshExecutor;
+
+    /**
+     * Number of independently locked segments
+     */
+    @Builder.Default
+    int segments = 16;
+}
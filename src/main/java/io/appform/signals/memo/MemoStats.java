@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.memo;
+
+import lombok.Value;
+
+/**
+ * Snapshot of {@link MemoCache} statistics.
+ */
+@Value
+public class MemoStats {
+    long hits;
+    long misses;
+    long refreshes;
+    long evictions;
+    long invalidations;
+    int size;
+
+    /**
+     * @return Fraction of lookups served from cache, 0 if there were none
+     */
+    public double hitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
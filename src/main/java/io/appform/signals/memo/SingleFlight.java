@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.memo;
+
+import lombok.val;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent computations for equal keys into one. The first caller for a key computes the value, and
+ * callers arriving while it is in flight wait for and share its result or error. The entry is removed as soon as
+ * the computation completes, so nothing is cached beyond that. A computation that calls back into this for the same
+ * key from the computing thread would wait for itself forever, so it fails with an {@link IllegalStateException}.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder collapsed = new LongAdder();
+
+    /**
+     * Compute the value for the key, or wait for a computation already in flight for an equal key.
+     *
+     * @param key         Key identifying the computation
+     * @param computation Computes the value, called only by the first caller
+     * @return The value computed by the first caller
+     * @throws IllegalStateException if called from within the computation for an equal key
+     */
+    public V execute(final K key, final Supplier<V> computation) {
+        val mine = new Flight<V>();
+        val existing = inFlight.putIfAbsent(key, mine);
+        if (null != existing) {
+            if (existing.leader == Thread.currentThread()) {
+                throw new IllegalStateException("Computation for key " + key + " is already in flight in this thread");
+            }
+            collapsed.increment();
+            return await(existing);
+        }
+        try {
+            final V value = computation.get();
+            mine.complete(value);
+            return value;
+        }
+        catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        }
+        finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * @return Number of calls that shared the result of a computation in flight
+     */
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    /**
+     * @return Number of computations currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(final CompletableFuture<V> future) {
+        try {
+            return future.join();
+        }
+        catch (CompletionException e) {
+            val cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Flight<V> extends CompletableFuture<V> {
+        private final Thread leader = Thread.currentThread();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.operators;
+
+import io.appform.signals.Signal;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A chain of stateless operators on the events of one or more consuming {@link Signal}s. Operators are not run as
+ * separate signals. When a handler is connected, the whole chain is composed into a single {@link SignalConsumer}
+ * that is connected to every source signal, so an event costs one dispatch irrespective of the number of stages.
+ * Pipelines are immutable, every operator returns a new pipeline.
+ * <pre>{@code
+ * Pipeline.from(orders)
+ *         .filter(order -> order.getAmount() > 1000)
+ *         .map(Order::getCustomerId)
+ *         .connect("large-order-alerts", alerter::alert);
+ * }</pre>
+ */
+public final class Pipeline<T> {
+    private final List<Source<T>> sources;
+
+    private Pipeline(List<Source<T>> sources) {
+        this.sources = Collections.unmodifiableList(sources);
+    }
+
+    /**
+     * Start a pipeline from the events dispatched on a consuming signal.
+     *
+     * @param signal Source signal
+     * @return A pipeline with no operators
+     */
+    public static <T> Pipeline<T> from(final Signal<T, Void, SignalConsumer<T>> signal) {
+        Objects.requireNonNull(signal, "Source signal is required");
+        return new Pipeline<>(Collections.singletonList(new Source<T>() {
+            @Override
+            public void connect(String name, SignalConsumer<T> handler) {
+                signal.connect(name, handler);
+            }
+
+            @Override
+            public void disconnect(String name) {
+                signal.disconnect(name);
+            }
+        }));
+    }
+
+    /**
+     * Merge events from multiple pipelines. Handlers connected to the merged pipeline are connected to the sources
+     * of all of them.
+     *
+     * @param pipelines Pipelines to be merged
+     * @return A pipeline with events from all the provided pipelines
+     */
+    @SafeVarargs
+    public static <T> Pipeline<T> merge(final Pipeline<? extends T>... pipelines) {
+        //Not handed on to other methods, which would make the array unsafe to share
+        val sources = new ArrayList<Source<T>>();
+        for (val pipeline : pipelines) {
+            sources.addAll(widen(pipeline));
+        }
+        return new Pipeline<>(sources);
+    }
+
+    /**
+     * Merge events from multiple pipelines. Handlers connected to the merged pipeline are connected to the sources
+     * of all of them.
+     *
+     * @param pipelines Pipelines to be merged
+     * @return A pipeline with events from all the provided pipelines
+     */
+    public static <T> Pipeline<T> merge(final List<? extends Pipeline<? extends T>> pipelines) {
+        val sources = new ArrayList<Source<T>>();
+        pipelines.forEach(pipeline -> sources.addAll(widen(pipeline)));
+        return new Pipeline<>(sources);
+    }
+
+    /**
+     * Pass on only events matching the predicate.
+     *
+     * @param predicate Condition to be met by events
+     * @return A new pipeline
+     */
+    public Pipeline<T> filter(final Predicate<? super T> predicate) {
+        Objects.requireNonNull(predicate, "Predicate is required");
+        return transform(downstream -> data -> {
+            if (predicate.test(data)) {
+                downstream.consume(data);
+            }
+        });
+    }
+
+    /**
+     * Transform events. Events mapped to null are not passed on.
+     *
+     * @param mapper Transformation to be applied
+     * @return A new pipeline
+     */
+    public <U> Pipeline<U> map(final Function<? super T, ? extends U> mapper) {
+        Objects.requireNonNull(mapper, "Mapper is required");
+        return transform(downstream -> data -> {
+            final U mapped = mapper.apply(data);
+            if (null != mapped) {
+                downstream.consume(mapped);
+            }
+        });
+    }
+
+    /**
+     * Merge events from another pipeline into this one.
+     *
+     * @param other Pipeline to be merged
+     * @return A new pipeline
+     */
+    public Pipeline<T> mergeWith(final Pipeline<? extends T> other) {
+        return merge(this, other);
+    }
+
+    /**
+     * Connect a handler with a generated name. Use {@link #connect(String, SignalConsumer)} if the handler needs to
+     * be disconnected later.
+     *
+     * @param handler Handler for events coming out of the pipeline
+     * @return this pipeline
+     */
+    public Pipeline<T> connect(final SignalConsumer<T> handler) {
+        return connect(UUID.randomUUID().toString(), handler);
+    }
+
+    /**
+     * Compose all operators with the handler and connect it to every source signal with the given name.
+     *
+     * @param name    Name to connect the handler with
+     * @param handler Handler for events coming out of the pipeline
+     * @return this pipeline
+     */
+    public Pipeline<T> connect(final String name, final SignalConsumer<T> handler) {
+        Objects.requireNonNull(handler, "Handler is required");
+        sources.forEach(source -> source.connect(name, handler));
+        return this;
+    }
+
+    /**
+     * Feed the events coming out of this pipeline into another signal. Events keep the deadline of the dispatch they
+     * came from.
+     *
+     * @param name   Name to connect with
+     * @param signal Target signal
+     * @return this pipeline
+     */
+    public Pipeline<T> into(final String name, final Signal<T, ?, ?> signal) {
+        Objects.requireNonNull(signal, "Target signal is required");
+        return connect(name, signal::dispatchInherited);
+    }
+
+    /**
+     * Disconnect a handler connected by name from all source signals.
+     *
+     * @param name Name the handler was connected with
+     * @return this pipeline
+     */
+    public Pipeline<T> disconnect(final String name) {
+        sources.forEach(source -> source.disconnect(name));
+        return this;
+    }
+
+    private <U> Pipeline<U> transform(final Function<SignalConsumer<U>, SignalConsumer<T>> stage) {
+        val transformed = new ArrayList<Source<U>>(sources.size());
+        sources.forEach(source -> transformed.add(new Source<U>() {
+            @Override
+            public void connect(String name, SignalConsumer<U> handler) {
+                source.connect(name, stage.apply(handler));
+            }
+
+            @Override
+            public void disconnect(String name) {
+                source.disconnect(name);
+            }
+        }));
+        return new Pipeline<>(transformed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<Source<T>> widen(Pipeline<? extends T> pipeline) {
+        //Sources only ever push events of the pipeline type to handlers, so accepting a handler of a supertype is safe
+        return (List<Source<T>>) (List<?>) pipeline.sources;
+    }
+
+    /**
+     * An upstream signal, seen through the operators applied so far
+     */
+    private interface Source<T> {
+        void connect(String name, SignalConsumer<T> handler);
+
+        void disconnect(String name);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.pool;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of preallocated, mutable event holders. Producers {@link #claim()} a holder, fill it and dispatch it.
+ * The holder comes back to the pool once the last reference to it is released. When the pool runs dry, new holders
+ * are allocated; they are kept if there is room in the pool when they are released.
+ */
+public class EventPool<E> {
+    private final BlockingQueue<PooledEvent<E>> available;
+    private final Supplier<E> factory;
+    private final Consumer<E> reset;
+    private final AtomicLong allocated = new AtomicLong();
+
+    /**
+     * @param capacity Number of holders to preallocate and retain
+     * @param factory  Creates the mutable event objects
+     * @param reset    Called on an event before it goes back to the pool
+     */
+    public EventPool(int capacity, final Supplier<E> factory, final Consumer<E> reset) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive");
+        }
+        this.available = new ArrayBlockingQueue<>(capacity);
+        this.factory = Objects.requireNonNull(factory, "Event factory is required");
+        this.reset = Objects.requireNonNull(reset, "Event reset is required");
+        for (int i = 0; i < capacity; i++) {
+            available.offer(newEvent());
+        }
+    }
+
+    /**
+     * Claim a holder. The caller owns one reference to it and has to either dispatch it or release it.
+     *
+     * @return An event holder with a reference count of one
+     */
+    public PooledEvent<E> claim() {
+        PooledEvent<E> event = available.poll();
+        if (null == event) {
+            event = newEvent();
+        }
+        event.claimed();
+        return event;
+    }
+
+    /**
+     * @return Number of holders waiting in the pool
+     */
+    public int available() {
+        return available.size();
+    }
+
+    /**
+     * @return Number of holders created by this pool, including the preallocated ones
+     */
+    public long allocated() {
+        return allocated.get();
+    }
+
+    void recycle(final PooledEvent<E> event) {
+        reset.accept(event.get());
+        available.offer(event);
+    }
+
+    private PooledEvent<E> newEvent() {
+        allocated.incrementAndGet();
+        return new PooledEvent<>(this, factory.get());
+    }
+}
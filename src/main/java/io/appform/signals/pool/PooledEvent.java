@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reference counted holder for an event claimed from an {@link EventPool}. The holder goes back to the pool when
+ * the last reference is released. Do not keep a reference to the holder or the event inside it after releasing.
+ */
+public final class PooledEvent<E> {
+    private final EventPool<E> pool;
+    private final E value;
+    private final AtomicInteger references = new AtomicInteger();
+
+    PooledEvent(final EventPool<E> pool, final E value) {
+        this.pool = pool;
+        this.value = value;
+    }
+
+    /**
+     * @return The mutable event in this holder
+     */
+    public E get() {
+        return value;
+    }
+
+    /**
+     * Add references to this holder, for example one for every handler it is handed over to.
+     *
+     * @param count Number of references to add
+     * @return this holder
+     */
+    public PooledEvent<E> retain(int count) {
+        if (references.getAndAdd(count) <= 0) {
+            references.getAndAdd(-count);
+            throw new IllegalStateException("Event has already been released");
+        }
+        return this;
+    }
+
+    /**
+     * Release one reference. The holder is recycled when no references remain.
+     */
+    public void release() {
+        final int remaining = references.decrementAndGet();
+        if (remaining == 0) {
+            pool.recycle(this);
+        }
+        else if (remaining < 0) {
+            references.incrementAndGet();
+            throw new IllegalStateException("Event has already been released");
+        }
+    }
+
+    /**
+     * @return Number of outstanding references
+     */
+    public int references() {
+        return references.get();
+    }
+
+    void claimed() {
+        references.set(1);
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.reactive;
+
+/**
+ * What a {@link SignalPublisher} does with an event when the buffer of a slow subscriber is full.
+ */
+public enum OverflowStrategy {
+    /**
+     * Drop the incoming event
+     */
+    DROP_NEWEST,
+    /**
+     * Drop the oldest buffered event to make room for the incoming one
+     */
+    DROP_OLDEST,
+    /**
+     * Block the dispatching thread till the subscriber requests more. This pushes back on the producer.
+     */
+    BLOCK,
+    /**
+     * Terminate the subscription with an error
+     */
+    ERROR
+}
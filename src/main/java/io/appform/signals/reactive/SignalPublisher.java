@@ -0,0 +1,280 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.reactive;
+
+import io.appform.signals.Signal;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exposes the events of a consuming {@link Signal} as a Reactive Streams {@link Publisher}. The publisher is a
+ * {@link SignalConsumer} that is connected to the signal, and every subscriber gets its own bounded buffer. Events are
+ * delivered only as subscribers request them, and the {@link OverflowStrategy} decides what happens when a buffer
+ * is full.
+ * Events dispatched before a subscriber subscribes are not replayed to it. Call {@link #complete()} to complete all
+ * subscribers once buffered events have been delivered.
+ */
+@Slf4j
+public class SignalPublisher<T> implements Publisher<T>, SignalConsumer<T> {
+    private final int bufferSize;
+    private final OverflowStrategy overflowStrategy;
+    private final List<BufferedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean completed;
+
+    public SignalPublisher(int bufferSize, final OverflowStrategy overflowStrategy) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.overflowStrategy = Objects.requireNonNull(overflowStrategy, "Overflow strategy is required");
+    }
+
+    /**
+     * Create a publisher and connect it to the signal with the given name.
+     *
+     * @param signal           Signal to publish events from
+     * @param name             Name to connect the publisher with
+     * @param bufferSize       Max events buffered per subscriber
+     * @param overflowStrategy What to do when a subscriber buffer is full
+     * @return The connected publisher
+     */
+    public static <T> SignalPublisher<T> connect(
+            final Signal<T, Void, SignalConsumer<T>> signal,
+            final String name,
+            int bufferSize,
+            final OverflowStrategy overflowStrategy) {
+        val publisher = new SignalPublisher<T>(bufferSize, overflowStrategy);
+        signal.connect(name, publisher);
+        return publisher;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber can't be null");
+        val subscription = new BufferedSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (completed) {
+            subscription.complete(null);
+        }
+    }
+
+    @Override
+    public void consume(T data) {
+        subscriptions.forEach(subscription -> subscription.offer(data));
+    }
+
+    /**
+     * Complete all subscribers once they have received their buffered events. Events consumed after this are
+     * dropped.
+     */
+    public void complete() {
+        completed = true;
+        subscriptions.forEach(subscription -> subscription.complete(null));
+    }
+
+    /**
+     * @return Number of events dropped because subscriber buffers were full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return Number of active subscribers
+     */
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    private final class BufferedSubscription implements Subscription {
+        private final Subscriber<? super T> subscriber;
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private BufferedSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                complete(new IllegalArgumentException("Request must be positive, got " + n));
+                return;
+            }
+            requested.accumulateAndGet(n, (current, added) -> {
+                val total = current + added;
+                return total < 0 ? Long.MAX_VALUE : total;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (queue) {
+                queue.clear();
+                queue.notifyAll();
+            }
+        }
+
+        void offer(T data) {
+            if (done || cancelled) {
+                return;
+            }
+            synchronized (queue) {
+                while (queue.size() >= bufferSize) {
+                    switch (overflowStrategy) {
+                        case DROP_NEWEST:
+                            dropped.incrementAndGet();
+                            return;
+                        case DROP_OLDEST:
+                            queue.poll();
+                            dropped.incrementAndGet();
+                            break;
+                        case ERROR:
+                            dropped.incrementAndGet();
+                            queue.clear();
+                            error = new IllegalStateException("Subscriber buffer overflow");
+                            done = true;
+                            break;
+                        case BLOCK:
+                            awaitSpace();
+                            break;
+                    }
+                    if (done || cancelled) {
+                        break;
+                    }
+                }
+                if (!done && !cancelled) {
+                    queue.add(data);
+                }
+            }
+            drain();
+        }
+
+        void complete(Throwable t) {
+            if (null != t) {
+                synchronized (queue) {
+                    queue.clear();
+                }
+                error = t;
+            }
+            done = true;
+            drain();
+        }
+
+        private void awaitSpace() {
+            try {
+                queue.wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+            }
+        }
+
+        private T poll() {
+            synchronized (queue) {
+                val item = queue.poll();
+                if (null != item) {
+                    queue.notifyAll();
+                }
+                return item;
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (queue) {
+                return queue.isEmpty();
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            while (true) {
+                val r = requested.get();
+                long emitted = 0;
+                while (emitted != r) {
+                    if (cancelled) {
+                        return;
+                    }
+                    val finished = done;
+                    val item = poll();
+                    if (finished && null == item) {
+                        terminate();
+                        return;
+                    }
+                    if (null == item) {
+                        break;
+                    }
+                    try {
+                        subscriber.onNext(item);
+                    }
+                    catch (RuntimeException e) {
+                        log.error("Subscriber threw from onNext, cancelling subscription: ", e);
+                        cancel();
+                        return;
+                    }
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (done && (null != error || isEmpty())) {
+                    terminate();
+                    return;
+                }
+                if (emitted != 0 && r != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    break;
+                }
+            }
+        }
+
+        private void terminate() {
+            cancel();
+            if (null != error) {
+                subscriber.onError(error);
+            }
+            else {
+                subscriber.onComplete();
+            }
+        }
+    }
+}
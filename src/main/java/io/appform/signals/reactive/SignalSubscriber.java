@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.reactive;
+
+import io.appform.signals.Signal;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A Reactive Streams {@link Subscriber} that dispatches every received item to a {@link Signal}. Items requested but
+ * not yet received, together with handler invocations still queued or running on the executor of the signal, are kept
+ * within {@code prefetch}. More items are requested as that work finishes, so for signals that fire handlers
+ * asynchronously, the rate is driven by handler completion rather than by dispatch returning. Signals that run handlers
+ * in the calling thread are done when dispatch returns.
+ * If dispatch fails, for example because the signal was closed, the subscription is cancelled and
+ * {@link #completion()} fails.
+ */
+@Slf4j
+public class SignalSubscriber<T> implements Subscriber<T> {
+    private final Signal<T, ?, ?> signal;
+    private final int prefetch;
+    private final int replenishAt;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final Runnable replenisher = this::replenish;
+    private final Object lock = new Object();
+    private volatile Subscription subscription;
+    //Items requested and not received yet, or received and not dispatched yet. Guarded by lock.
+    private long outstanding;
+
+    public SignalSubscriber(final Signal<T, ?, ?> signal) {
+        this(signal, 1);
+    }
+
+    public SignalSubscriber(final Signal<T, ?, ?> signal, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Prefetch must be positive");
+        }
+        this.signal = Objects.requireNonNull(signal, "Signal is required");
+        this.prefetch = prefetch;
+        this.replenishAt = Math.max(1, prefetch / 2);
+        completion.whenComplete((result, error) -> signal.removeCompletionListener(replenisher));
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription can't be null");
+        if (null != this.subscription) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        signal.addCompletionListener(replenisher);
+        replenish();
+    }
+
+    @Override
+    public void onNext(T item) {
+        Objects.requireNonNull(item, "Item can't be null");
+        if (completion.isDone()) {
+            return;
+        }
+        try {
+            signal.dispatch(item);
+        }
+        catch (RuntimeException e) {
+            log.error("Error dispatching item, cancelling subscription: ", e);
+            subscription.cancel();
+            completion.completeExceptionally(e);
+            return;
+        }
+        //Only now, as until dispatch returns its handler invocations might not be counted by the executor
+        synchronized (lock) {
+            outstanding--;
+        }
+        replenish();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        completion.completeExceptionally(Objects.requireNonNull(throwable, "Error can't be null"));
+    }
+
+    @Override
+    public void onComplete() {
+        completion.complete(null);
+    }
+
+    /**
+     * @return A future that completes when the upstream completes and fails on upstream or dispatch errors
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Request as many items as fit in the prefetch besides pending work, once there is room for a batch
+     */
+    private void replenish() {
+        final long count;
+        synchronized (lock) {
+            if (completion.isDone()) {
+                return;
+            }
+            val stats = signal.executorStats();
+            val room = prefetch - outstanding - stats.getQueued() - stats.getActive();
+            if (room < replenishAt) {
+                return;
+            }
+            outstanding += room;
+            count = room;
+        }
+        //Outside the lock, as the publisher might deliver items from within request
+        subscription.request(count);
+    }
+}
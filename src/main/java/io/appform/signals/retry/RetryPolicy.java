@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.retry;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Policy for retrying failed invocations of a handler. Delay between attempts grows exponentially from the initial
+ * delay till the max delay, with a random jitter applied on top. Only exceptions matching the retryOn predicate are
+ * retried. Use the builder to create a policy.
+ */
+@Getter
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final Predicate<Exception> retryOn;
+
+    private RetryPolicy(
+            int maxAttempts,
+            Duration initialDelay,
+            Duration maxDelay,
+            double multiplier,
+            double jitter,
+            Predicate<Exception> retryOn) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryOn = retryOn;
+    }
+
+    /**
+     * Check if a failed attempt needs to be retried
+     * @param attempt The attempt that failed, starting at 1
+     * @param e Exception thrown by the handler
+     * @return true if the handler should be called again
+     */
+    public boolean shouldRetry(int attempt, Exception e) {
+        return attempt < maxAttempts && retryOn.test(e);
+    }
+
+    /**
+     * Delay before the next attempt
+     * @param attempt The attempt that failed, starting at 1
+     * @return Delay in milliseconds
+     */
+    public long delayMillis(int attempt) {
+        val exponential = initialDelay.toMillis() * Math.pow(multiplier, attempt - 1.0);
+        val capped = Math.min(exponential, maxDelay.toMillis());
+        val spread = capped * jitter;
+        val jittered = capped - spread + ThreadLocalRandom.current().nextDouble() * 2 * spread;
+        return Math.max(0, Math.round(Math.min(jittered, maxDelay.toMillis())));
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(10);
+        private double multiplier = 2.0;
+        private double jitter = 0.2;
+        private Predicate<Exception> retryOn = e -> true;
+
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder initialDelay(final Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        public Builder maxDelay(final Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public Builder multiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        public Builder retryOn(final Predicate<Exception> retryOn) {
+            this.retryOn = retryOn;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            Objects.requireNonNull(initialDelay, "Initial delay is needed for retry policy");
+            Objects.requireNonNull(maxDelay, "Max delay is needed for retry policy");
+            Objects.requireNonNull(retryOn, "Retry predicate is needed for retry policy");
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("Max attempts must be at least 1");
+            }
+            if (multiplier < 1.0) {
+                throw new IllegalArgumentException("Multiplier must be at least 1");
+            }
+            if (jitter < 0.0 || jitter > 1.0) {
+                throw new IllegalArgumentException("Jitter must be between 0 and 1");
+            }
+            return new RetryPolicy(maxAttempts, initialDelay, maxDelay, multiplier, jitter, retryOn);
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.retry;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timer shared by all signals to schedule retries and hedges. The timer thread only hands over the retry to the
+ * executor of the signal, so no thread is held while waiting for the next attempt. The thread is created on first use.
+ */
+@UtilityClass
+public class RetryTimer {
+
+    private static final class Holder {
+        private static final ScheduledThreadPoolExecutor TIMER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "signals-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            //Hedges are mostly cancelled, don't keep them around till they expire
+            TIMER.setRemoveOnCancelPolicy(true);
+        }
+    }
+
+    /**
+     * Run the task after the delay
+     * @param task Task to be run. Should be very light, typically a handover to another executor.
+     * @param delayMillis Delay in milliseconds
+     */
+    public static void schedule(Runnable task, long delayMillis) {
+        Holder.TIMER.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run the task after the delay, unless cancelled before that
+     * @param task Task to be run. Should be very light, typically a handover to another executor.
+     * @param delay Delay
+     * @param unit Unit of the delay
+     * @return Future to cancel the task
+     */
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return Holder.TIMER.schedule(task, delay, unit);
+    }
+}
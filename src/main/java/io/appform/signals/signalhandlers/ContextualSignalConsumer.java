@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signalhandlers;
+
+import io.appform.signals.deadline.DispatchContext;
+
+/**
+ * A {@link SignalConsumer} that gets the {@link DispatchContext} of the dispatch, for example to read the remaining
+ * time before the deadline.
+ */
+@FunctionalInterface
+public interface ContextualSignalConsumer<T> extends SignalConsumer<T> {
+    void consume(T data, DispatchContext context);
+
+    @Override
+    default void consume(T data) {
+        consume(data, DispatchContext.current());
+    }
+
+    /**
+     * Helper to connect lambdas, like {@code signal.connect(ContextualSignalConsumer.of((data, context) -> ...))}
+     */
+    static <T> ContextualSignalConsumer<T> of(final ContextualSignalConsumer<T> consumer) {
+        return consumer;
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signalhandlers;
+
+/**
+ * A handler for {@link io.appform.signals.signals.DoubleSignal} that receives and produces a primitive double without boxing.
+ */
+@FunctionalInterface
+public interface DoubleSignalHandler {
+    double handle(double data);
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signalhandlers;
+
+/**
+ * A {@link IntSignalHandler} that does not respond back with results of processing. Combiners are not called for
+ * consumers.
+ */
+@FunctionalInterface
+public interface IntSignalConsumer extends IntSignalHandler {
+    void consume(int data);
+
+    @Override
+    default int handle(int data) {
+        consume(data);
+        return 0;
+    }
+}
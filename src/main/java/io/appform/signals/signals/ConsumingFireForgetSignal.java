@@ -14,19 +14,22 @@
 
 package io.appform.signals.signals;
 
+import io.appform.signals.HandlerExecutor;
 import io.appform.signals.Signal;
 import io.appform.signals.TaskErrorHandler;
 import io.appform.signals.combiners.ConsumingCombiner;
 import io.appform.signals.combiners.ConsumingNoOpCombiner;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
 import io.appform.signals.executors.FireForgetHandlerExecutor;
+import io.appform.signals.executors.SharedExecutors;
 import io.appform.signals.signalhandlers.SignalConsumer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.Closeable;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
 
@@ -36,15 +39,18 @@ import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
  * All {@link io.appform.signals.ResponseCombiner#assimilateHandlerResult(Object)} invocations will receive null.
  * Any errors are handled by the provided {@link TaskErrorHandler}.
  * Defaults:
- *  - Executor Service - Single thread executor
+ *  - Executor Service - Serial view of the shared default pool, see {@link SharedExecutors}
  *  - Combiner - {@link ConsumingNoOpCombiner}
  *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Close the signal to stop the executor once pending work is done.
  * For normal usage, use the default constructor. Use the builder to customise.
  */
 @Slf4j
-public class ConsumingFireForgetSignal<T> extends Signal<T, Void, SignalConsumer<T>> {
+public class ConsumingFireForgetSignal<T> extends Signal<T, Void, SignalConsumer<T>> implements Closeable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+
     public ConsumingFireForgetSignal() {
-        this(Executors.newSingleThreadExecutor(), new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        this(SharedExecutors.serial(), new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
     }
 
 
@@ -52,7 +58,23 @@ public class ConsumingFireForgetSignal<T> extends Signal<T, Void, SignalConsumer
             ExecutorService executorService,
             final ConsumingCombiner combiner,
             final TaskErrorHandler errorHandlingStrategy) {
-        super(new FireForgetHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+        this(new FireForgetHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+    }
+
+    public ConsumingFireForgetSignal(
+            HandlerExecutor<T, Void, SignalConsumer<T>> handlerExecutor,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy) {
+        super(handlerExecutor, combiner, errorHandlingStrategy);
+    }
+
+    /**
+     * Stop accepting dispatches and wait for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for pending handler
+     * invocations to finish. Use {@link #drain(Duration)} to control the deadline and get details of dropped work.
+     */
+    @Override
+    public void close() {
+        drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -63,6 +85,16 @@ public class ConsumingFireForgetSignal<T> extends Signal<T, Void, SignalConsumer
             return this;
         }
 
+        /**
+         * Use a custom {@link HandlerExecutor}, like {@link io.appform.signals.executors.MailboxHandlerExecutor},
+         * instead of a {@link FireForgetHandlerExecutor}. The executor service set on the builder is ignored if this
+         * is set.
+         */
+        public Builder<T> handlerExecutor(final HandlerExecutor<T, Void, SignalConsumer<T>> handlerExecutor) {
+            this.handlerExecutor = handlerExecutor;
+            return this;
+        }
+
         public Builder<T> combiner(final ConsumingCombiner combiner) {
             this.combiner = combiner;
             return this;
@@ -76,7 +108,9 @@ public class ConsumingFireForgetSignal<T> extends Signal<T, Void, SignalConsumer
         @Override
         public ConsumingFireForgetSignal<T> build() {
             return new ConsumingFireForgetSignal<>(
-                    requireNonNullElse(executorService, Executors.newCachedThreadPool()),
+                    null != handlerExecutor
+                    ? handlerExecutor
+                    : new FireForgetHandlerExecutor<>(requireNonNullElse(executorService, SharedExecutors.parallel())),
                     requireNonNullElse(combiner, new ConsumingNoOpCombiner()),
                     requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
         }
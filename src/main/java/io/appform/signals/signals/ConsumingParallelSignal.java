@@ -14,18 +14,21 @@
 
 package io.appform.signals.signals;
 
+import io.appform.signals.HandlerExecutor;
 import io.appform.signals.Signal;
 import io.appform.signals.TaskErrorHandler;
 import io.appform.signals.combiners.ConsumingCombiner;
 import io.appform.signals.combiners.ConsumingNoOpCombiner;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
 import io.appform.signals.executors.ParallelHandlerExecutor;
+import io.appform.signals.executors.SharedExecutors;
 import io.appform.signals.signalhandlers.SignalConsumer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.io.Closeable;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
 
@@ -35,21 +38,40 @@ import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
  * All {@link io.appform.signals.ResponseCombiner#assimilateHandlerResult(Object)} invocations will receive null.
  * Any errors are handled by the provided {@link TaskErrorHandler}.
  * Defaults:
- *  - Executor Service - Cached thread-pool
+ *  - Executor Service - View of the shared default pool, see {@link SharedExecutors}
  *  - Combiner - {@link ConsumingNoOpCombiner}
  *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Close the signal to stop the executor once pending work is done.
  * For normal usage, use the default constructor. Use the builder to customise.
  */
-public class ConsumingParallelSignal<T> extends Signal<T, Void, SignalConsumer<T>> {
+public class ConsumingParallelSignal<T> extends Signal<T, Void, SignalConsumer<T>> implements Closeable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+
     public ConsumingParallelSignal() {
-        this(Executors.newCachedThreadPool(), new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        this(SharedExecutors.parallel(), new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
     }
 
     public ConsumingParallelSignal(
             ExecutorService executorService,
             final ConsumingCombiner combiner,
             final TaskErrorHandler errorHandlingStrategy) {
-        super(new ParallelHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+        this(new ParallelHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+    }
+
+    public ConsumingParallelSignal(
+            HandlerExecutor<T, Void, SignalConsumer<T>> handlerExecutor,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy) {
+        super(handlerExecutor, combiner, errorHandlingStrategy);
+    }
+
+    /**
+     * Stop accepting dispatches and wait for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for pending handler
+     * invocations to finish. Use {@link #drain(Duration)} to control the deadline and get details of dropped work.
+     */
+    @Override
+    public void close() {
+        drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -60,6 +82,16 @@ public class ConsumingParallelSignal<T> extends Signal<T, Void, SignalConsumer<T
             return this;
         }
 
+        /**
+         * Use a custom {@link HandlerExecutor}, like {@link io.appform.signals.executors.AdaptiveHandlerExecutor},
+         * instead of a {@link ParallelHandlerExecutor}. The executor service set on the builder is ignored if this
+         * is set.
+         */
+        public Builder<T> handlerExecutor(final HandlerExecutor<T, Void, SignalConsumer<T>> handlerExecutor) {
+            this.handlerExecutor = handlerExecutor;
+            return this;
+        }
+
         public Builder<T> combiner(final ConsumingCombiner combiner) {
             this.combiner = combiner;
             return this;
@@ -73,7 +105,9 @@ public class ConsumingParallelSignal<T> extends Signal<T, Void, SignalConsumer<T
         @Override
         public ConsumingParallelSignal<T> build() {
             return new ConsumingParallelSignal<>(
-                    requireNonNullElse(executorService, Executors.newCachedThreadPool()),
+                    null != handlerExecutor
+                    ? handlerExecutor
+                    : new ParallelHandlerExecutor<>(requireNonNullElse(executorService, SharedExecutors.parallel())),
                     requireNonNullElse(combiner, new ConsumingNoOpCombiner()),
                     requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
         }
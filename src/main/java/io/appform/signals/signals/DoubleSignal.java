@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.DoubleCombiners;
+import io.appform.signals.combiners.DoubleResponseCombiner;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.signalhandlers.DoubleSignalConsumer;
+import io.appform.signals.signalhandlers.DoubleSignalHandler;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Generating signal specialised for primitive double values. Handlers are fired in the calling thread and neither
+ * the event nor handler results are boxed, so the dispatch path does not allocate.
+ * Handlers are registered in groups the same way as for {@link io.appform.signals.Signal}. Results from
+ * {@link DoubleSignalHandler}s are combined by the {@link DoubleResponseCombiner} into the result of the dispatch.
+ * {@link DoubleSignalConsumer}s, connected with {@code connectConsumer}, do not send results to the combiner.
+ * Handlers do not go through a {@link io.appform.signals.HandlerExecutor}, so retry policies, pausing, handler counters
+ * and handler flight recorder events are not supported.
+ * Any errors are handled by the provided {@link TaskErrorHandler}. The event is boxed only when reporting a failure.
+ * Defaults:
+ *  - Combiner - {@link DoubleCombiners#last()}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ */
+public class DoubleSignal extends PrimitiveSignal<DoubleSignalHandler, DoubleSignalConsumer, DoubleSignal> {
+    private final DoubleResponseCombiner combiner;
+
+    public DoubleSignal() {
+        this(DoubleCombiners.last(), new LoggingTaskErrorHandler());
+    }
+
+    public DoubleSignal(DoubleResponseCombiner combiner, TaskErrorHandler errorHandlingStrategy) {
+        super(errorHandlingStrategy);
+        this.combiner = combiner;
+    }
+
+    /**
+     * Dispatch the value to all connected handlers.
+     *
+     * @param data Value to be sent to handlers
+     * @return Results of the handlers called for this dispatch, combined by the combiner
+     */
+    public double dispatch(final double data) {
+        val snapshot = groups();
+        double result = combiner.initial();
+        for (int i = 0; i < snapshot.size(); i++) {
+            val group = snapshot.get(i);
+            for (int j = 0; j < group.size(); j++) {
+                val handler = group.get(j);
+                try {
+                    val handled = handler.handler.handle(data);
+                    if (!handler.consuming) {
+                        result = combiner.combine(result, handled);
+                    }
+                }
+                catch (Exception e) {
+                    failed(handler.name, data, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean isConsumer(final DoubleSignalHandler handler) {
+        return handler instanceof DoubleSignalConsumer;
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private DoubleResponseCombiner combiner;
+        private TaskErrorHandler errorHandler;
+
+        public Builder combiner(final DoubleResponseCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public DoubleSignal build() {
+            return new DoubleSignal(
+                    requireNonNullElse(combiner, DoubleCombiners.last()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.DiscardAware;
+import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.ConsumingCombiner;
+import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.executors.FireForgetHandlerExecutor;
+import io.appform.signals.executors.SharedExecutors;
+import io.appform.signals.journal.EventSerializer;
+import io.appform.signals.journal.HandlerOffsets;
+import io.appform.signals.journal.JournalConfig;
+import io.appform.signals.journal.MappedJournal;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Consuming {@link Signal} that fires handlers asynchronously like {@link ConsumingFireForgetSignal}, but writes
+ * every event to a {@link MappedJournal} before handing it over to the handlers. Consumption is tracked per named
+ * handler and events that were not consumed before a restart are re-delivered when {@link #recover()} is called.
+ * Delivery is at-least-once, handlers should be idempotent. Only handlers connected with a name can be recovered
+ * across restarts. Handler groups are handed over in order of group id.
+ * Appends only touch mapped memory. Data is forced to disk in batches as configured in {@link JournalConfig}.
+ * In order to flush everything and stop the threads, close this signal by calling {@link #close()}. Events that could
+ * not be consumed before the drain deadline are re-delivered on the next {@link #recover()}. Events discarded for other
+ * reasons, like an expired deadline or a rejection by the executor, are acknowledged so that the journal can be cleaned
+ * up. This includes handler groups skipped because the deadline expired. Offsets of handlers are forgotten when they
+ * are disconnected. While no handler offsets are being tracked, the journal is cleaned up to its end on every
+ * checkpoint, as there is nothing to re-deliver.
+ * Defaults:
+ *  - Executor Service - Serial view of the shared default pool, see {@link SharedExecutors}
+ *  - Combiner - {@link ConsumingNoOpCombiner}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Use the builder to create this signal.
+ */
+@Slf4j
+public class DurableFireForgetSignal<T> extends Signal<T, Void, SignalConsumer<T>> implements Closeable {
+    private static final String OFFSETS_FILE = "offsets.properties";
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+
+    private final FireForgetHandlerExecutor<T, Void, SignalConsumer<T>> executor;
+    private final ConsumingCombiner combiner;
+    private final TaskErrorHandler errorHandlingStrategy;
+    private final EventSerializer<T> serializer;
+    private final MappedJournal journal;
+    private final HandlerOffsets offsets;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+        val thread = new Thread(task, "signal-journal-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Map<Integer, List<NamedHandler<SignalConsumer<T>>>> dispatchGroups = Collections.emptyMap();
+    private volatile Set<String> connectedNames = Collections.emptySet();
+
+    public DurableFireForgetSignal(
+            ExecutorService executorService,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy,
+            final EventSerializer<T> serializer,
+            final JournalConfig journalConfig) {
+        this(new FireForgetHandlerExecutor<>(executorService),
+             combiner,
+             errorHandlingStrategy,
+             serializer,
+             journalConfig);
+    }
+
+    private DurableFireForgetSignal(
+            FireForgetHandlerExecutor<T, Void, SignalConsumer<T>> executor,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy,
+            final EventSerializer<T> serializer,
+            final JournalConfig journalConfig) {
+        super(executor, combiner, errorHandlingStrategy);
+        Objects.requireNonNull(serializer, "Serializer is needed for building durable signal");
+        Objects.requireNonNull(journalConfig, "Journal config is needed for building durable signal");
+        this.executor = executor;
+        this.combiner = combiner;
+        this.errorHandlingStrategy = errorHandlingStrategy;
+        this.serializer = serializer;
+        this.journal = new MappedJournal(journalConfig.getDirectory(),
+                                         journalConfig.getSegmentSize(),
+                                         journalConfig.getFsyncBatchSize());
+        this.offsets = new HandlerOffsets(journalConfig.getDirectory().resolve(OFFSETS_FILE));
+        val interval = journalConfig.getFsyncInterval().toMillis();
+        this.flusher.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-deliver all journaled events that were not consumed by the currently connected handlers before the last
+     * shutdown. Connect all named handlers before calling this. Offsets stored for handlers that are not connected
+     * at this point are discarded. Events rejected by the executor are left unacknowledged and are re-delivered the
+     * next time this is called.
+     *
+     * @return Number of events handed over to handlers for re-delivery
+     */
+    public long recover() {
+        val connected = connectedHandlers()
+                .stream()
+                .collect(Collectors.toMap(NamedHandler::getName, Function.identity(), (lhs, rhs) -> lhs));
+        val replayed = new AtomicLong();
+        synchronized (journal) {
+            val unknown = offsets.handlerNames()
+                    .stream()
+                    .filter(name -> !connected.containsKey(name))
+                    .collect(Collectors.toList());
+            if (!unknown.isEmpty()) {
+                log.warn("Discarding journal offsets for handlers that are not connected: {}", unknown);
+                offsets.forget(unknown);
+            }
+            val end = journal.endOffset();
+            connected.forEach((name, handler) -> {
+                val from = offsets.committed(name);
+                if (from < 0 || from >= end) {
+                    return;
+                }
+                journal.read(from, end, (offset, next, payload) -> {
+                    offsets.track(name, offset, next);
+                    try {
+                        executor.execute(Collections.singletonList(new NamedHandler<SignalConsumer<T>>(
+                                                 name, new Acknowledging(handler, offset, false),
+                                                 handler.getRetryPolicy())),
+                                         serializer.deserialize(payload),
+                                         combiner,
+                                         errorHandlingStrategy);
+                        replayed.incrementAndGet();
+                    }
+                    catch (RejectedExecutionException e) {
+                        log.warn("Executor rejected re-delivery of event at offset {} to handler {}", offset, name);
+                    }
+                    return true;
+                });
+            });
+        }
+        log.info("Replayed {} events from journal", replayed.get());
+        return replayed.get();
+    }
+
+    @Override
+    protected Void dispatchToGroups(final T data) {
+        val payload = serializer.serialize(data);
+        val groups = new ArrayList<Map.Entry<Integer, List<NamedHandler<SignalConsumer<T>>>>>(dispatchGroups.size());
+        dispatchGroups.forEach((id, group) -> groups.add(new AbstractMap.SimpleImmutableEntry<>(
+                id, activeHandlers(group))));
+        final long offset;
+        synchronized (journal) {
+            offset = journal.append(payload);
+            val next = journal.endOffset();
+            val names = connectedNames;
+            groups.forEach(group -> group.getValue().forEach(handler -> {
+                //Skips handlers disconnected since the snapshot was taken, their offsets have been forgotten
+                if (names.contains(handler.getName())) {
+                    offsets.track(handler.getName(), offset, next);
+                }
+            }));
+        }
+        val context = DispatchContext.current();
+        int handedOver = 0;
+        try {
+            for (val group : groups) {
+                if (context.isExpired()) {
+                    log.debug("Deadline expired, skipping remaining handler groups");
+                    break;
+                }
+                val handlers = group.getValue();
+                handedOver++;
+                val event = SignalEvents.beginGroup();
+                try {
+                    executor.execute(acknowledging(handlers, offset), data, combiner, errorHandler());
+                }
+                finally {
+                    SignalEvents.endGroup(event, getClass(), group.getKey(), handlers.size());
+                }
+                combiner.assimilateGroupResult(null);
+            }
+        }
+        finally {
+            //Groups that were never handed over won't get the event, not even on recovery
+            groups.subList(handedOver, groups.size())
+                    .forEach(group -> group.getValue()
+                            .forEach(handler -> offsets.acknowledge(handler.getName(), offset)));
+        }
+        return combiner.result();
+    }
+
+    @Override
+    protected void handlersChanged() {
+        val groups = connectedGroupsById();
+        val names = new HashSet<String>();
+        groups.values().forEach(group -> group.forEach(handler -> names.add(handler.getName())));
+        synchronized (journal) {
+            val removed = new HashSet<>(connectedNames);
+            removed.removeAll(names);
+            if (!removed.isEmpty()) {
+                log.debug("Forgetting journal offsets for disconnected handlers: {}", removed);
+                offsets.forget(removed);
+            }
+            connectedNames = Collections.unmodifiableSet(names);
+            dispatchGroups = Collections.unmodifiableMap(groups);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flusher.shutdown();
+        val result = drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
+        log.debug("Drain status: {}", result);
+        checkpoint();
+        this.journal.close();
+    }
+
+    private List<NamedHandler<SignalConsumer<T>>> acknowledging(
+            final List<NamedHandler<SignalConsumer<T>>> handlers,
+            long offset) {
+        return handlers.stream()
+                .map(handler -> new NamedHandler<SignalConsumer<T>>(
+                        handler.getName(),
+                        new Acknowledging(handler, offset, true),
+                        handler.getRetryPolicy()))
+                .collect(Collectors.toList());
+    }
+
+    private void checkpoint() {
+        try {
+            journal.flush();
+            offsets.store();
+            synchronized (journal) {
+                //Nothing needs to be re-delivered if no handler is tracked
+                val committed = offsets.minCommitted();
+                journal.deleteBefore(committed >= 0 ? committed : journal.endOffset());
+            }
+        }
+        catch (Exception e) {
+            log.error("Error checkpointing journal: ", e);
+        }
+    }
+
+    /**
+     * Acknowledges the offset once no more attempts are going to be made for the event, or when the executor discards
+     * the invocation. Invocations dropped while draining are left pending so that they are re-delivered on recovery,
+     * and so are re-deliveries discarded during recovery.
+     */
+    private final class Acknowledging implements SignalConsumer<T>, DiscardAware<T> {
+        private final NamedHandler<SignalConsumer<T>> handler;
+        private final long offset;
+        private final boolean acknowledgeDiscarded;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private Acknowledging(NamedHandler<SignalConsumer<T>> handler, long offset, boolean acknowledgeDiscarded) {
+            this.handler = handler;
+            this.offset = offset;
+            this.acknowledgeDiscarded = acknowledgeDiscarded;
+        }
+
+        @Override
+        public void consume(T data) {
+            val retryPolicy = handler.getRetryPolicy();
+            val attempt = attempts.incrementAndGet();
+            try {
+                handler.getHandler().consume(data);
+            }
+            catch (RuntimeException e) {
+                if (null == retryPolicy || !retryPolicy.shouldRetry(attempt, e)) {
+                    offsets.acknowledge(handler.getName(), offset);
+                }
+                throw e;
+            }
+            offsets.acknowledge(handler.getName(), offset);
+        }
+
+        @Override
+        public void discarded(T data) {
+            if (isClosed() || !acknowledgeDiscarded) {
+                return;
+            }
+            log.debug("Acknowledging discarded event at offset {} for handler {}", offset, handler.getName());
+            offsets.acknowledge(handler.getName(), offset);
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T> extends BuilderBase<T, Void, SignalConsumer<T>, ConsumingCombiner, DurableFireForgetSignal<T>> {
+        private EventSerializer<T> serializer;
+        private JournalConfig journalConfig;
+
+        public Builder<T> executorService(final ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        public Builder<T> combiner(final ConsumingCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder<T> errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public Builder<T> serializer(final EventSerializer<T> serializer) {
+            this.serializer = serializer;
+            return this;
+        }
+
+        public Builder<T> journalConfig(final JournalConfig journalConfig) {
+            this.journalConfig = journalConfig;
+            return this;
+        }
+
+        @Override
+        public DurableFireForgetSignal<T> build() {
+            return new DurableFireForgetSignal<>(
+                    requireNonNullElse(executorService, SharedExecutors.serial()),
+                    requireNonNullElse(combiner, new ConsumingNoOpCombiner()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()),
+                    serializer,
+                    journalConfig);
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+}
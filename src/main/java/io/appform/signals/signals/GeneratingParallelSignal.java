@@ -14,19 +14,25 @@
 
 package io.appform.signals.signals;
 
+import io.appform.signals.HandlerExecutor;
 import io.appform.signals.ResponseCombiner;
 import io.appform.signals.Signal;
 import io.appform.signals.TaskErrorHandler;
 import io.appform.signals.combiners.LastValueResponseCombiner;
+import io.appform.signals.deadline.DispatchContext;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
 import io.appform.signals.executors.ParallelHandlerExecutor;
 import io.appform.signals.executors.SameThreadHandlerExecutor;
+import io.appform.signals.executors.SharedExecutors;
+import io.appform.signals.memo.SingleFlight;
 import io.appform.signals.signalhandlers.SignalHandler;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.io.Closeable;
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
 
@@ -36,33 +42,111 @@ import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
  * Responses from the handlers are sent to {@link io.appform.signals.ResponseCombiner#assimilateHandlerResult(Object)}.
  * Every {@link io.appform.signals.Signal.HandlerGroup} response is also sent to combiner.
  * Any errors are handled by the provided {@link TaskErrorHandler}.
+ * Optionally, concurrent dispatches with an equal key can be collapsed into one execution whose result or error is
+ * shared by all callers. Set a collapse key on the builder to enable this. Only dispatches without a deadline are
+ * collapsed, so that no caller waits past its own deadline or gets a result cut short by another caller's.
  * Defaults:
- *  - Executor Service - Single thread executor
+ *  - Executor Service - View of the shared default pool, see {@link SharedExecutors}. The default constructor runs
+ *    handlers in the calling thread, so that the result of a dispatch is deterministic.
  *  - Combiner - {@link LastValueResponseCombiner}
  *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Close the signal to stop the executor once pending work is done.
  * For normal usage, use the default constructor. Use the builder to customise.
  */
-public class GeneratingParallelSignal<T, R> extends Signal<T, R, SignalHandler<T, R>> {
+public class GeneratingParallelSignal<T, R> extends Signal<T, R, SignalHandler<T, R>> implements Closeable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+
+    private final Function<? super T, ?> collapseKey;
+    private final SingleFlight<Object, R> singleFlight = new SingleFlight<>();
 
     public GeneratingParallelSignal() {
         super(new SameThreadHandlerExecutor<>(), new LastValueResponseCombiner<>(), new LoggingTaskErrorHandler());
+        this.collapseKey = null;
     }
 
     public GeneratingParallelSignal(
             ExecutorService executorService,
             ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy) {
-        super(new ParallelHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+        this(new ParallelHandlerExecutor<>(executorService), combiner, errorHandlingStrategy);
+    }
+
+    public GeneratingParallelSignal(
+            HandlerExecutor<T, R, SignalHandler<T, R>> handlerExecutor,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy) {
+        this(handlerExecutor, combiner, errorHandlingStrategy, null);
+    }
+
+    public GeneratingParallelSignal(
+            HandlerExecutor<T, R, SignalHandler<T, R>> handlerExecutor,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy,
+            Function<? super T, ?> collapseKey) {
+        super(handlerExecutor, combiner, errorHandlingStrategy);
+        this.collapseKey = collapseKey;
+    }
+
+    /**
+     * @return Number of dispatches that shared the result of an equal dispatch in flight
+     */
+    public long collapsedDispatches() {
+        return singleFlight.collapsed();
+    }
+
+    @Override
+    protected R dispatchToGroups(final T data) {
+        if (null == collapseKey) {
+            return super.dispatchToGroups(data);
+        }
+        if (DispatchContext.current().deadline().isPresent()) {
+            return super.dispatchToGroups(data);
+        }
+        final Object key = collapseKey.apply(data);
+        if (null == key) {
+            return super.dispatchToGroups(data);
+        }
+        return singleFlight.execute(key, () -> super.dispatchToGroups(data));
+    }
+
+    /**
+     * Stop accepting dispatches and wait for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for pending handler
+     * invocations to finish. Use {@link #drain(Duration)} to control the deadline and get details of dropped work.
+     */
+    @Override
+    public void close() {
+        drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class Builder<T, R> extends BuilderBase<T, R, SignalHandler<T, R>, ResponseCombiner<R>, GeneratingParallelSignal<T, R>> {
+        private Function<? super T, ?> collapseKey;
 
         public Builder<T, R> executorService(final ExecutorService executorService) {
             this.executorService = executorService;
             return this;
         }
 
+        /**
+         * Use a custom {@link HandlerExecutor}, like {@link io.appform.signals.executors.AdaptiveHandlerExecutor},
+         * instead of a {@link ParallelHandlerExecutor}. The executor service set on the builder is ignored if this
+         * is set.
+         */
+        public Builder<T, R> handlerExecutor(final HandlerExecutor<T, R, SignalHandler<T, R>> handlerExecutor) {
+            this.handlerExecutor = handlerExecutor;
+            return this;
+        }
+
+        /**
+         * Collapse concurrent dispatches that have an equal key into one execution. Use
+         * {@link Function#identity()} to collapse on the dispatched data itself. Dispatches with a deadline are never
+         * collapsed.
+         */
+        public Builder<T, R> collapseBy(final Function<? super T, ?> collapseKey) {
+            this.collapseKey = collapseKey;
+            return this;
+        }
+
         public Builder<T, R> combiner(final ResponseCombiner<R> combiner) {
             this.combiner = combiner;
             return this;
@@ -76,9 +160,12 @@ public class GeneratingParallelSignal<T, R> extends Signal<T, R, SignalHandler<T
         @Override
         public GeneratingParallelSignal<T, R> build() {
             return new GeneratingParallelSignal<>(
-                    requireNonNullElse(executorService, Executors.newCachedThreadPool()),
+                    null != handlerExecutor
+                    ? handlerExecutor
+                    : new ParallelHandlerExecutor<>(requireNonNullElse(executorService, SharedExecutors.parallel())),
                     requireNonNullElse(combiner, new LastValueResponseCombiner<>()),
-                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()),
+                    collapseKey);
         }
     }
 
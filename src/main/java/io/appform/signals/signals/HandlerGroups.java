@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static io.appform.signals.utils.SignalUtils.isEmpty;
+
+/**
+ * Groups of handlers for the primitive signals. Handlers are kept in immutable snapshots that are replaced on every
+ * connect and disconnect, so that dispatch can walk them by index without locking or allocating.
+ */
+final class HandlerGroups<F> {
+    private static final int DEFAULT_GROUP = 0;
+
+    private final Map<Integer, List<Handler<F>>> groups = new TreeMap<>();
+    private volatile List<List<Handler<F>>> snapshot = Collections.emptyList();
+
+    static final class Handler<F> {
+        final String name;
+        final F handler;
+        final boolean consuming;
+
+        private Handler(String name, F handler, boolean consuming) {
+            this.name = name;
+            this.handler = handler;
+            this.consuming = consuming;
+        }
+    }
+
+    synchronized void connect(int groupId, String handlerName, F handler, boolean consuming) {
+        if (isEmpty(handlerName)) {
+            throw new IllegalArgumentException("Handler can neither be null, nor empty");
+        }
+        groups.computeIfAbsent(groupId, g -> new ArrayList<>()).add(new Handler<>(handlerName, handler, consuming));
+        refresh();
+    }
+
+    void connect(F handler, boolean consuming) {
+        connect(DEFAULT_GROUP, UUID.randomUUID().toString(), handler, consuming);
+    }
+
+    synchronized void disconnect(int groupId, String handlerName) {
+        if (isEmpty(handlerName)) {
+            throw new IllegalArgumentException("Handler can neither be null, nor empty");
+        }
+        val group = groups.get(groupId);
+        if (null != group) {
+            group.removeIf(handler -> handler.name.equals(handlerName));
+            refresh();
+        }
+    }
+
+    /**
+     * @return Immutable handlers grouped in order of group id. Use indexed access to avoid allocating iterators.
+     */
+    List<List<Handler<F>>> snapshot() {
+        return snapshot;
+    }
+
+    static int defaultGroup() {
+        return DEFAULT_GROUP;
+    }
+
+    private void refresh() {
+        val updated = new ArrayList<List<Handler<F>>>(groups.size());
+        groups.values().forEach(group -> updated.add(Collections.unmodifiableList(new ArrayList<>(group))));
+        snapshot = Collections.unmodifiableList(updated);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.IntCombiners;
+import io.appform.signals.combiners.IntResponseCombiner;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.signalhandlers.IntSignalConsumer;
+import io.appform.signals.signalhandlers.IntSignalHandler;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Generating signal specialised for primitive int values. Handlers are fired in the calling thread and neither
+ * the event nor handler results are boxed, so the dispatch path does not allocate.
+ * Handlers are registered in groups the same way as for {@link io.appform.signals.Signal}. Results from
+ * {@link IntSignalHandler}s are combined by the {@link IntResponseCombiner} into the result of the dispatch.
+ * {@link IntSignalConsumer}s, connected with {@code connectConsumer}, do not send results to the combiner.
+ * Handlers do not go through a {@link io.appform.signals.HandlerExecutor}, so retry policies, pausing, handler counters
+ * and handler flight recorder events are not supported.
+ * Any errors are handled by the provided {@link TaskErrorHandler}. The event is boxed only when reporting a failure.
+ * Defaults:
+ *  - Combiner - {@link IntCombiners#last()}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ */
+public class IntSignal extends PrimitiveSignal<IntSignalHandler, IntSignalConsumer, IntSignal> {
+    private final IntResponseCombiner combiner;
+
+    public IntSignal() {
+        this(IntCombiners.last(), new LoggingTaskErrorHandler());
+    }
+
+    public IntSignal(IntResponseCombiner combiner, TaskErrorHandler errorHandlingStrategy) {
+        super(errorHandlingStrategy);
+        this.combiner = combiner;
+    }
+
+    /**
+     * Dispatch the value to all connected handlers.
+     *
+     * @param data Value to be sent to handlers
+     * @return Results of the handlers called for this dispatch, combined by the combiner
+     */
+    public int dispatch(final int data) {
+        val snapshot = groups();
+        int result = combiner.initial();
+        for (int i = 0; i < snapshot.size(); i++) {
+            val group = snapshot.get(i);
+            for (int j = 0; j < group.size(); j++) {
+                val handler = group.get(j);
+                try {
+                    val handled = handler.handler.handle(data);
+                    if (!handler.consuming) {
+                        result = combiner.combine(result, handled);
+                    }
+                }
+                catch (Exception e) {
+                    failed(handler.name, data, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean isConsumer(final IntSignalHandler handler) {
+        return handler instanceof IntSignalConsumer;
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private IntResponseCombiner combiner;
+        private TaskErrorHandler errorHandler;
+
+        public Builder combiner(final IntResponseCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public IntSignal build() {
+            return new IntSignal(
+                    requireNonNullElse(combiner, IntCombiners.last()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
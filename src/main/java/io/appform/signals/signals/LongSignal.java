@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.LongCombiners;
+import io.appform.signals.combiners.LongResponseCombiner;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.signalhandlers.LongSignalConsumer;
+import io.appform.signals.signalhandlers.LongSignalHandler;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Generating signal specialised for primitive long values. Handlers are fired in the calling thread and neither
+ * the event nor handler results are boxed, so the dispatch path does not allocate.
+ * Handlers are registered in groups the same way as for {@link io.appform.signals.Signal}. Results from
+ * {@link LongSignalHandler}s are combined by the {@link LongResponseCombiner} into the result of the dispatch.
+ * {@link LongSignalConsumer}s, connected with {@code connectConsumer}, do not send results to the combiner.
+ * Handlers do not go through a {@link io.appform.signals.HandlerExecutor}, so retry policies, pausing, handler counters
+ * and handler flight recorder events are not supported.
+ * Any errors are handled by the provided {@link TaskErrorHandler}. The event is boxed only when reporting a failure.
+ * Defaults:
+ *  - Combiner - {@link LongCombiners#last()}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ */
+public class LongSignal extends PrimitiveSignal<LongSignalHandler, LongSignalConsumer, LongSignal> {
+    private final LongResponseCombiner combiner;
+
+    public LongSignal() {
+        this(LongCombiners.last(), new LoggingTaskErrorHandler());
+    }
+
+    public LongSignal(LongResponseCombiner combiner, TaskErrorHandler errorHandlingStrategy) {
+        super(errorHandlingStrategy);
+        this.combiner = combiner;
+    }
+
+    /**
+     * Dispatch the value to all connected handlers.
+     *
+     * @param data Value to be sent to handlers
+     * @return Results of the handlers called for this dispatch, combined by the combiner
+     */
+    public long dispatch(final long data) {
+        val snapshot = groups();
+        long result = combiner.initial();
+        for (int i = 0; i < snapshot.size(); i++) {
+            val group = snapshot.get(i);
+            for (int j = 0; j < group.size(); j++) {
+                val handler = group.get(j);
+                try {
+                    val handled = handler.handler.handle(data);
+                    if (!handler.consuming) {
+                        result = combiner.combine(result, handled);
+                    }
+                }
+                catch (Exception e) {
+                    failed(handler.name, data, e);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected boolean isConsumer(final LongSignalHandler handler) {
+        return handler instanceof LongSignalConsumer;
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private LongResponseCombiner combiner;
+        private TaskErrorHandler errorHandler;
+
+        public Builder combiner(final LongResponseCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public LongSignal build() {
+            return new LongSignal(
+                    requireNonNullElse(combiner, LongCombiners.last()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.ResponseCombiner;
+import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.LastValueResponseCombiner;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.executors.SameThreadHandlerExecutor;
+import io.appform.signals.memo.MemoCache;
+import io.appform.signals.memo.MemoConfig;
+import io.appform.signals.memo.MemoStats;
+import io.appform.signals.signalhandlers.SignalHandler;
+import io.appform.signals.utils.SignalUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * Like a {@link GeneratingSyncSignal}, but memoizes the combined result for every dispatched value. Repeat dispatches of
+ * an equal value return the cached result without calling any handler. Use this only when handlers are pure
+ * functions of the dispatched data. Every computation gets a new combiner from the combiner factory, so that results
+ * of different dispatches never mix. Results of dispatches in which a handler failed or the deadline expired are
+ * returned but not cached.
+ * The cache is bounded by weight, entries expire after a TTL and can be refreshed in the background after write, see
+ * {@link MemoConfig}. The whole cache is invalidated when a handler is connected or disconnected.
+ * Dispatching null is never memoized.
+ * Defaults:
+ *  - Combiner - New {@link LastValueResponseCombiner} for every computation
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ *  - Memo Config - Defaults from {@link MemoConfig}
+ * Use the builder to customise.
+ */
+public class MemoizingSyncSignal<T, R> extends Signal<T, R, SignalHandler<T, R>> {
+    private final Supplier<? extends ResponseCombiner<R>> combinerFactory;
+    private final MemoCache<T, R> cache;
+    private volatile List<List<NamedHandler<SignalHandler<T, R>>>> groups = Collections.emptyList();
+
+    public MemoizingSyncSignal() {
+        this(LastValueResponseCombiner::new, new LoggingTaskErrorHandler(), MemoConfig.<T, R>builder().build());
+    }
+
+    public MemoizingSyncSignal(
+            Supplier<? extends ResponseCombiner<R>> combinerFactory,
+            TaskErrorHandler errorHandlingStrategy,
+            MemoConfig<T, R> memoConfig) {
+        super(new SameThreadHandlerExecutor<>(), combinerFactory.get(), errorHandlingStrategy);
+        this.combinerFactory = combinerFactory;
+        this.cache = new MemoCache<>(memoConfig);
+    }
+
+    /**
+     * @return Hit, miss and eviction statistics for the memo cache
+     */
+    public MemoStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Discard all memoized results.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    protected R dispatchToGroups(final T data) {
+        val computation = new Computation();
+        if (null == data) {
+            return computation.apply(null);
+        }
+        return cache.get(data, computation, computation);
+    }
+
+    @Override
+    protected void handlersChanged() {
+        groups = connectedGroups();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Runs the handlers for one dispatch with a combiner of its own, and remembers if the result is incomplete so that
+     * it is not cached. Used on one thread at a time.
+     */
+    private final class Computation implements Function<T, R>, Predicate<R>, TaskErrorHandler {
+        private boolean incomplete;
+
+        @Override
+        public R apply(T data) {
+            final ResponseCombiner<R> combiner = combinerFactory.get();
+            val context = DispatchContext.current();
+            for (val group : groups) {
+                if (context.isExpired()) {
+                    incomplete = true;
+                    break;
+                }
+                activeHandlers(group).forEach(handler -> SignalUtils.execute(handler, data, combiner, this));
+                combiner.assimilateGroupResult(combiner.result());
+            }
+            return combiner.result();
+        }
+
+        @Override
+        public boolean test(R result) {
+            return !incomplete;
+        }
+
+        @Override
+        public void handle(Exception e) {
+            incomplete = true;
+            errorHandler().handle(e);
+        }
+
+        @Override
+        public void handle(HandlerFailure failure) {
+            incomplete = true;
+            errorHandler().handle(failure);
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T, R> extends BuilderBase<T, R, SignalHandler<T, R>, ResponseCombiner<R>, MemoizingSyncSignal<T, R>> {
+        private Supplier<? extends ResponseCombiner<R>> combinerFactory;
+        private MemoConfig<T, R> memoConfig;
+
+        /**
+         * Creates the combiner used for every computation of a result. The combiner must not share state across
+         * instances.
+         */
+        public Builder<T, R> combiner(final Supplier<? extends ResponseCombiner<R>> combinerFactory) {
+            this.combinerFactory = combinerFactory;
+            return this;
+        }
+
+        public Builder<T, R> errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public Builder<T, R> memoConfig(final MemoConfig<T, R> memoConfig) {
+            this.memoConfig = memoConfig;
+            return this;
+        }
+
+        @Override
+        public MemoizingSyncSignal<T, R> build() {
+            return new MemoizingSyncSignal<>(
+                    null != combinerFactory ? combinerFactory : LastValueResponseCombiner::new,
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()),
+                    requireNonNullElse(memoConfig, MemoConfig.<T, R>builder().build()));
+        }
+    }
+
+    public static <T, R> Builder<T, R> builder() {
+        return new Builder<>();
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.DiscardAware;
+import io.appform.signals.HandlerExecutor;
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.ConsumingCombiner;
+import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.executors.FireForgetHandlerExecutor;
+import io.appform.signals.executors.SharedExecutors;
+import io.appform.signals.pool.EventPool;
+import io.appform.signals.pool.PooledEvent;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Consuming {@link Signal} that dispatches reusable event holders from an {@link EventPool} instead of a new
+ * object per event. Producers {@link #claim()} a holder, fill in the event and {@link #dispatch(Object)} it. The
+ * holder carries one reference for the producer and one for every handler, and goes back to the pool once the
+ * producer reference is dropped by dispatch and every handler has finished with it. A handler is done with the holder
+ * once it returns, once its final failure has been passed to the error handler, or once the executor discards the
+ * invocation. No event object is allocated per dispatch, though executors still allocate their own tasks and queue
+ * entries for every handler invocation.
+ * Handlers and error handlers must not keep references to the holder or the event after they return.
+ * Defaults:
+ *  - Executor Service - Serial view of the shared default pool, handlers are fired asynchronously
+ *  - Pool Capacity - 1024
+ *  - Combiner - {@link ConsumingNoOpCombiner}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Use the builder to create this signal.
+ */
+@Slf4j
+public class PooledEventSignal<E> extends Signal<PooledEvent<E>, Void, SignalConsumer<PooledEvent<E>>> implements Closeable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+    private static final int DEFAULT_POOL_CAPACITY = 1024;
+
+    private final HandlerExecutor<PooledEvent<E>, Void, SignalConsumer<PooledEvent<E>>> executor;
+    private final ConsumingCombiner combiner;
+    private final EventPool<E> pool;
+    private final TaskErrorHandler releasingErrorHandler = new ReleasingErrorHandler();
+    private volatile List<Group<E>> groups = Collections.emptyList();
+
+    public PooledEventSignal(
+            HandlerExecutor<PooledEvent<E>, Void, SignalConsumer<PooledEvent<E>>> handlerExecutor,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy,
+            final EventPool<E> pool) {
+        super(handlerExecutor, combiner, errorHandlingStrategy);
+        this.executor = handlerExecutor;
+        this.combiner = combiner;
+        this.pool = Objects.requireNonNull(pool, "Event pool is needed for building pooled signal");
+    }
+
+    /**
+     * Claim an event holder from the pool. The holder must be passed to {@link #dispatch(Object)} or released.
+     *
+     * @return A holder owned by the caller
+     */
+    public PooledEvent<E> claim() {
+        return pool.claim();
+    }
+
+    /**
+     * @return The pool backing this signal
+     */
+    public EventPool<E> pool() {
+        return pool;
+    }
+
+    @Override
+    protected Void dispatchToGroups(final PooledEvent<E> event) {
+        try {
+            val context = DispatchContext.current();
+            for (val group : groups) {
+                if (context.isExpired()) {
+                    log.debug("Deadline expired, skipping remaining handler groups");
+                    break;
+                }
+                val active = activeHandlers(group.handlers);
+                if (active.isEmpty()) {
+                    continue;
+                }
+                //The producer reference keeps the holder alive till all groups have been handed over
+                event.retain(active.size());
+                val groupEvent = SignalEvents.beginGroup();
+                try {
+                    executor.execute(active, event, combiner, releasingErrorHandler);
+                }
+                finally {
+                    SignalEvents.endGroup(groupEvent, getClass(), group.id, active.size());
+                }
+                combiner.assimilateGroupResult(null);
+            }
+            return combiner.result();
+        }
+        finally {
+            event.release();
+        }
+    }
+
+    @Override
+    protected void skipped(final PooledEvent<E> event) {
+        event.release();
+    }
+
+    @Override
+    protected void handlersChanged() {
+        val connected = connectedGroupsById();
+        val wrapped = new ArrayList<Group<E>>(connected.size());
+        connected.forEach((id, group) -> {
+            val handlers = new ArrayList<NamedHandler<SignalConsumer<PooledEvent<E>>>>(group.size());
+            group.forEach(handler -> handlers.add(new NamedHandler<>(
+                    handler.getName(), new Releasing<>(handler.getHandler()), handler.getRetryPolicy())));
+            wrapped.add(new Group<>(id, Collections.unmodifiableList(handlers)));
+        });
+        groups = Collections.unmodifiableList(wrapped);
+    }
+
+    /**
+     * Stop accepting dispatches and wait for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for pending handler
+     * invocations to finish. Holders of invocations that are discarded while draining are returned to the pool.
+     */
+    @Override
+    public void close() {
+        drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
+    }
+
+    private static final class Group<E> {
+        private final int id;
+        private final List<NamedHandler<SignalConsumer<PooledEvent<E>>>> handlers;
+
+        private Group(int id, List<NamedHandler<SignalConsumer<PooledEvent<E>>>> handlers) {
+            this.id = id;
+            this.handlers = handlers;
+        }
+    }
+
+    /**
+     * Releases the handler reference once the handler returns, or when the invocation is discarded. Exceptions are
+     * released by {@link ReleasingErrorHandler} after they have been handled. Errors are not passed to the error
+     * handler, so they are released here.
+     */
+    private static final class Releasing<E> implements SignalConsumer<PooledEvent<E>>, DiscardAware<PooledEvent<E>> {
+        private final SignalConsumer<PooledEvent<E>> handler;
+
+        private Releasing(SignalConsumer<PooledEvent<E>> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void consume(PooledEvent<E> event) {
+            boolean failed = false;
+            try {
+                handler.consume(event);
+            }
+            catch (Exception e) {
+                failed = true;
+                throw e;
+            }
+            finally {
+                if (!failed) {
+                    event.release();
+                }
+            }
+        }
+
+        @Override
+        public void discarded(PooledEvent<E> event) {
+            event.release();
+        }
+    }
+
+    /**
+     * Passes failures on and releases the reference of the failed handler afterwards, so that the error handler still
+     * sees the event that failed
+     */
+    private final class ReleasingErrorHandler implements TaskErrorHandler {
+        @Override
+        public void handle(Exception e) {
+            //Failures of combiners and error handlers, and errors thrown by handlers. The holder has been released by
+            //Releasing or handle(HandlerFailure) by the time an executor reports these.
+            errorHandler().handle(e);
+        }
+
+        @Override
+        public void handle(HandlerFailure failure) {
+            try {
+                errorHandler().handle(failure);
+            }
+            finally {
+                ((PooledEvent<?>) failure.getData()).release();
+            }
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<E> extends BuilderBase<PooledEvent<E>, Void, SignalConsumer<PooledEvent<E>>, ConsumingCombiner, PooledEventSignal<E>> {
+        private int poolCapacity;
+        private Supplier<E> factory;
+        private Consumer<E> reset;
+
+        public Builder<E> executorService(final ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * Use a custom {@link HandlerExecutor}, like {@link io.appform.signals.executors.ParallelHandlerExecutor},
+         * instead of a {@link FireForgetHandlerExecutor}. The executor service set on the builder is ignored if this
+         * is set.
+         */
+        public Builder<E> handlerExecutor(final HandlerExecutor<PooledEvent<E>, Void, SignalConsumer<PooledEvent<E>>> handlerExecutor) {
+            this.handlerExecutor = handlerExecutor;
+            return this;
+        }
+
+        public Builder<E> combiner(final ConsumingCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder<E> errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public Builder<E> poolCapacity(int poolCapacity) {
+            this.poolCapacity = poolCapacity;
+            return this;
+        }
+
+        /**
+         * Creates the mutable events held in the pool. Required.
+         */
+        public Builder<E> eventFactory(final Supplier<E> factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Clears an event before it goes back to the pool. Defaults to doing nothing.
+         */
+        public Builder<E> eventReset(final Consumer<E> reset) {
+            this.reset = reset;
+            return this;
+        }
+
+        @Override
+        public PooledEventSignal<E> build() {
+            Objects.requireNonNull(factory, "Event factory is needed for building pooled signal");
+            return new PooledEventSignal<>(
+                    null != handlerExecutor
+                    ? handlerExecutor
+                    : new FireForgetHandlerExecutor<>(requireNonNullElse(executorService, SharedExecutors.serial())),
+                    requireNonNullElse(combiner, new ConsumingNoOpCombiner()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()),
+                    new EventPool<>(poolCapacity > 0 ? poolCapacity : DEFAULT_POOL_CAPACITY,
+                                    factory,
+                                    requireNonNullElse(reset, event -> {})));
+        }
+    }
+
+    public static <E> Builder<E> builder() {
+        return new Builder<>();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.TaskErrorHandler;
+
+import java.util.List;
+
+/**
+ * Handler management shared by the signals specialised for primitive values. Subclasses implement dispatch for their
+ * value type over {@link #groups()}, so that events and results are never boxed.
+ * Failures are passed to the error handler as the first and only attempt, as handlers are never retried.
+ *
+ * @param <F> Type of handler
+ * @param <C> Type of consumer, a handler that does not produce results for the combiner
+ * @param <S> Type of the signal, returned from connect and disconnect for chaining
+ */
+public abstract class PrimitiveSignal<F, C extends F, S extends PrimitiveSignal<F, C, S>> {
+    private final HandlerGroups<F> groups = new HandlerGroups<>();
+    private final TaskErrorHandler errorHandlingStrategy;
+
+    PrimitiveSignal(TaskErrorHandler errorHandlingStrategy) {
+        this.errorHandlingStrategy = errorHandlingStrategy;
+    }
+
+    /**
+     * Connect a handler to the default group with a generated name.
+     *
+     * @param handler Handler to be connected
+     * @return this signal
+     */
+    public final S connect(final F handler) {
+        groups.connect(handler, isConsumer(handler));
+        return self();
+    }
+
+    /**
+     * Connect a named handler to the default group.
+     *
+     * @param handlerName Name for the handler
+     * @param handler     Handler to be connected
+     * @return this signal
+     */
+    public final S connect(final String handlerName, final F handler) {
+        return connect(HandlerGroups.defaultGroup(), handlerName, handler);
+    }
+
+    /**
+     * Connect a named handler to the provided group.
+     *
+     * @param groupId     Group to which the handler is to be added. Groups are executed in order of id.
+     * @param handlerName Name for the handler
+     * @param handler     Handler to be connected
+     * @return this signal
+     */
+    public final S connect(int groupId, final String handlerName, final F handler) {
+        groups.connect(groupId, handlerName, handler, isConsumer(handler));
+        return self();
+    }
+
+    /**
+     * Connect a consumer to the default group with a generated name. Consumers do not send results to the combiner.
+     *
+     * @param consumer Consumer to be connected
+     * @return this signal
+     */
+    public final S connectConsumer(final C consumer) {
+        groups.connect(consumer, true);
+        return self();
+    }
+
+    /**
+     * Connect a named consumer to the default group. Consumers do not send results to the combiner.
+     *
+     * @param handlerName Name for the consumer
+     * @param consumer    Consumer to be connected
+     * @return this signal
+     */
+    public final S connectConsumer(final String handlerName, final C consumer) {
+        return connectConsumer(HandlerGroups.defaultGroup(), handlerName, consumer);
+    }
+
+    /**
+     * Connect a named consumer to the provided group. Consumers do not send results to the combiner.
+     *
+     * @param groupId     Group to which the consumer is to be added. Groups are executed in order of id.
+     * @param handlerName Name for the consumer
+     * @param consumer    Consumer to be connected
+     * @return this signal
+     */
+    public final S connectConsumer(int groupId, final String handlerName, final C consumer) {
+        groups.connect(groupId, handlerName, consumer, true);
+        return self();
+    }
+
+    /**
+     * Disconnect a named handler from the default group.
+     *
+     * @param handlerName Name of the handler to be disconnected
+     * @return this signal
+     */
+    public final S disconnect(final String handlerName) {
+        return disconnect(HandlerGroups.defaultGroup(), handlerName);
+    }
+
+    /**
+     * Disconnect a named handler from the provided group.
+     *
+     * @param groupId     Group the handler was connected to
+     * @param handlerName Name of the handler to be disconnected
+     * @return this signal
+     */
+    public final S disconnect(int groupId, final String handlerName) {
+        groups.disconnect(groupId, handlerName);
+        return self();
+    }
+
+    /**
+     * Consumers passed to the connect methods as handlers are still treated as consumers.
+     *
+     * @param handler A handler being connected
+     * @return true if the handler does not produce results for the combiner
+     */
+    protected abstract boolean isConsumer(F handler);
+
+    /**
+     * @return Current handlers, grouped in order of group id
+     */
+    final List<List<HandlerGroups.Handler<F>>> groups() {
+        return groups.snapshot();
+    }
+
+    /**
+     * Report a failed handler call to the error handler. The event gets boxed here, and only here.
+     */
+    final void failed(String handlerName, Object data, Exception e) {
+        errorHandlingStrategy.handle(new HandlerFailure(handlerName, data, e, 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private S self() {
+        return (S) this;
+    }
+}
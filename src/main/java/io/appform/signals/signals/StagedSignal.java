@@ -0,0 +1,245 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.ConsumingCombiner;
+import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.executors.StagedHandlerExecutor;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import io.appform.signals.utils.SignalUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Consuming {@link Signal} that runs every handler group as a stage of a pipeline. Every stage has its own queue and
+ * workers, and an event moves to the next stage once all handlers of the current group have run for it. Group order is
+ * kept for every event, while different events occupy different stages at the same time, so throughput is that of the
+ * slowest stage instead of the sum of all of them. Dispatch returns once the event is queued on the first stage, and
+ * blocks if that queue is full.
+ * With one worker per stage, events pass through every stage in dispatch order. Handlers connected after an event has
+ * been dispatched are not called for it. When an event is dropped, because its deadline expired or the signal was
+ * drained, {@link io.appform.signals.DiscardAware} handlers of the stages it did not reach are told about it.
+ * Defaults:
+ *  - Workers per stage - 1
+ *  - Queue capacity per stage - {@value #DEFAULT_QUEUE_CAPACITY}
+ *  - Combiner - {@link ConsumingNoOpCombiner}
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Close the signal to stop the stages once pending work is done.
+ */
+@Slf4j
+public class StagedSignal<T> extends Signal<T, Void, SignalConsumer<T>> implements Closeable {
+    private static final long DRAIN_TIMEOUT_SECONDS = 5;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final StagedHandlerExecutor<T, Void, SignalConsumer<T>> executor;
+    private final ConsumingCombiner combiner;
+    private volatile List<List<NamedHandler<SignalConsumer<T>>>> groups = Collections.emptyList();
+
+    public StagedSignal() {
+        this(1, DEFAULT_QUEUE_CAPACITY, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+    }
+
+    public StagedSignal(
+            int workersPerStage,
+            int queueCapacity,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy) {
+        this(new StagedHandlerExecutor<>(workersPerStage, queueCapacity), combiner, errorHandlingStrategy);
+    }
+
+    private StagedSignal(
+            StagedHandlerExecutor<T, Void, SignalConsumer<T>> executor,
+            final ConsumingCombiner combiner,
+            final TaskErrorHandler errorHandlingStrategy) {
+        super(executor, combiner, errorHandlingStrategy);
+        this.executor = executor;
+        this.combiner = combiner;
+    }
+
+    /**
+     * @return Number of stages started so far
+     */
+    public int stageCount() {
+        return executor.stageCount();
+    }
+
+    /**
+     * Stop accepting dispatches and wait for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for events in the pipeline
+     * to pass through all stages. Use {@link #drain(Duration)} to control the deadline and get details of dropped work.
+     */
+    @Override
+    public void close() {
+        drain(Duration.ofSeconds(DRAIN_TIMEOUT_SECONDS));
+    }
+
+    @Override
+    protected void handlersChanged() {
+        groups = connectedGroups();
+    }
+
+    @Override
+    protected Void dispatchToGroups(final T data) {
+        val current = groups;
+        if (!current.isEmpty()) {
+            executor.begin();
+            try {
+                val task = new StageTask(current, 0, data, DispatchContext.current());
+                executor.submit(0, task, task::dropped);
+            }
+            catch (RuntimeException e) {
+                executor.done();
+                throw e;
+            }
+        }
+        return combiner.result();
+    }
+
+    /**
+     * Runs one group for an event and hands the event over to the next stage
+     */
+    private final class StageTask implements Runnable {
+        private final List<List<NamedHandler<SignalConsumer<T>>>> eventGroups;
+        private final int stage;
+        private final T data;
+        private final DispatchContext context;
+
+        private StageTask(
+                List<List<NamedHandler<SignalConsumer<T>>>> eventGroups,
+                int stage,
+                T data,
+                DispatchContext context) {
+            this.eventGroups = eventGroups;
+            this.stage = stage;
+            this.data = data;
+            this.context = context;
+        }
+
+        @Override
+        public void run() {
+            boolean forwarded = false;
+            try {
+                if (context.isExpired()) {
+                    log.debug("Deadline expired, skipping remaining stages");
+                    discardFrom(stage);
+                    return;
+                }
+                val handlers = activeHandlers(eventGroups.get(stage));
+                val event = SignalEvents.beginGroup();
+                try {
+                    context.run(() -> executor.execute(handlers, data, combiner, errorHandler()));
+                }
+                finally {
+                    SignalEvents.endGroup(event, StagedSignal.this.getClass(), stage, handlers.size());
+                }
+                combiner.assimilateGroupResult(null);
+                forwarded = forward();
+            }
+            finally {
+                if (!forwarded) {
+                    executor.done();
+                }
+            }
+        }
+
+        /**
+         * Called by the executor if the task is dropped while draining
+         */
+        private void dropped() {
+            discardFrom(stage);
+        }
+
+        private boolean forward() {
+            if (stage + 1 >= eventGroups.size()) {
+                return false;
+            }
+            val next = new StageTask(eventGroups, stage + 1, data, context);
+            try {
+                executor.submit(stage + 1, next, next::dropped);
+                return true;
+            }
+            catch (RejectedExecutionException e) {
+                log.warn("Dropping event as stage {} has been shut down", stage + 1);
+                discardFrom(stage + 1);
+                return false;
+            }
+        }
+
+        private void discardFrom(int first) {
+            for (int i = first; i < eventGroups.size(); i++) {
+                val handlers = eventGroups.get(i);
+                for (int j = 0; j < handlers.size(); j++) {
+                    val handler = handlers.get(j);
+                    if (!isPaused(handler.getName())) {
+                        SignalUtils.discarded(handler, data);
+                    }
+                }
+            }
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T> extends BuilderBase<T, Void, SignalConsumer<T>, ConsumingCombiner, StagedSignal<T>> {
+        private int workersPerStage = 1;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        public Builder<T> workersPerStage(int workersPerStage) {
+            this.workersPerStage = workersPerStage;
+            return this;
+        }
+
+        public Builder<T> queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public Builder<T> combiner(final ConsumingCombiner combiner) {
+            this.combiner = combiner;
+            return this;
+        }
+
+        public Builder<T> errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        @Override
+        public StagedSignal<T> build() {
+            return new StagedSignal<>(
+                    workersPerStage,
+                    queueCapacity,
+                    requireNonNullElse(combiner, new ConsumingNoOpCombiner()),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+}
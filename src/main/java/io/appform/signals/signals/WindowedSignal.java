@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.ResponseCombiner;
+import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.executors.SameThreadHandlerExecutor;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import io.appform.signals.windows.StripedPanes;
+import io.appform.signals.windows.Window;
+import io.appform.signals.windows.WindowAggregator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.val;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import static io.appform.signals.utils.SignalUtils.requireNonNullElse;
+
+/**
+ * A Consuming {@link Signal} that aggregates events over tumbling or sliding time windows and dispatches a
+ * {@link Window} with the aggregate to its handlers when a window closes.
+ * Events are added by calling {@link #consume(Object)}. The signal can be connected as a handler to another signal.
+ * Adding an event does not take locks; events go to a per-thread accumulator for the current time slice.
+ * Time slices are as long as the slide of the window (the size for tumbling windows), and an internal
+ * {@link ScheduledSignal} closes them and fires handlers in its thread. Sliding windows combine the accumulators of
+ * the last few slices. Events that race with the closing of their slice are counted in the next window.
+ * In order to stop the timer and emit the last partial window, close this signal by calling {@link #close()}.
+ * Defaults:
+ *  - Slide - Same as size, i.e. tumbling windows
+ *  - Error Handler - {@link LoggingTaskErrorHandler}
+ * Use the builder to create this signal.
+ */
+public class WindowedSignal<T, A, R> extends Signal<Window<R>, Void, SignalConsumer<Window<R>>>
+        implements SignalConsumer<T>, Closeable {
+    private final WindowAggregator<T, A, R> aggregator;
+    private final StripedPanes<T, A> panes;
+    private final long paneMillis;
+    private final int panesPerWindow;
+    private final LongSupplier clock;
+    private final Deque<A> recentPanes = new ArrayDeque<>();
+    private final ScheduledSignal timer;
+    private long nextPane;
+
+    public WindowedSignal(
+            final WindowAggregator<T, A, R> aggregator,
+            final Duration size,
+            final Duration slide,
+            final TaskErrorHandler errorHandlingStrategy) {
+        this(aggregator, size, slide, errorHandlingStrategy, System::currentTimeMillis);
+    }
+
+    WindowedSignal(
+            final WindowAggregator<T, A, R> aggregator,
+            final Duration size,
+            final Duration slide,
+            final TaskErrorHandler errorHandlingStrategy,
+            final LongSupplier clock) {
+        super(new SameThreadHandlerExecutor<>(), new ConsumingNoOpCombiner(), errorHandlingStrategy);
+        Objects.requireNonNull(aggregator, "Aggregator is needed for building windowed signal");
+        Objects.requireNonNull(size, "Window size is needed for building windowed signal");
+        Objects.requireNonNull(slide, "Window slide is needed for building windowed signal");
+        this.paneMillis = slide.toMillis();
+        if (paneMillis <= 0 || size.toMillis() < paneMillis || size.toMillis() % paneMillis != 0) {
+            throw new IllegalArgumentException("Window size must be a positive multiple of the slide");
+        }
+        this.aggregator = aggregator;
+        this.panesPerWindow = (int) (size.toMillis() / paneMillis);
+        this.clock = clock;
+        this.panes = new StripedPanes<>(aggregator, paneMillis);
+        val now = clock.getAsLong();
+        this.nextPane = panes.paneIndex(now);
+        this.timer = new ScheduledSignal(errorHandlingStrategy,
+                                         Duration.ofMillis(paneMillis - now % paneMillis),
+                                         slide);
+        this.timer.connect(date -> closeWindows(clock.getAsLong()));
+    }
+
+    /**
+     * Add an event to the current window.
+     *
+     * @param event Event to be aggregated
+     */
+    @Override
+    public void consume(T event) {
+        panes.add(event, clock.getAsLong());
+    }
+
+    /**
+     * Stop the timer and dispatch the window containing the current, incomplete time slice.
+     */
+    @Override
+    public void close() {
+        timer.close();
+        closeWindows((panes.paneIndex(clock.getAsLong()) + 1) * paneMillis);
+    }
+
+    /**
+     * Dispatch all windows that ended before the given time.
+     *
+     * @param now Current time in millis
+     */
+    synchronized void closeWindows(long now) {
+        val current = panes.paneIndex(now);
+        if (current <= nextPane) {
+            return;
+        }
+        val harvested = panes.harvest(current);
+        //Slices that were already closed when their events came in get counted in the next window
+        A late = null;
+        while (!harvested.isEmpty() && harvested.firstKey() < nextPane) {
+            final A accumulator = harvested.pollFirstEntry().getValue();
+            late = null == late ? accumulator : aggregator.combine(late, accumulator);
+        }
+        for (long index = nextPane; index < current; index++) {
+            A accumulator = requireNonNullElse(harvested.get(index), aggregator.create());
+            if (null != late) {
+                accumulator = aggregator.combine(accumulator, late);
+                late = null;
+            }
+            recentPanes.addLast(accumulator);
+            if (recentPanes.size() > panesPerWindow) {
+                recentPanes.removeFirst();
+            }
+            A window = aggregator.create();
+            for (val pane : recentPanes) {
+                window = aggregator.combine(window, pane);
+            }
+            dispatch(new Window<>(Instant.ofEpochMilli((index + 1 - panesPerWindow) * paneMillis),
+                                  Instant.ofEpochMilli((index + 1) * paneMillis),
+                                  aggregator.result(window)));
+        }
+        nextPane = current;
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder<T, A, R> extends BuilderBase<Window<R>, Void, SignalConsumer<Window<R>>, ResponseCombiner<Void>, WindowedSignal<T, A, R>> {
+        private WindowAggregator<T, A, R> aggregator;
+        private Duration size;
+        private Duration slide;
+
+        public Builder<T, A, R> aggregator(final WindowAggregator<T, A, R> aggregator) {
+            this.aggregator = aggregator;
+            return this;
+        }
+
+        public Builder<T, A, R> size(final Duration size) {
+            this.size = size;
+            return this;
+        }
+
+        /**
+         * Interval at which windows are emitted. Must divide the size. Defaults to the size, for tumbling windows.
+         */
+        public Builder<T, A, R> slide(final Duration slide) {
+            this.slide = slide;
+            return this;
+        }
+
+        public Builder<T, A, R> errorHandler(final TaskErrorHandler errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        @Override
+        public WindowedSignal<T, A, R> build() {
+            return new WindowedSignal<>(
+                    aggregator,
+                    size,
+                    requireNonNullElse(slide, size),
+                    requireNonNullElse(errorHandler, new LoggingTaskErrorHandler()));
+        }
+    }
+
+    public static <T, A, R> Builder<T, A, R> builder() {
+        return new Builder<>();
+    }
+}
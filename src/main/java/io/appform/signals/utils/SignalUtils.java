@@ -14,32 +14,220 @@
 
 package io.appform.signals.utils;
 
+import io.appform.signals.DiscardAware;
+import io.appform.signals.HandlerFailure;
 import io.appform.signals.ResponseCombiner;
 import io.appform.signals.Signal;
 import io.appform.signals.SignalHandlerBase;
 import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.deadline.DispatchContext;
+import io.appform.signals.events.SignalEvents;
+import io.appform.signals.retry.RetryPolicy;
+import io.appform.signals.retry.RetryTimer;
 import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  *
  */
+@Slf4j
 @UtilityClass
 public class SignalUtils {
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+    private static final int DROPPED = 2;
+
+    /**
+     * Execute a handler in the calling thread. If the handler has a {@link RetryPolicy}, failed attempts are retried
+     * in the calling thread after waiting for the backoff delay. Retries that are given up because the deadline
+     * expired are reported to the error handler. Exceptions thrown by the combiner or the error handler are thrown to
+     * the caller, like {@link #executeAsync} completes its future exceptionally for them.
+     */
     public static <T, R, F extends SignalHandlerBase<T, R>> R execute(
             final Signal.NamedHandler<F> handler,
             T data,
             ResponseCombiner<R> combiner,
             TaskErrorHandler errorHandlingStrategy) {
-        try {
-            val response = handler.getHandler().handle(data);
+        val retryPolicy = handler.getRetryPolicy();
+        int attempt = 1;
+        while (true) {
+            val event = SignalEvents.beginHandler();
+            final R response;
+            try {
+                response = handler.getHandler().handle(data);
+            }
+            catch (Exception e) {
+                SignalEvents.endHandler(event, handler.getName(), attempt, true);
+                SignalEvents.handlerError(handler.getName(), attempt, e);
+                if (null == retryPolicy
+                        || !retryPolicy.shouldRetry(attempt, e)
+                        || DispatchContext.current().isExpired()
+                        || !backoff(retryPolicy, attempt)) {
+                    errorHandlingStrategy.handle(new HandlerFailure(handler.getName(), data, e, attempt));
+                    return null;
+                }
+                attempt++;
+                continue;
+            }
+            SignalEvents.endHandler(event, handler.getName(), attempt, false);
+            //Outside the try, as a failure of the combiner is not a failure of the handler and is not retried
             combiner.assimilateHandlerResult(response);
             return response;
         }
-        catch (Exception e) {
-            errorHandlingStrategy.handle(e);
+    }
+
+    /**
+     * Execute a handler on the provided executor. If the handler has a {@link RetryPolicy}, failed attempts are
+     * scheduled on the {@link RetryTimer} and handed back to the executor once the backoff delay expires.
+     * Exceptions thrown by the combiner or the error handler complete the returned future exceptionally, and are not
+     * retried. Attempts that are dropped because the deadline expired, the executor rejected them or the future was
+     * cancelled are reported to the handler if it is {@link DiscardAware}. An invocation is either discarded, or ends
+     * up with the handler succeeding or the failure being passed to the error handler, never both.
+     *
+     * @return A future that completes once the handler succeeds or the failure has been passed to the error handler
+     */
+    public static <T, R, F extends SignalHandlerBase<T, R>> CompletableFuture<R> executeAsync(
+            final Signal.NamedHandler<F> handler,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy,
+            Executor executor) {
+        val result = new CompletableFuture<R>();
+        val state = new AtomicInteger(IDLE);
+        result.whenComplete((response, error) -> {
+            if (error instanceof CancellationException) {
+                drop(handler, data, state);
+            }
+        });
+        submitAttempt(handler, data, combiner, errorHandlingStrategy, executor, DispatchContext.current(), 1,
+                      state, result);
+        return result;
+    }
+
+    private static <T, R, F extends SignalHandlerBase<T, R>> void submitAttempt(
+            final Signal.NamedHandler<F> handler,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy,
+            Executor executor,
+            DispatchContext context,
+            int attempt,
+            AtomicInteger state,
+            CompletableFuture<R> result) {
+        try {
+            executor.execute(() -> context.run(
+                    () -> runAttempt(handler, data, combiner, errorHandlingStrategy, executor, context, attempt,
+                                     state, result)));
+        }
+        catch (RuntimeException e) {
+            if (result.completeExceptionally(e)) {
+                drop(handler, data, state);
+            }
+        }
+    }
+
+    private static <T, R, F extends SignalHandlerBase<T, R>> void runAttempt(
+            final Signal.NamedHandler<F> handler,
+            T data,
+            ResponseCombiner<R> combiner,
+            TaskErrorHandler errorHandlingStrategy,
+            Executor executor,
+            DispatchContext context,
+            int attempt,
+            AtomicInteger state,
+            CompletableFuture<R> result) {
+        if (!state.compareAndSet(IDLE, RUNNING)) {
+            //Already discarded
+            return;
+        }
+        try {
+            if (result.isDone() || context.isExpired()) {
+                //Cancelled while waiting for the retry, or out of time
+                log.debug("Discarding attempt {} of handler {}", attempt, handler.getName());
+                state.set(DROPPED);
+                result.complete(null);
+                discarded(handler, data);
+                return;
+            }
+            R response;
+            val event = SignalEvents.beginHandler();
+            try {
+                response = handler.getHandler().handle(data);
+            }
+            catch (Exception e) {
+                SignalEvents.endHandler(event, handler.getName(), attempt, true);
+                SignalEvents.handlerError(handler.getName(), attempt, e);
+                val retryPolicy = handler.getRetryPolicy();
+                if (null != retryPolicy && retryPolicy.shouldRetry(attempt, e)) {
+                    state.set(IDLE);
+                    if (result.isDone()) {
+                        //Cancelled while running
+                        drop(handler, data, state);
+                        return;
+                    }
+                    RetryTimer.schedule(
+                            () -> submitAttempt(handler, data, combiner, errorHandlingStrategy, executor,
+                                                context, attempt + 1, state, result),
+                            retryPolicy.delayMillis(attempt));
+                    return;
+                }
+                errorHandlingStrategy.handle(new HandlerFailure(handler.getName(), data, e, attempt));
+                result.complete(null);
+                return;
+            }
+            SignalEvents.endHandler(event, handler.getName(), attempt, false);
+            combiner.assimilateHandlerResult(response);
+            result.complete(response);
+        }
+        catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    private static <T, R, F extends SignalHandlerBase<T, R>> void drop(
+            final Signal.NamedHandler<F> handler,
+            T data,
+            AtomicInteger state) {
+        //An attempt that is running finishes the invocation itself
+        if (state.compareAndSet(IDLE, DROPPED)) {
+            discarded(handler, data);
+        }
+    }
+
+    /**
+     * Tell a {@link DiscardAware} handler that an invocation has been dropped without running it to completion
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R, F extends SignalHandlerBase<T, R>> void discarded(
+            final Signal.NamedHandler<F> handler,
+            T data) {
+        val target = handler.getHandler();
+        if (target instanceof DiscardAware) {
+            try {
+                ((DiscardAware<T>) target).discarded(data);
+            }
+            catch (RuntimeException e) {
+                log.error("Error notifying handler {} of discarded invocation: ", handler.getName(), e);
+            }
+        }
+    }
+
+    private static boolean backoff(RetryPolicy retryPolicy, int attempt) {
+        try {
+            Thread.sleep(retryPolicy.delayMillis(attempt));
+            return true;
+        }
+        catch (InterruptedException e) {
+            log.error("Thread has been interrupted while waiting to retry...");
+            Thread.currentThread().interrupt();
+            return false;
         }
-        return null;
     }
 
     public static <T> T requireNonNullElse(T original, T defaultValue) {
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.windows;
+
+import lombok.val;
+
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Accumulates events into fixed size time slices (panes), with one stripe per producer thread. Producers only write
+ * to the accumulator of their own stripe and never wait. The harvesting thread takes a pane away from a stripe and
+ * then waits for the owner to leave an add that might have been in progress.
+ */
+public final class StripedPanes<T, A> {
+    private final WindowAggregator<T, A, ?> aggregator;
+    private final long paneMillis;
+    private final Queue<Stripe<A>> stripes = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Stripe<A>> localStripe;
+
+    public StripedPanes(final WindowAggregator<T, A, ?> aggregator, long paneMillis) {
+        this.aggregator = aggregator;
+        this.paneMillis = paneMillis;
+        this.localStripe = ThreadLocal.withInitial(() -> {
+            val stripe = new Stripe<A>(Thread.currentThread());
+            stripes.add(stripe);
+            return stripe;
+        });
+    }
+
+    /**
+     * Add an event to the pane for the given time.
+     *
+     * @param event Event to be added
+     * @param now   Current time in millis
+     */
+    public void add(final T event, long now) {
+        val stripe = localStripe.get();
+        val index = now / paneMillis;
+        stripe.active = true;
+        try {
+            Pane<A> pane = stripe.pane.get();
+            if (null == pane || pane.index < index) {
+                val fresh = new Pane<>(index, aggregator.create());
+                if (stripe.pane.compareAndSet(pane, fresh)) {
+                    if (null != pane) {
+                        stripe.retired.add(pane);
+                    }
+                }
+                else {
+                    //Harvester took the pane away, only it can change the value and only to null
+                    stripe.pane.set(fresh);
+                }
+                pane = fresh;
+            }
+            aggregator.add(pane.accumulator, event);
+        }
+        finally {
+            stripe.active = false;
+        }
+    }
+
+    /**
+     * Take away all panes before the given pane index and merge them across stripes.
+     *
+     * @param limit Pane index (exclusive) up to which panes are taken
+     * @return Merged accumulators by pane index
+     */
+    public NavigableMap<Long, A> harvest(long limit) {
+        val harvested = new TreeMap<Long, A>();
+        for (val stripe : stripes) {
+            Pane<A> retired = stripe.retired.peek();
+            while (null != retired && retired.index < limit) {
+                harvested.merge(stripe.retired.poll().index, retired.accumulator, aggregator::combine);
+                retired = stripe.retired.peek();
+            }
+            val pane = stripe.pane.get();
+            if (null != pane && pane.index < limit && stripe.pane.compareAndSet(pane, null)) {
+                while (stripe.active) {
+                    Thread.yield();
+                }
+                harvested.merge(pane.index, pane.accumulator, aggregator::combine);
+            }
+            if (!stripe.owner.isAlive() && null == stripe.pane.get() && stripe.retired.isEmpty()) {
+                stripes.remove(stripe);
+            }
+        }
+        return harvested;
+    }
+
+    /**
+     * @param now Time in millis
+     * @return Index of the pane the time falls in
+     */
+    public long paneIndex(long now) {
+        return now / paneMillis;
+    }
+
+    private static final class Stripe<A> {
+        private final Thread owner;
+        private final AtomicReference<Pane<A>> pane = new AtomicReference<>();
+        private final Queue<Pane<A>> retired = new ConcurrentLinkedQueue<>();
+        private volatile boolean active;
+
+        private Stripe(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    private static final class Pane<A> {
+        private final long index;
+        private final A accumulator;
+
+        private Pane(long index, A accumulator) {
+            this.index = index;
+            this.accumulator = accumulator;
+        }
+    }
+}
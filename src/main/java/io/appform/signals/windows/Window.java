@@ -0,0 +1,29 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.windows;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Aggregate of events in a closed window. Start is inclusive and end is exclusive.
+ */
+@Value
+public class Window<R> {
+    Instant start;
+    Instant end;
+    R value;
+}
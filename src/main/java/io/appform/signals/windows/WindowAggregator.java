@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.windows;
+
+/**
+ * Aggregates events into a mutable accumulator for a window. Accumulators are created per thread and per time slice
+ * and are only ever touched by one thread at a time, so implementations do not need to be thread-safe.
+ * See {@link WindowAggregators} for common implementations.
+ *
+ * @param <T> Type of event
+ * @param <A> Type of accumulator
+ * @param <R> Type of window result
+ */
+public interface WindowAggregator<T, A, R> {
+    /**
+     * @return A new, empty accumulator
+     */
+    A create();
+
+    /**
+     * Add an event to the accumulator.
+     *
+     * @param accumulator Accumulator for the current thread and time slice
+     * @param event       Event to be added
+     */
+    void add(A accumulator, T event);
+
+    /**
+     * Merge two accumulators. The left hand side may be modified and returned, the right hand side must not be
+     * modified.
+     *
+     * @param lhs Accumulator to merge into
+     * @param rhs Accumulator to merge from
+     * @return Merged accumulator
+     */
+    A combine(A lhs, A rhs);
+
+    /**
+     * @param accumulator Accumulator holding all events of a window
+     * @return Result to be sent to handlers for the window
+     */
+    R result(A accumulator);
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.windows;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Common {@link WindowAggregator} implementations.
+ */
+@UtilityClass
+public class WindowAggregators {
+
+    /**
+     * @return An aggregator that counts events in the window
+     */
+    public static <T> WindowAggregator<T, long[], Long> count() {
+        return sum(event -> 1L);
+    }
+
+    /**
+     * @param extractor Extracts the value to be summed from an event
+     * @return An aggregator that sums values extracted from events in the window
+     */
+    public static <T> WindowAggregator<T, long[], Long> sum(final ToLongFunction<? super T> extractor) {
+        return new WindowAggregator<T, long[], Long>() {
+            @Override
+            public long[] create() {
+                return new long[1];
+            }
+
+            @Override
+            public void add(long[] accumulator, T event) {
+                accumulator[0] += extractor.applyAsLong(event);
+            }
+
+            @Override
+            public long[] combine(long[] lhs, long[] rhs) {
+                lhs[0] += rhs[0];
+                return lhs;
+            }
+
+            @Override
+            public Long result(long[] accumulator) {
+                return accumulator[0];
+            }
+        };
+    }
+
+    /**
+     * @param keyExtractor Extracts the key, like a user id, from an event
+     * @return An aggregator that counts distinct keys in the window
+     */
+    public static <T, K> WindowAggregator<T, Set<K>, Integer> distinct(final Function<? super T, K> keyExtractor) {
+        return new WindowAggregator<T, Set<K>, Integer>() {
+            @Override
+            public Set<K> create() {
+                return new HashSet<>();
+            }
+
+            @Override
+            public void add(Set<K> accumulator, T event) {
+                accumulator.add(keyExtractor.apply(event));
+            }
+
+            @Override
+            public Set<K> combine(Set<K> lhs, Set<K> rhs) {
+                lhs.addAll(rhs);
+                return lhs;
+            }
+
+            @Override
+            public Integer result(Set<K> accumulator) {
+                return accumulator.size();
+            }
+        };
+    }
+}
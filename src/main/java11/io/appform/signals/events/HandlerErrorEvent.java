@@ -0,0 +1,38 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("io.appform.signals.HandlerError")
+@Label("Handler Error")
+@Category("Signals")
+@Description("Exception thrown by a signal handler")
+class HandlerErrorEvent extends jdk.jfr.Event {
+    @Label("Handler")
+    String handlerName;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Error Type")
+    Class<?> errorType;
+
+    @Label("Message")
+    String message;
+}
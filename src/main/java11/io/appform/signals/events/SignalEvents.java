@@ -0,0 +1,126 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.events;
+
+/**
+ * Records signal activity as Java Flight Recorder events. Every method checks whether its event is enabled before
+ * creating it, so disabled events cost a flag check.
+ */
+public final class SignalEvents {
+    private static final DispatchEvent DISPATCH = new DispatchEvent();
+    private static final GroupEvent GROUP = new GroupEvent();
+    private static final HandlerEvent HANDLER = new HandlerEvent();
+    private static final HandlerErrorEvent HANDLER_ERROR = new HandlerErrorEvent();
+    private static final QueueWaitEvent QUEUE_WAIT = new QueueWaitEvent();
+
+    private SignalEvents() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    public static Object beginDispatch() {
+        if (!DISPATCH.isEnabled()) {
+            return null;
+        }
+        final DispatchEvent event = new DispatchEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endDispatch(Object event, Class<?> signalType, boolean admitted) {
+        if (!(event instanceof DispatchEvent)) {
+            return;
+        }
+        final DispatchEvent dispatch = (DispatchEvent) event;
+        dispatch.end();
+        if (dispatch.shouldCommit()) {
+            dispatch.signalType = signalType;
+            dispatch.admitted = admitted;
+            dispatch.commit();
+        }
+    }
+
+    public static Object beginGroup() {
+        if (!GROUP.isEnabled()) {
+            return null;
+        }
+        final GroupEvent event = new GroupEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endGroup(Object event, Class<?> signalType, int groupId, int handlers) {
+        if (!(event instanceof GroupEvent)) {
+            return;
+        }
+        final GroupEvent group = (GroupEvent) event;
+        group.end();
+        if (group.shouldCommit()) {
+            group.signalType = signalType;
+            group.groupId = groupId;
+            group.handlers = handlers;
+            group.commit();
+        }
+    }
+
+    public static Object beginHandler() {
+        if (!HANDLER.isEnabled()) {
+            return null;
+        }
+        final HandlerEvent event = new HandlerEvent();
+        event.begin();
+        return event;
+    }
+
+    public static void endHandler(Object event, String handlerName, int attempt, boolean failed) {
+        if (!(event instanceof HandlerEvent)) {
+            return;
+        }
+        final HandlerEvent handler = (HandlerEvent) event;
+        handler.end();
+        if (handler.shouldCommit()) {
+            handler.handlerName = handlerName;
+            handler.attempt = attempt;
+            handler.failed = failed;
+            handler.commit();
+        }
+    }
+
+    public static void handlerError(String handlerName, int attempt, Exception error) {
+        if (!HANDLER_ERROR.isEnabled()) {
+            return;
+        }
+        final HandlerErrorEvent event = new HandlerErrorEvent();
+        event.handlerName = handlerName;
+        event.attempt = attempt;
+        event.errorType = error.getClass();
+        event.message = error.getMessage();
+        event.commit();
+    }
+
+    public static void queueWait(long enqueuedAt) {
+        if (!QUEUE_WAIT.isEnabled()) {
+            return;
+        }
+        final QueueWaitEvent event = new QueueWaitEvent();
+        event.waitTime = System.nanoTime() - enqueuedAt;
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.admission;
+
+import io.appform.signals.dedup.Deduplicator;
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class CoDelAdmissionControllerTest {
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void testShedsWhileDelayStaysAboveTarget() throws Exception {
+        val shedCount = new AtomicLong();
+        val controller = CoDelAdmissionController.<Integer>builder()
+                .target(Duration.ofMillis(5))
+                .interval(Duration.ofMillis(20))
+                .priority(i -> i)
+                .protectedPriority(10)
+                .shedListener((data, total) -> shedCount.set(total))
+                .build();
+        controller.recordQueueDelay(50 * MILLI);
+        Thread.sleep(25);
+        controller.recordQueueDelay(30 * MILLI);
+        assertTrue(controller.isOverloaded());
+        assertFalse(controller.admit(1));
+        assertTrue(controller.admit(10)); //Protected
+        assertEquals(1, shedCount.get());
+
+        controller.recordQueueDelay(MILLI);
+        Thread.sleep(25);
+        controller.recordQueueDelay(40 * MILLI);
+        assertFalse(controller.isOverloaded()); //One sample under target in the last interval is enough
+        assertTrue(controller.admit(1));
+    }
+
+    @Test
+    void testRecoversWhenIdle() throws Exception {
+        val controller = CoDelAdmissionController.<Integer>builder()
+                .interval(Duration.ofMillis(10))
+                .build();
+        controller.recordQueueDelay(50 * MILLI);
+        Thread.sleep(15);
+        controller.recordQueueDelay(50 * MILLI);
+        assertFalse(controller.admit(1));
+        Thread.sleep(15);
+        assertTrue(controller.admit(1));
+    }
+
+    @Test
+    void testShedsOnOverloadedSignal() {
+        val handled = new AtomicInteger();
+        val controller = CoDelAdmissionController.<Integer>builder()
+                .target(Duration.ofMillis(2))
+                .interval(Duration.ofMillis(10))
+                .build();
+        try (val s = ConsumingFireForgetSignal.<Integer>builder()
+                .executorService(Executors.newSingleThreadExecutor())
+                .build()) {
+            s.admissionController(controller);
+            s.connect(x -> {
+                handled.incrementAndGet();
+                try {
+                    Thread.sleep(2);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            val end = System.currentTimeMillis() + 500;
+            int dispatched = 0;
+            while (System.currentTimeMillis() < end) {
+                s.dispatch(dispatched++);
+                if (dispatched % 10 == 0) {
+                    Thread.sleep(1);
+                }
+            }
+            assertTrue(controller.shed() > 0);
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(10)));
+            assertEquals(dispatched, handled.get() + controller.shed());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testShedRateGrowsWithOverload() throws Exception {
+        val controller = CoDelAdmissionController.<Integer>builder()
+                .interval(Duration.ofMillis(40))
+                .build();
+        controller.recordQueueDelay(50 * MILLI);
+        Thread.sleep(45);
+        controller.recordQueueDelay(50 * MILLI);
+        assertTrue(controller.isOverloaded());
+        assertFalse(controller.admit(1));
+        //Next one is shed only after an interval
+        assertTrue(controller.admit(1));
+        Thread.sleep(45);
+        controller.recordQueueDelay(50 * MILLI);
+        assertFalse(controller.admit(1));
+        assertTrue(controller.admit(1));
+        //Then after interval / sqrt(2)
+        Thread.sleep(32);
+        controller.recordQueueDelay(50 * MILLI);
+        assertFalse(controller.admit(1));
+        assertEquals(3, controller.shed());
+    }
+
+    @Test
+    void testShedDispatchesAreNotDuplicates() throws Exception {
+        val handled = new CopyOnWriteArrayList<Integer>();
+        val controller = CoDelAdmissionController.<Integer>builder()
+                .interval(Duration.ofMillis(50))
+                .build();
+        val s = ConsumingSyncSignal.<Integer>builder().build();
+        s.connect(handled::add);
+        s.deduplicate(Deduplicator.<Integer>builder().keyExtractor(i -> i).build());
+        s.admissionController(controller);
+        controller.recordQueueDelay(50 * MILLI);
+        Thread.sleep(55);
+        controller.recordQueueDelay(50 * MILLI);
+        s.dispatch(1); //Shed
+        s.dispatch(1); //Admitted as the next shed is an interval away, and not a duplicate
+        s.dispatch(1); //Duplicate
+        assertEquals(1, controller.shed());
+        assertEquals(1, handled.size());
+    }
+}
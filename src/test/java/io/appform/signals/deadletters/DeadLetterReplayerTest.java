@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import io.appform.signals.errorhandlers.DeadLetteringTaskErrorHandler;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ *
+ */
+class DeadLetterReplayerTest {
+
+    @Test
+    void testReplay() {
+        val store = new InMemoryDeadLetterStore<Integer>(100);
+        val s = ConsumingSyncSignal.<Integer>builder()
+                .errorHandler(new DeadLetteringTaskErrorHandler<>("test", store))
+                .build();
+        val down = new AtomicBoolean(true);
+        val sum = new AtomicInteger();
+        s.connect("flaky", i -> {
+            if (down.get()) {
+                throw new IllegalStateException("Dependency is down");
+            }
+            sum.addAndGet(i);
+        });
+        loop(10).forEach(s::dispatch);
+        assertEquals(10, store.size());
+        assertEquals(0, sum.get());
+
+        val replayer = new DeadLetterReplayer<>(store);
+        val failed = replayer.replay(s, "flaky", 3);
+        assertEquals(0, failed.getReplayed());
+        assertEquals(10, failed.getFailed());
+        assertEquals(10, store.size());
+
+        down.set(false);
+        val result = replayer.replay(s, "flaky", 3);
+        assertEquals(10, result.getReplayed());
+        assertEquals(0, result.getFailed());
+        assertEquals(55, sum.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testInterruptedReplayKeepsDeadLetters() {
+        val store = new InMemoryDeadLetterStore<Integer>(100);
+        loop(10).forEach(i -> store.add(new DeadLetter<>("test", "crashing", i, "error", 1, 0)));
+        val handled = new AtomicInteger();
+        assertThrows(OutOfMemoryError.class,
+                     () -> new DeadLetterReplayer<>(store).replay("crashing", i -> {
+                         if (handled.incrementAndGet() == 5) {
+                             throw new OutOfMemoryError("Replay died");
+                         }
+                         return null;
+                     }, 3));
+        assertEquals(10, store.size());
+        val result = new DeadLetterReplayer<>(store).replay("crashing", i -> null, 3);
+        assertEquals(10, result.getReplayed());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testAttemptsAndDetails() {
+        val store = new InMemoryDeadLetterStore<Integer>(100);
+        val s = ConsumingSyncSignal.<Integer>builder()
+                .errorHandler(new DeadLetteringTaskErrorHandler<>("test", store))
+                .build();
+        s.connect("failing", i -> {
+            throw new IllegalStateException("Always fails");
+        });
+        s.dispatch(1);
+        new DeadLetterReplayer<>(store).replay(s, "failing", 10);
+        val deadLetter = store.take("failing", 1).get(0);
+        assertEquals("test", deadLetter.getSignalName());
+        assertEquals(1, deadLetter.getEvent());
+        assertEquals(2, deadLetter.getAttempt());
+        assertEquals("java.lang.IllegalStateException: Always fails", deadLetter.getError());
+    }
+
+    @Test
+    void testUnknownHandler() {
+        val replayer = new DeadLetterReplayer<>(new InMemoryDeadLetterStore<Integer>(1));
+        val s = new ConsumingSyncSignal<Integer>();
+        assertThrows(IllegalArgumentException.class, () -> replayer.replay(s, "missing", 1));
+    }
+}
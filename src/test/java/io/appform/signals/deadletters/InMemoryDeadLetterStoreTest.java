@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ *
+ */
+class InMemoryDeadLetterStoreTest {
+
+    @Test
+    void testTake() {
+        val store = new InMemoryDeadLetterStore<Integer>(100);
+        loop(10).forEach(i -> store.add(new DeadLetter<>("s", i % 2 == 0 ? "even" : "odd", i, "error", 1, 0)));
+        val even = store.take("even", 3);
+        assertEquals(3, even.size());
+        assertEquals(2, even.get(0).getEvent());
+        assertEquals(2, store.take("even", 10).size());
+        assertEquals(0, store.take("even", 10).size());
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    void testBounded() {
+        val store = new InMemoryDeadLetterStore<Integer>(5);
+        loop(10).forEach(i -> store.add(new DeadLetter<>("s", "h", i, "error", 1, 0)));
+        assertEquals(5, store.size());
+        assertEquals(5, store.dropped());
+        assertEquals(6, store.take("h", 1).get(0).getEvent());
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryDeadLetterStore<Integer>(0));
+    }
+}
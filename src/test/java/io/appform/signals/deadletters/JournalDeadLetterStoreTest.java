@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.deadletters;
+
+import io.appform.signals.journal.EventSerializer;
+import io.appform.signals.journal.JournalConfig;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class JournalDeadLetterStoreTest {
+    private static final EventSerializer<String> SERIALIZER = new EventSerializer<String>() {
+        @Override
+        public byte[] serialize(String data) {
+            return data.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] data) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testTakeAcrossRestarts() {
+        try (val store = store()) {
+            loop(10).forEach(i -> store.add(new DeadLetter<>("s", i % 2 == 0 ? "even" : "odd", "e" + i, "error", i, i)));
+            val even = store.take("even", 2);
+            assertEquals(2, even.size());
+            assertEquals("e2", even.get(0).getEvent());
+            assertEquals(2, even.get(0).getAttempt());
+            assertEquals("error", even.get(0).getError());
+        }
+        try (val store = store()) {
+            val even = store.take("even", 10);
+            assertEquals(3, even.size());
+            assertEquals("e6", even.get(0).getEvent());
+            assertEquals(5, store.take("odd", 10).size());
+            assertEquals(0, store.take("odd", 10).size());
+            assertEquals(0, store.take("unknown", 10).size());
+        }
+    }
+
+    @Test
+    void testReadAgainUntilCommitted() {
+        try (val store = store()) {
+            loop(10).forEach(i -> store.add(new DeadLetter<>("s", "h", "e" + i, "error", 1, i)));
+            val first = store.read("h", 0, 4);
+            assertEquals(4, first.getDeadLetters().size());
+            val second = store.read("h", first.getNextPosition(), 4);
+            assertEquals("e5", second.getDeadLetters().get(0).getEvent());
+        }
+        try (val store = store()) {
+            val first = store.read("h", 0, 4);
+            assertEquals("e1", first.getDeadLetters().get(0).getEvent());
+            store.commit("h", first.getNextPosition());
+        }
+        try (val store = store()) {
+            val rest = store.read("h", 0, 10);
+            assertEquals(6, rest.getDeadLetters().size());
+            assertEquals("e5", rest.getDeadLetters().get(0).getEvent());
+        }
+    }
+
+    private JournalDeadLetterStore<String> store() {
+        return new JournalDeadLetterStore<>(JournalConfig.builder()
+                                                    .directory(directory)
+                                                    .segmentSize(256)
+                                                    .build(),
+                                            SERIALIZER);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.deadline;
+
+import io.appform.signals.signalhandlers.ContextualSignalHandler;
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import io.appform.signals.signals.GeneratingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class DispatchContextTest {
+
+    @Test
+    void testRemainingBudgetVisibleToHandlers() {
+        val remaining = new AtomicReference<Duration>();
+        val s = new GeneratingSyncSignal<Integer, Integer>();
+        s.connect(ContextualSignalHandler.of((data, context) -> {
+            remaining.set(context.remaining());
+            return data;
+        }));
+        assertEquals(1, s.dispatch(1, Deadline.after(Duration.ofSeconds(10))));
+        assertTrue(remaining.get().compareTo(Duration.ofSeconds(10)) <= 0);
+        assertTrue(remaining.get().compareTo(Duration.ofSeconds(5)) > 0);
+        s.dispatch(2);
+        assertTrue(remaining.get().toDays() > 365); //No deadline outside
+        assertFalse(DispatchContext.current().deadline().isPresent());
+    }
+
+    @Test
+    void testExpiredGroupsSkipped() {
+        val calls = new AtomicInteger();
+        val s = new GeneratingSyncSignal<Integer, Integer>();
+        s.connect(0, "slow", x -> {
+            calls.incrementAndGet();
+            sleep(100);
+            return 1;
+        });
+        s.connect(1, "skipped", x -> {
+            calls.incrementAndGet();
+            return 2;
+        });
+        assertEquals(1, s.dispatch(0, Deadline.after(Duration.ofMillis(20))));
+        assertEquals(1, calls.get());
+        assertEquals(2, s.dispatch(0));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testExpiredQueuedWorkDiscarded() {
+        val calls = new AtomicInteger();
+        try (val s = ConsumingFireForgetSignal.<Integer>builder()
+                .executorService(Executors.newSingleThreadExecutor())
+                .build()) {
+            s.connect(x -> {
+                calls.incrementAndGet();
+                sleep(100);
+            });
+            loop(5).forEach(i -> s.dispatch(i, Deadline.after(Duration.ofMillis(50))));
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testNestedDeadlineKeepsEarlier() {
+        val seen = new AtomicReference<Duration>();
+        val inner = new GeneratingSyncSignal<Integer, Integer>();
+        inner.connect(x -> {
+            seen.set(DispatchContext.current().remaining());
+            return x;
+        });
+        val outer = new GeneratingSyncSignal<Integer, Integer>();
+        outer.connect(x -> inner.dispatch(x, Deadline.after(Duration.ofMinutes(10))));
+        outer.dispatch(1, Deadline.after(Duration.ofSeconds(1)));
+        assertTrue(seen.get().compareTo(Duration.ofSeconds(1)) <= 0);
+    }
+
+    @Test
+    void testPlainNestedDispatchDoesNotInheritDeadline() {
+        val plain = new AtomicReference<Boolean>();
+        val inherited = new AtomicReference<Duration>();
+        val inner = new GeneratingSyncSignal<Integer, Integer>();
+        inner.connect(x -> {
+            if (x == 0) {
+                plain.set(DispatchContext.current().deadline().isPresent());
+            }
+            else {
+                inherited.set(DispatchContext.current().remaining());
+            }
+            return x;
+        });
+        val outer = new GeneratingSyncSignal<Integer, Integer>();
+        outer.connect(x -> {
+            inner.dispatch(0);
+            val result = inner.dispatchInherited(1);
+            //The deadline is back in place for the rest of the handler
+            assertTrue(DispatchContext.current().deadline().isPresent());
+            return result;
+        });
+        assertEquals(1, outer.dispatch(1, Deadline.after(Duration.ofSeconds(1))));
+        assertFalse(plain.get());
+        assertTrue(inherited.get().compareTo(Duration.ofSeconds(1)) <= 0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.dedup;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class DeduplicatorTest {
+
+    @Test
+    void testDuplicatesWithinTtl() {
+        val clock = new AtomicLong();
+        val dedup = new Deduplicator<String>(Function.identity(), 100, Duration.ofSeconds(10), 4, clock::get);
+        assertTrue(dedup.firstSeen("a"));
+        assertFalse(dedup.firstSeen("a"));
+        assertTrue(dedup.firstSeen("b"));
+        clock.addAndGet(10_000);
+        assertTrue(dedup.firstSeen("a"));
+        assertEquals(1, dedup.duplicates());
+    }
+
+    @Test
+    void testForget() {
+        val dedup = new Deduplicator<String>(Function.identity(), 100, Duration.ofSeconds(10), 4);
+        assertTrue(dedup.firstSeen("a"));
+        dedup.forget("a");
+        assertTrue(dedup.firstSeen("a"));
+        assertFalse(dedup.firstSeen("a"));
+    }
+
+    @Test
+    void testBoundedCapacity() {
+        val dedup = Deduplicator.<Integer>builder()
+                .keyExtractor(i -> i)
+                .capacity(100)
+                .segments(8)
+                .build();
+        loop(10_000).forEach(dedup::firstSeen);
+        assertTrue(dedup.size() <= 100);
+        assertFalse(dedup.firstSeen(9_999)); //Recent keys are retained
+    }
+
+    @Test
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new Deduplicator<String>(Function.identity(), 0, Duration.ofSeconds(1), 1));
+        assertThrows(NullPointerException.class, () -> Deduplicator.<String>builder().build());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.events;
+
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests run against the Java 8 classes, where events are not recorded
+ */
+class SignalEventsTest {
+
+    @Test
+    void testBaseVersionRecordsNothing() {
+        assertFalse(SignalEvents.isSupported());
+        assertNull(SignalEvents.beginDispatch());
+        assertNull(SignalEvents.beginGroup());
+        assertNull(SignalEvents.beginHandler());
+        SignalEvents.endDispatch(null, ConsumingSyncSignal.class, true);
+        SignalEvents.endGroup(null, ConsumingSyncSignal.class, 0, 1);
+        SignalEvents.endHandler(null, "handler", 1, false);
+        SignalEvents.handlerError("handler", 1, new IllegalStateException());
+        SignalEvents.queueWait(System.nanoTime());
+    }
+
+    @Test
+    void testDispatchWithFailingHandler() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val invoked = new AtomicInteger();
+        signal.connect("failing", x -> {
+            throw new IllegalStateException("Failed");
+        });
+        signal.connect("counting", x -> invoked.incrementAndGet());
+        signal.dispatch(1);
+        assertEquals(1, invoked.get());
+    }
+}
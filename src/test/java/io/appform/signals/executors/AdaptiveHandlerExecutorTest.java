@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.Adder;
+import io.appform.signals.Signal;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.signalhandlers.SignalHandler;
+import io.appform.signals.signals.GeneratingParallelSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class AdaptiveHandlerExecutorTest {
+
+    @Test
+    void testAdaptation() {
+        val e = new AdaptiveHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newCachedThreadPool(), Duration.ofMillis(1), Duration.ofMillis(2));
+        val cheapThread = new AtomicReference<Thread>();
+        val cheap = new Signal.NamedHandler<SignalHandler<Integer, Integer>>("cheap", x -> {
+            cheapThread.set(Thread.currentThread());
+            return x;
+        });
+        val expensive = new Signal.NamedHandler<SignalHandler<Integer, Integer>>("expensive", x -> {
+            sleep(5);
+            return x;
+        });
+        val combiner = new Adder();
+        //Enough samples for a slow first call, while classes are loaded, to wear off the average
+        loop(50).forEach(i -> e.execute(Arrays.asList(cheap, expensive), i, combiner, new LoggingTaskErrorHandler()));
+        assertEquals(2550, combiner.result());
+        assertTrue(e.isInline("cheap"));
+        assertFalse(e.isInline("expensive"));
+        assertFalse(e.isInline("unknown"));
+        e.execute(Arrays.asList(cheap, expensive), 1, combiner, new LoggingTaskErrorHandler());
+        assertEquals(Thread.currentThread(), cheapThread.get());
+    }
+
+    @Test
+    void testHysteresis() {
+        val e = new AdaptiveHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newCachedThreadPool(), Duration.ofMillis(1), Duration.ofMillis(20));
+        val slow = new AtomicBoolean(false);
+        val handler = new Signal.NamedHandler<SignalHandler<Integer, Integer>>("handler", x -> {
+            if (slow.get()) {
+                sleep(5);
+            }
+            return x;
+        });
+        val combiner = new Adder();
+        e.execute(Arrays.asList(handler), 1, combiner, new LoggingTaskErrorHandler());
+        assertTrue(e.isInline("handler"));
+        slow.set(true);
+        //Average stays between the two thresholds, so the handler is not moved back to the pool
+        loop(20).forEach(i -> e.execute(Arrays.asList(handler), i, combiner, new LoggingTaskErrorHandler()));
+        assertTrue(e.isInline("handler"));
+    }
+
+    @Test
+    void testCostsOfDisconnectedHandlersRemoved() {
+        val e = new AdaptiveHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newCachedThreadPool(), Duration.ofMillis(1), Duration.ofMillis(2));
+        try (val s = GeneratingParallelSignal.<Integer, Integer>builder()
+                .handlerExecutor(e)
+                .combiner(new Adder())
+                .build()) {
+            loop(100).forEach(i -> s.connect(UUID.randomUUID().toString(), x -> x));
+            s.connect("kept", x -> x);
+            s.dispatch(1);
+            assertEquals(101, e.trackedHandlers());
+            s.handlerNames().values().forEach(group -> group.stream()
+                    .filter(name -> !name.equals("kept"))
+                    .forEach(s::disconnect));
+            assertEquals(1, e.trackedHandlers());
+            loop(50).forEach(s::dispatch);
+            assertTrue(e.isInline("kept"));
+        }
+    }
+
+    @Test
+    void testInvalidThresholds() {
+        val pool = Executors.newSingleThreadExecutor();
+        val inline = Duration.ofMillis(2);
+        val offload = Duration.ofMillis(1);
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveHandlerExecutor<>(pool, inline, offload));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
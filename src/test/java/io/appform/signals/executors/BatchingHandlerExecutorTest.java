@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.executors;
+
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class BatchingHandlerExecutorTest {
+
+    @Test
+    @SneakyThrows
+    void testBatchesFromManyProducers() {
+        val submissions = new AtomicInteger();
+        val pool = new ThreadPoolExecutor(4, 4, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(Runnable command) {
+                submissions.incrementAndGet();
+                super.execute(command);
+            }
+        };
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new BatchingHandlerExecutor<>(pool, 64, Duration.ofMillis(10)))
+                .build();
+        val invocations = new AtomicInteger();
+        s.connect(i -> invocations.incrementAndGet());
+        s.connect(i -> invocations.incrementAndGet());
+        val producers = loop(4)
+                .mapToObj(p -> new Thread(() -> loop(2500).forEach(s::dispatch)))
+                .collect(Collectors.toList());
+        producers.forEach(Thread::start);
+        for (val producer : producers) {
+            producer.join();
+        }
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(10)));
+        assertEquals(20_000, invocations.get());
+        assertTrue(submissions.get() <= 20_000 / 10, "Too many submissions: " + submissions.get());
+        assertEquals(0, s.executorStats().getQueued());
+        s.close();
+    }
+
+    @Test
+    void testFlushAfterLinger() {
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new BatchingHandlerExecutor<>(Executors.newFixedThreadPool(2),
+                                                               64,
+                                                               Duration.ofMillis(1)))
+                .build();
+        val called = new CountDownLatch(1);
+        s.connect(i -> called.countDown());
+        s.dispatch(1);
+        //Not quiescence, that flushes the buffers by itself
+        assertTrue(await(called));
+        s.close();
+    }
+
+    @Test
+    void testSlowBatchSharedWithIdleWorkers() {
+        val pool = Executors.newFixedThreadPool(4);
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new BatchingHandlerExecutor<>(pool,
+                                                               8,
+                                                               Duration.ofSeconds(10),
+                                                               Duration.ofMillis(1)))
+                .build();
+        val threads = ConcurrentHashMap.<String>newKeySet();
+        s.connect(i -> {
+            threads.add(Thread.currentThread().getName());
+            sleep(20);
+        });
+        loop(8).forEach(s::dispatch);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertTrue(threads.size() > 1, "Batch ran on one thread");
+        s.close();
+        pool.shutdown();
+    }
+
+    @Test
+    void testFlushBySizeCancelsLinger() {
+        val s = ConsumingFireForgetSignal.<Long>builder()
+                .handlerExecutor(new BatchingHandlerExecutor<>(Executors.newFixedThreadPool(2),
+                                                               2,
+                                                               Duration.ofMillis(300)))
+                .build();
+        val latency = new AtomicLong();
+        val called = new CountDownLatch(3);
+        s.connect(sentAt -> {
+            latency.set(System.nanoTime() - sentAt);
+            called.countDown();
+        });
+        s.dispatch(System.nanoTime());
+        s.dispatch(System.nanoTime());
+        sleep(150);
+        //Must wait for its own linger time, not be flushed by the timer started for the earlier buffer
+        s.dispatch(System.nanoTime());
+        assertTrue(await(called));
+        assertTrue(latency.get() >= TimeUnit.MILLISECONDS.toNanos(250), "Flushed early: " + latency.get());
+        s.close();
+    }
+
+    @Test
+    void testDrain() {
+        val pool = Executors.newSingleThreadExecutor();
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new BatchingHandlerExecutor<>(pool,
+                                                               1,
+                                                               Duration.ofMillis(1)))
+                .build();
+        val blocker = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+        s.connect(i -> {
+            started.countDown();
+            await(blocker);
+        });
+        loop(5).forEach(s::dispatch);
+        await(started);
+        assertEquals(4, s.executorStats().getQueued());
+        assertEquals(1, s.executorStats().getActive());
+        val result = s.drain(Duration.ofMillis(50));
+        assertFalse(result.isCompleted());
+        assertEquals(4, result.getDropped());
+        assertEquals(1, result.getInterrupted());
+        //Injected pools are left running
+        assertFalse(pool.isShutdown());
+        blocker.countDown();
+        pool.shutdown();
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+
+    @SneakyThrows
+    private static boolean await(CountDownLatch latch) {
+        return latch.await(5, TimeUnit.SECONDS);
+    }
+}
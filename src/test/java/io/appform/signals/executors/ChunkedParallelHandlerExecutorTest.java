@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import io.appform.signals.Adder;
+import io.appform.signals.Signal;
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.signalhandlers.SignalHandler;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class ChunkedParallelHandlerExecutorTest {
+
+    @Test
+    void testLargeGroup() {
+        val e = new ChunkedParallelHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newFixedThreadPool(4), 4, 2);
+        val threads = ConcurrentHashMap.<String>newKeySet();
+        val handlers = loop(500)
+                .mapToObj(i -> new Signal.NamedHandler<SignalHandler<Integer, Integer>>("h" + i, x -> {
+                    threads.add(Thread.currentThread().getName());
+                    return x;
+                }))
+                .collect(Collectors.toList());
+        val combiner = new Adder();
+        e.execute(handlers, 2, combiner, new LoggingTaskErrorHandler());
+        assertEquals(1000, combiner.result());
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+        assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    void testSmallGroup() {
+        val e = new ChunkedParallelHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newCachedThreadPool());
+        val combiner = new Adder();
+        e.execute(Collections.singletonList(new Signal.NamedHandler<>("h", x -> x)),
+                  5, combiner, new LoggingTaskErrorHandler());
+        assertEquals(5, combiner.result());
+        e.execute(Collections.emptyList(), 5, combiner, new LoggingTaskErrorHandler());
+        assertEquals(5, combiner.result());
+    }
+
+    @Test
+    void testErrors() {
+        val e = new ChunkedParallelHandlerExecutor<Integer, Integer, SignalHandler<Integer, Integer>>(
+                Executors.newFixedThreadPool(2), 2, 2);
+        val handled = new AtomicInteger();
+        val escaped = new AtomicInteger();
+        val handlers = loop(100)
+                .mapToObj(i -> new Signal.NamedHandler<SignalHandler<Integer, Integer>>("h" + i, x -> {
+                    if (i % 10 == 0) {
+                        throw new IllegalStateException();
+                    }
+                    return x;
+                }))
+                .collect(Collectors.toList());
+        e.execute(handlers, 1, new Adder(), ex -> {
+            if (ex instanceof ExecutionException) {
+                escaped.incrementAndGet();
+            }
+            else {
+                handled.incrementAndGet();
+                throw new IllegalArgumentException(ex);
+            }
+        });
+        assertEquals(10, handled.get());
+        assertEquals(10, escaped.get());
+    }
+
+    @Test
+    void testInvalid() {
+        val pool = Executors.newSingleThreadExecutor();
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedParallelHandlerExecutor<>(pool, 0, 1));
+    }
+}
@@ -14,21 +14,34 @@
 
 package io.appform.signals.executors;
 
+import io.appform.signals.DiscardAware;
 import io.appform.signals.Signal;
 import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.deadline.DispatchContext;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.retry.RetryPolicy;
 import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.SneakyThrows;
 import lombok.val;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.appform.signals.TestingUtils.loop;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *
@@ -49,4 +62,95 @@ class FireForgetHandlerExecutorTest {
         assertEquals(55, sum.get());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void testRetry() {
+        val e = new FireForgetHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(Executors.newSingleThreadExecutor());
+        val sum = new AtomicInteger();
+        val failed = new AtomicInteger();
+        val policy = RetryPolicy.builder()
+                .maxAttempts(2)
+                .initialDelay(Duration.ofMillis(10))
+                .build();
+        val attempted = new HashSet<Integer>();
+        loop(10)
+                .forEach(i -> e.execute(
+                        Collections.singletonList(new Signal.NamedHandler<SignalConsumer<Integer>>("test", data -> {
+                            //Every event fails on the first attempt
+                            if (attempted.add(data)) {
+                                throw new IllegalStateException();
+                            }
+                            sum.addAndGet(data);
+                        }, policy)),
+                        i,
+                        new ConsumingNoOpCombiner(),
+                        ex -> failed.incrementAndGet()));
+        Awaitility.await()
+                .timeout(3, TimeUnit.SECONDS)
+                .until(() -> sum.get() == 55);
+        assertEquals(55, sum.get());
+        assertEquals(0, failed.get());
+    }
+
+    @Test
+    void testDiscardNotified() {
+        val e = new FireForgetHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(Executors.newSingleThreadExecutor());
+        val blocker = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+        val discarded = new ConcurrentLinkedQueue<Integer>();
+        val handler = new DiscardingConsumer(discarded, data -> {
+            started.countDown();
+            await(blocker);
+        });
+        val handlers = Collections.singletonList(new Signal.NamedHandler<SignalConsumer<Integer>>("test", handler));
+        e.execute(handlers, 1, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        await(started);
+        new DispatchContext(Deadline.after(Duration.ofMillis(1)))
+                .run(() -> e.execute(handlers, 2, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler()));
+        e.execute(handlers, 3, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        Awaitility.await().pollDelay(10, TimeUnit.MILLISECONDS).until(() -> true);
+        blocker.countDown();
+        assertTrue(e.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(Collections.singletonList(2), new ArrayList<>(discarded));
+
+        //Everything still queued when draining is discarded as well
+        val drainBlocker = new CountDownLatch(1);
+        val drainStarted = new CountDownLatch(1);
+        val blocking = Collections.singletonList(new Signal.NamedHandler<SignalConsumer<Integer>>(
+                "test", new DiscardingConsumer(discarded, data -> {
+                    drainStarted.countDown();
+                    await(drainBlocker);
+                })));
+        e.execute(blocking, 4, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        await(drainStarted);
+        e.execute(blocking, 5, new ConsumingNoOpCombiner(), new LoggingTaskErrorHandler());
+        assertEquals(1, e.drain(Duration.ofMillis(20)).getDropped());
+        drainBlocker.countDown();
+        assertEquals(Arrays.asList(2, 5), new ArrayList<>(discarded));
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        latch.await(5, TimeUnit.SECONDS);
+    }
+
+    private static final class DiscardingConsumer implements SignalConsumer<Integer>, DiscardAware<Integer> {
+        private final Queue<Integer> discarded;
+        private final SignalConsumer<Integer> handler;
+
+        private DiscardingConsumer(Queue<Integer> discarded, SignalConsumer<Integer> handler) {
+            this.discarded = discarded;
+            this.handler = handler;
+        }
+
+        @Override
+        public void consume(Integer data) {
+            handler.consume(data);
+        }
+
+        @Override
+        public void discarded(Integer data) {
+            discarded.add(data);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class InFlightCounterTest {
+
+    @Test
+    void testAwait() {
+        val counter = new InFlightCounter();
+        assertTrue(counter.await(Duration.ZERO));
+        counter.increment();
+        counter.increment();
+        assertFalse(counter.await(Duration.ofMillis(10)));
+        CompletableFuture.runAsync(() -> {
+            sleep(20);
+            counter.done();
+            counter.done();
+        });
+        assertTrue(counter.await(Duration.ofSeconds(5)));
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    void testInterrupted() {
+        val counter = new InFlightCounter();
+        counter.increment();
+        Thread.currentThread().interrupt();
+        assertFalse(counter.await(Duration.ofSeconds(5)));
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void testAwaitUntilWakeUp() throws Exception {
+        val counter = new InFlightCounter();
+        val condition = new AtomicBoolean();
+        CompletableFuture.runAsync(() -> {
+            sleep(20);
+            condition.set(true);
+            counter.wakeUp();
+        });
+        assertTrue(counter.awaitUntil(condition::get, TimeUnit.SECONDS.toNanos(5)));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
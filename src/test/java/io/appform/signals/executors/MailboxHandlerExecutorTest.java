@@ -0,0 +1,162 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.executors;
+
+import io.appform.signals.signalhandlers.SignalConsumer;
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class MailboxHandlerExecutorTest {
+
+    @Test
+    void testSingleThreadedFifoPerHandler() {
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new MailboxHandlerExecutor<>(Executors.newFixedThreadPool(8), 4))
+                .build();
+        val overlaps = new AtomicInteger();
+        final List<List<Integer>> seen = new ArrayList<>();
+        loop(4).forEach(h -> {
+            //Plain list and counter, only safe as the handler never runs on two threads at once
+            val events = new ArrayList<Integer>();
+            val running = new AtomicBoolean();
+            seen.add(events);
+            s.connect("handler-" + h, i -> {
+                if (!running.compareAndSet(false, true)) {
+                    overlaps.incrementAndGet();
+                }
+                events.add(i);
+                running.set(false);
+            });
+        });
+        val expected = new ArrayList<Integer>();
+        loop(1000).forEach(i -> {
+            s.dispatch(i);
+            expected.add(i);
+        });
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(10)));
+        assertEquals(0, overlaps.get());
+        seen.forEach(events -> assertEquals(expected, events));
+        s.close();
+    }
+
+    @Test
+    void testHandlersRunInParallel() {
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new MailboxHandlerExecutor<>(Executors.newFixedThreadPool(2)))
+                .build();
+        val firstStarted = new CountDownLatch(1);
+        val secondStarted = new CountDownLatch(1);
+        val parallel = new AtomicBoolean();
+        s.connect("first", i -> {
+            firstStarted.countDown();
+            parallel.set(await(secondStarted));
+        });
+        s.connect("second", i -> {
+            secondStarted.countDown();
+            await(firstStarted);
+        });
+        s.dispatch(1);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(10)));
+        assertTrue(parallel.get());
+        s.close();
+    }
+
+    @Test
+    void testDrain() {
+        val pool = Executors.newFixedThreadPool(2);
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(new MailboxHandlerExecutor<>(pool))
+                .build();
+        val blocker = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+        s.connect("blocking", i -> {
+            started.countDown();
+            await(blocker);
+        });
+        loop(5).forEach(s::dispatch);
+        await(started);
+        assertEquals(4, s.executorStats().getQueued());
+        assertEquals(1, s.executorStats().getActive());
+        val result = s.drain(Duration.ofMillis(50));
+        assertFalse(result.isCompleted());
+        assertEquals(4, result.getDropped());
+        assertEquals(1, result.getInterrupted());
+        //Injected pools are left running
+        assertFalse(pool.isShutdown());
+        blocker.countDown();
+        pool.shutdown();
+    }
+
+    @Test
+    void testMailboxesOfDisconnectedHandlersRemoved() {
+        val pool = Executors.newFixedThreadPool(2);
+        val executor = new MailboxHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(pool);
+        val s = ConsumingFireForgetSignal.<Integer>builder()
+                .handlerExecutor(executor)
+                .build();
+        val started = new CountDownLatch(1);
+        val blocker = new CountDownLatch(1);
+        val called = new AtomicInteger();
+        s.connect("slow", i -> {
+            started.countDown();
+            await(blocker);
+        });
+        s.connect("fast", i -> called.incrementAndGet());
+        s.dispatch(1);
+        assertTrue(await(started));
+        assertEquals(2, executor.mailboxCount());
+
+        //Busy mailboxes go away once they are done
+        s.disconnect("slow");
+        assertEquals(2, executor.mailboxCount());
+        blocker.countDown();
+        //The turn ends a little after the last invocation is done
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> executor.mailboxCount() == 1);
+
+        s.disconnect("fast");
+        assertEquals(0, executor.mailboxCount());
+        s.connect("fast", i -> called.incrementAndGet());
+        s.dispatch(2);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(2, called.get());
+        assertEquals(1, executor.mailboxCount());
+        s.close();
+        pool.shutdown();
+    }
+
+    @SneakyThrows
+    private static boolean await(CountDownLatch latch) {
+        return latch.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -14,20 +14,31 @@
 
 package io.appform.signals.executors;
 
+import io.appform.signals.HandlerFailure;
 import io.appform.signals.Signal;
+import io.appform.signals.TaskErrorHandler;
 import io.appform.signals.combiners.ConsumingNoOpCombiner;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.deadline.DispatchContext;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.retry.RetryPolicy;
 import io.appform.signals.signalhandlers.SignalConsumer;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.appform.signals.TestingUtils.loop;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *
@@ -70,4 +81,131 @@ class ParallelHandlerExecutorTest {
                         }));
         assertEquals(5, errorCount.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRetry() {
+        val pool = Executors.newSingleThreadExecutor();
+        val e = new ParallelHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(pool);
+        val attempts = new AtomicInteger();
+        val failures = new ArrayList<HandlerFailure>();
+        val policy = RetryPolicy.builder()
+                .maxAttempts(3)
+                .initialDelay(Duration.ofMillis(50))
+                .build();
+        val flaky = new Signal.NamedHandler<SignalConsumer<Integer>>("flaky", data -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException();
+            }
+        }, policy);
+        val fast = new AtomicInteger();
+        val other = new Signal.NamedHandler<SignalConsumer<Integer>>("other", data -> {
+            //The single pool thread is free to run other work while flaky waits to be retried
+            fast.incrementAndGet();
+        });
+        val errorHandler = new TaskErrorHandler() {
+            @Override
+            public void handle(Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            @Override
+            public void handle(HandlerFailure failure) {
+                failures.add(failure);
+            }
+        };
+        e.execute(Arrays.asList(flaky, other), 1, new ConsumingNoOpCombiner(), errorHandler);
+        assertEquals(3, attempts.get());
+        assertEquals(1, fast.get());
+        assertTrue(failures.isEmpty());
+
+        attempts.set(-10);
+        e.execute(Collections.singletonList(flaky), 1, new ConsumingNoOpCombiner(), errorHandler);
+        assertEquals(1, failures.size());
+        assertEquals("flaky", failures.get(0).getHandlerName());
+        assertEquals(3, failures.get(0).getAttempt());
+    }
+
+    @Test
+    void testRejectionThrown() {
+        val pool = Executors.newSingleThreadExecutor();
+        pool.shutdown();
+        val e = new ParallelHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(pool);
+        val errors = new AtomicInteger();
+        val handler = new Signal.NamedHandler<SignalConsumer<Integer>>("plain", data -> {});
+        assertThrows(RejectedExecutionException.class,
+                     () -> e.execute(Collections.singletonList(handler), 1, new ConsumingNoOpCombiner(),
+                                     ex -> errors.incrementAndGet()));
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    void testRejectedRetryThrown() {
+        val pool = Executors.newSingleThreadExecutor();
+        pool.shutdown();
+        val e = new ParallelHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(pool);
+        val errors = new AtomicInteger();
+        val handler = new Signal.NamedHandler<SignalConsumer<Integer>>(
+                "retrying", data -> {}, RetryPolicy.builder().maxAttempts(3).build());
+        assertThrows(RejectedExecutionException.class,
+                     () -> e.execute(Collections.singletonList(handler), 1, new ConsumingNoOpCombiner(),
+                                     ex -> errors.incrementAndGet()));
+        assertEquals(0, errors.get());
+    }
+
+    @Test
+    void testExpiredIsNotAFailure() {
+        val e = new ParallelHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(Executors.newSingleThreadExecutor());
+        val errorCount = new AtomicInteger();
+        val ran = new AtomicInteger();
+        val slow = new Signal.NamedHandler<SignalConsumer<Integer>>("slow", data -> {
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        val queued = new Signal.NamedHandler<SignalConsumer<Integer>>("queued", data -> ran.incrementAndGet());
+        new DispatchContext(Deadline.after(Duration.ofMillis(10)))
+                .run(() -> e.execute(Arrays.asList(slow, queued), 1, new ConsumingNoOpCombiner(),
+                                     ex -> errorCount.incrementAndGet()));
+        assertEquals(0, ran.get());
+        assertEquals(0, errorCount.get());
+    }
+
+    @Test
+    void testCombinerFailureIsNotRetried() {
+        val e = new ParallelHandlerExecutor<Integer, Void, SignalConsumer<Integer>>(Executors.newSingleThreadExecutor());
+        val calls = new AtomicInteger();
+        val errors = new ArrayList<Exception>();
+        val policy = RetryPolicy.builder()
+                .maxAttempts(3)
+                .initialDelay(Duration.ofMillis(1))
+                .build();
+        val plain = new Signal.NamedHandler<SignalConsumer<Integer>>("plain", data -> calls.incrementAndGet());
+        val retrying = new Signal.NamedHandler<SignalConsumer<Integer>>("retrying",
+                                                                         data -> calls.incrementAndGet(),
+                                                                         policy);
+        val combiner = new ConsumingNoOpCombiner() {
+            @Override
+            public void assimilateHandlerResult(Void result) {
+                throw new IllegalStateException();
+            }
+        };
+        e.execute(Arrays.asList(plain, retrying), 1, combiner, new TaskErrorHandler() {
+            @Override
+            public void handle(Exception ex) {
+                errors.add(ex);
+            }
+
+            @Override
+            public void handle(HandlerFailure failure) {
+                throw new IllegalStateException("Not a handler failure");
+            }
+        });
+        //Both paths fail the invocation once, without retrying the handler
+        assertEquals(2, calls.get());
+        assertEquals(2, errors.size());
+        errors.forEach(ex -> assertTrue(ex instanceof ExecutionException));
+    }
+}
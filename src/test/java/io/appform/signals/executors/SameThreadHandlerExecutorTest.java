@@ -17,10 +17,12 @@ package io.appform.signals.executors;
 import io.appform.signals.Signal;
 import io.appform.signals.combiners.ConsumingNoOpCombiner;
 import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.retry.RetryPolicy;
 import io.appform.signals.signalhandlers.SignalConsumer;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -45,4 +47,23 @@ class SameThreadHandlerExecutorTest {
         assertEquals(55, sum.get());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testRetry() {
+        val e = new SameThreadHandlerExecutor<Integer, Void, SignalConsumer<Integer>>();
+        val attempts = new AtomicInteger();
+        val errors = new AtomicInteger();
+        val policy = RetryPolicy.builder()
+                .maxAttempts(3)
+                .initialDelay(Duration.ofMillis(1))
+                .build();
+        e.execute(Collections.singletonList(new Signal.NamedHandler<SignalConsumer<Integer>>("test", data -> {
+                      attempts.incrementAndGet();
+                      throw new IllegalStateException();
+                  }, policy)),
+                  1,
+                  new ConsumingNoOpCombiner(),
+                  ex -> errors.incrementAndGet());
+        assertEquals(3, attempts.get());
+        assertEquals(1, errors.get());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.executors;
+
+import io.appform.signals.signals.ConsumingParallelSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class SharedExecutorsTest {
+
+    @Test
+    void testLazyCreation() {
+        val view = SharedExecutors.parallel("lazy-test");
+        assertFalse(SharedExecutors.isCreated("lazy-test"));
+        val counter = new AtomicInteger();
+        view.execute(counter::incrementAndGet);
+        assertTrue(SharedExecutors.isCreated("lazy-test"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() == 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void testSerialOrdering() {
+        val view = SharedExecutors.serial("serial-test");
+        val seen = Collections.synchronizedList(new ArrayList<Integer>());
+        loop(1000).forEach(i -> view.execute(() -> seen.add(i)));
+        view.shutdown();
+        assertTrue(view.awaitTermination(5, TimeUnit.SECONDS));
+        val expected = new ArrayList<Integer>();
+        loop(1000).forEach(expected::add);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @SneakyThrows
+    void testShutdownLeavesPoolRunning() {
+        val view = SharedExecutors.serial("shutdown-test");
+        val started = new CountDownLatch(1);
+        val blocker = new CountDownLatch(1);
+        view.execute(() -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        });
+        started.await();
+        view.execute(() -> {});
+        view.execute(() -> {});
+        List<Runnable> pending = view.shutdownNow();
+        assertEquals(2, pending.size());
+        assertThrows(RejectedExecutionException.class, () -> view.execute(() -> {}));
+        assertFalse(view.awaitTermination(10, TimeUnit.MILLISECONDS));
+        blocker.countDown();
+        assertTrue(view.awaitTermination(5, TimeUnit.SECONDS));
+
+        val other = SharedExecutors.parallel("shutdown-test");
+        val counter = new AtomicInteger();
+        other.execute(counter::incrementAndGet);
+        await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() == 1);
+    }
+
+    @Test
+    void testSignalCloseKeepsSharedPool() {
+        SharedExecutors.configure("signal-test", name -> Executors.newFixedThreadPool(2));
+        val counter = new AtomicInteger();
+        try (val first = ConsumingParallelSignal.<Integer>builder()
+                .executorService(SharedExecutors.parallel("signal-test"))
+                .build()) {
+            first.connect(counter::addAndGet);
+            first.dispatch(1);
+        }
+        try (val second = ConsumingParallelSignal.<Integer>builder()
+                .executorService(SharedExecutors.parallel("signal-test"))
+                .build()) {
+            second.connect(counter::addAndGet);
+            second.dispatch(2);
+        }
+        assertEquals(3, counter.get());
+    }
+
+    @Test
+    void testNestedParallelDispatch() {
+        val inner = ConsumingParallelSignal.<Integer>builder()
+                .executorService(SharedExecutors.parallel("nested-test"))
+                .build();
+        val outer = ConsumingParallelSignal.<Integer>builder()
+                .executorService(SharedExecutors.parallel("nested-test"))
+                .build();
+        val counter = new AtomicInteger();
+        val threads = 4 * Math.max(16, 4 * Runtime.getRuntime().availableProcessors());
+        //Every outer handler holds a pool thread while waiting for the inner dispatch
+        val started = new CountDownLatch(threads);
+        inner.connect(counter::addAndGet);
+        loop(threads).forEach(i -> outer.connect(data -> {
+            started.countDown();
+            awaitQuietly(started);
+            inner.dispatch(data);
+        }));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> outer.dispatch(1));
+        assertEquals(threads, counter.get());
+        outer.close();
+        inner.close();
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
+}
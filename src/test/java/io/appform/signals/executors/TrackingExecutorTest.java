@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.executors;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class TrackingExecutorTest {
+
+    @Test
+    void testQuiescence() {
+        val e = new TrackingExecutor(Executors.newFixedThreadPool(2));
+        val counter = new AtomicInteger();
+        loop(10).forEach(i -> e.execute(() -> {
+            sleep(10);
+            counter.incrementAndGet();
+        }));
+        assertTrue(e.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(10, counter.get());
+        assertTrue(e.drain(Duration.ofSeconds(1)).isCompleted());
+    }
+
+    @Test
+    void testTrackedChain() {
+        val e = new TrackingExecutor(Executors.newSingleThreadExecutor());
+        val chain = new CompletableFuture<Void>();
+        e.track(() -> chain);
+        assertFalse(e.awaitQuiescence(Duration.ofMillis(100)));
+        chain.complete(null);
+        assertTrue(e.awaitQuiescence(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void testDrainDropsQueued() throws Exception {
+        val pool = Executors.newSingleThreadExecutor();
+        val e = new TrackingExecutor(pool);
+        val blocker = new CountDownLatch(1);
+        val ran = new AtomicInteger();
+        e.execute(() -> {
+            try {
+                blocker.await();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        loop(5).forEach(i -> e.execute(ran::incrementAndGet));
+        val chain = e.track(CompletableFuture::new);
+        val result = e.drain(Duration.ofMillis(100));
+        assertFalse(result.isCompleted());
+        assertEquals(6, result.getDropped());
+        assertEquals(1, result.getInterrupted());
+        assertTrue(chain.isCancelled());
+        assertEquals(0, ran.get());
+        assertTrue(e.awaitQuiescence(Duration.ofSeconds(1)));
+        assertThrows(RejectedExecutionException.class, () -> e.execute(ran::incrementAndGet));
+        //The pool is not shut down, and its thread is not left interrupted
+        assertFalse(pool.isShutdown());
+        assertFalse(pool.submit(() -> Thread.currentThread().isInterrupted()).get());
+        pool.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
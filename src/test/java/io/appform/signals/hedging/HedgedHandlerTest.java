@@ -0,0 +1,222 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.hedging;
+
+import io.appform.signals.signals.GeneratingParallelSignal;
+import lombok.val;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class HedgedHandlerTest {
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void testSlowInvocationIsHedged() {
+        val calls = new AtomicInteger();
+        val interrupted = new AtomicInteger();
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                }
+                catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+            return x * 2;
+        }, HedgePolicy.builder().delay(Duration.ofMillis(20)).budget(1.0).build(), executorService);
+        try (val s = GeneratingParallelSignal.<Integer, Integer>builder().build()) {
+            s.connect("hedged", hedged);
+            val start = System.currentTimeMillis();
+            assertEquals(42, s.dispatch(21));
+            assertTrue(System.currentTimeMillis() - start < 2_000);
+        }
+        assertEquals(1, hedged.hedges());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testBudget() {
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            try {
+                Thread.sleep(30);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return x;
+        }, HedgePolicy.builder().delay(Duration.ofMillis(1)).budget(0.1).build(), executorService);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i, hedged.handle(i));
+        }
+        assertEquals(30, hedged.invocations());
+        assertEquals(3, hedged.hedges());
+    }
+
+    @Test
+    void testFailureFallsBackToOtherInvocation() {
+        val calls = new AtomicInteger();
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("replica down");
+            }
+            try {
+                Thread.sleep(200);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return x;
+        }, HedgePolicy.builder().delay(Duration.ofMillis(10)).budget(1.0).build(), executorService);
+        assertEquals(7, hedged.handle(7));
+        val failing = new HedgedHandler<Integer, Integer>(x -> {
+            throw new IllegalArgumentException();
+        }, HedgePolicy.builder().build(), executorService);
+        assertThrows(IllegalArgumentException.class, () -> failing.handle(1));
+    }
+
+    @Test
+    void testPercentile() {
+        val tracker = new LatencyTracker(0.95);
+        LongStream.rangeClosed(1, 63).forEach(tracker::record);
+        assertEquals(-1, tracker.percentileNanos());
+        tracker.record(64);
+        assertEquals(61, tracker.percentileNanos());
+        assertThrows(IllegalArgumentException.class, () -> HedgePolicy.builder().percentile(1.5).build());
+    }
+
+    @Test
+    void testBudgetIsCappedByBurst() {
+        val slow = new AtomicInteger();
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            if (slow.get() > 0) {
+                sleep(50);
+            }
+            return x;
+        }, HedgePolicy.builder().delay(Duration.ofMillis(10)).budget(0.5).burst(2).build(), executorService);
+        for (int i = 0; i < 100; i++) {
+            hedged.handle(i);
+        }
+        val before = hedged.hedges();
+        slow.set(1);
+        for (int i = 0; i < 4; i++) {
+            hedged.handle(i);
+        }
+        //Two saved up, then half a token per invocation
+        assertEquals(3, hedged.hedges() - before);
+    }
+
+    @Test
+    void testLatencyOfLosingInvocationIsRecorded() {
+        val started = ConcurrentHashMap.<Integer>newKeySet();
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            if (started.add(x)) {
+                sleep(1_000);
+            }
+            return x;
+        }, HedgePolicy.builder()
+                .delay(Duration.ofMillis(5))
+                .percentile(0.5)
+                .budget(1.0)
+                .burst(100)
+                .build(), executorService);
+        for (int i = 0; i < 64; i++) {
+            assertEquals(i, hedged.handle(i));
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+        assertEquals(64, hedged.hedges());
+        //The first invocations had been running at least for the delay when the hedges won
+        assertTrue(hedged.hedgeDelayNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    void testHedgeWinsOverInvocationIgnoringInterrupts() {
+        val stuck = new CountDownLatch(1);
+        val started = new AtomicInteger();
+        val hedged = new HedgedHandler<Integer, Integer>(x -> {
+            if (started.incrementAndGet() == 1) {
+                //Like blocking I/O that can not be interrupted
+                while (true) {
+                    try {
+                        stuck.await();
+                        return -1;
+                    }
+                    catch (InterruptedException e) {
+                        //Ignored
+                    }
+                }
+            }
+            return x;
+        }, HedgePolicy.builder().delay(Duration.ofMillis(10)).budget(1.0).build(), executorService);
+        try {
+            val start = System.currentTimeMillis();
+            assertEquals(3, hedged.handle(3));
+            assertTrue(System.currentTimeMillis() - start < 1_000);
+            assertFalse(Thread.currentThread().isInterrupted());
+        }
+        finally {
+            stuck.countDown();
+        }
+    }
+
+    @Test
+    void testRejectedInvocationRunsInCallingThread() {
+        val caller = Thread.currentThread();
+        val rejecting = Executors.newSingleThreadExecutor();
+        rejecting.shutdown();
+        val hedged = new HedgedHandler<Integer, Boolean>(x -> Thread.currentThread() == caller,
+                                                         HedgePolicy.builder().build(),
+                                                         rejecting);
+        assertTrue(hedged.handle(1));
+        assertEquals(0, hedged.hedges());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
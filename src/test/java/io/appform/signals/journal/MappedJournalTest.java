@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.journal;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class MappedJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendRead() {
+        val read = new ArrayList<String>();
+        try (val journal = new MappedJournal(directory, 128, 4)) {
+            loop(20).forEach(i -> journal.append(("event-" + i).getBytes(StandardCharsets.UTF_8)));
+            journal.read(0, journal.endOffset(),
+                         (offset, next, payload) -> read.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        assertEquals(20, read.size());
+        assertEquals("event-1", read.get(0));
+        assertEquals("event-20", read.get(19));
+        assertTrue(segmentCount() > 1);
+    }
+
+    @Test
+    void testReopen() {
+        final long end;
+        try (val journal = new MappedJournal(directory, 128, 1)) {
+            loop(10).forEach(i -> journal.append(Integer.toString(i).getBytes(StandardCharsets.UTF_8)));
+            end = journal.endOffset();
+        }
+        val offsets = new ArrayList<Long>();
+        try (val journal = new MappedJournal(directory, 128, 1)) {
+            assertEquals(end, journal.endOffset());
+            val offset = journal.append("11".getBytes(StandardCharsets.UTF_8));
+            assertEquals(end, offset);
+            journal.read(0, journal.endOffset(), (o, next, payload) -> offsets.add(o));
+        }
+        assertEquals(11, offsets.size());
+    }
+
+    @Test
+    void testCorruptTailTruncatedOnReopen() throws Exception {
+        final long tail;
+        try (val journal = new MappedJournal(directory, 1024, 1)) {
+            loop(4).forEach(i -> journal.append(Integer.toString(i).getBytes(StandardCharsets.UTF_8)));
+            tail = journal.append("torn-record".getBytes(StandardCharsets.UTF_8));
+        }
+        //Simulate a torn write: the length word made it to the disk, part of the payload did not
+        val segment = directory.resolve(String.format("%020d.seg", 0));
+        try (val file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(tail + 8 + 4);
+            file.write(new byte[4]);
+        }
+        val read = new ArrayList<String>();
+        try (val journal = new MappedJournal(directory, 1024, 1)) {
+            assertEquals(tail, journal.endOffset());
+            journal.append("5".getBytes(StandardCharsets.UTF_8));
+            journal.append("6".getBytes(StandardCharsets.UTF_8));
+        }
+        try (val journal = new MappedJournal(directory, 1024, 1)) {
+            journal.read(0, journal.endOffset(),
+                         (offset, next, payload) -> read.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), read);
+    }
+
+    @Test
+    void testEmptyRecords() {
+        try (val journal = new MappedJournal(directory, 128, 1)) {
+            journal.append("1".getBytes(StandardCharsets.UTF_8));
+            journal.append(new byte[0]);
+            journal.append("3".getBytes(StandardCharsets.UTF_8));
+        }
+        val read = new ArrayList<String>();
+        try (val journal = new MappedJournal(directory, 128, 1)) {
+            journal.append("4".getBytes(StandardCharsets.UTF_8));
+            journal.read(0, journal.endOffset(),
+                         (offset, next, payload) -> read.add(new String(payload, StandardCharsets.UTF_8)));
+        }
+        assertEquals(Arrays.asList("1", "", "3", "4"), read);
+    }
+
+    @Test
+    void testReadFromOffset() {
+        try (val journal = new MappedJournal(directory, 128, 1)) {
+            val offsets = new ArrayList<Long>();
+            loop(10).forEach(i -> offsets.add(journal.append(Integer.toString(i).getBytes(StandardCharsets.UTF_8))));
+            val read = new ArrayList<String>();
+            journal.read(offsets.get(5), journal.endOffset(),
+                         (offset, next, payload) -> read.add(new String(payload, StandardCharsets.UTF_8)));
+            assertEquals(5, read.size());
+            assertEquals("6", read.get(0));
+        }
+    }
+
+    @Test
+    void testDeleteBefore() {
+        try (val journal = new MappedJournal(directory, 64, 1)) {
+            loop(20).forEach(i -> journal.append(new byte[16]));
+            val before = segmentCount();
+            journal.deleteBefore(journal.endOffset());
+            assertEquals(1, segmentCount());
+            assertTrue(before > 1);
+            journal.append(new byte[16]);
+        }
+    }
+
+    @Test
+    void testTooLarge() {
+        try (val journal = new MappedJournal(directory, 64, 1)) {
+            val data = new byte[64];
+            assertThrows(IllegalArgumentException.class, () -> journal.append(data));
+        }
+    }
+
+    private long segmentCount() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+        catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.management;
+
+import io.appform.signals.signals.ConsumingParallelSignal;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class SignalRegistryTest {
+
+    @Test
+    @SneakyThrows
+    void testStatsOverJmx() {
+        val server = MBeanServerFactory.newMBeanServer();
+        val registry = new SignalRegistry(server, "test");
+        val signal = new ConsumingSyncSignal<Integer>();
+        signal.connect("ok", x -> {});
+        signal.connect(1, "failing", x -> {
+            throw new IllegalStateException("Failed");
+        });
+        registry.register("orders", signal);
+        assertThrows(IllegalArgumentException.class, () -> registry.register("orders", signal));
+        loop(5).forEach(signal::dispatch);
+
+        val name = new ObjectName("test:type=Signal,name=\"orders\"");
+        assertTrue(server.isRegistered(name));
+        assertEquals(2, server.getAttribute(name, "HandlerCount"));
+        assertEquals(2, ((TabularData) server.getAttribute(name, "HandlersPerGroup")).size());
+        assertEquals(0, server.getAttribute(name, "QueueDepth"));
+        val mbean = registry.find("orders").orElseThrow(IllegalStateException::new);
+        assertEquals(5L, mbean.getHandlerInvocations().get("ok"));
+        assertEquals(5L, mbean.getHandlerFailures().get("failing"));
+        assertNull(mbean.getHandlerFailures().get("ok"));
+
+        server.invoke(name, "pauseHandler", new Object[]{"failing"}, new String[]{String.class.getName()});
+        assertEquals(Collections.singletonList("failing"), mbean.getPausedHandlers());
+        signal.dispatch(1);
+        assertEquals(5L, mbean.getHandlerInvocations().get("failing"));
+        mbean.resumeHandler("failing");
+        signal.dispatch(1);
+        assertEquals(6L, mbean.getHandlerInvocations().get("failing"));
+
+        assertEquals(true, server.invoke(name, "disconnectHandler", new Object[]{"failing"},
+                                         new String[]{String.class.getName()}));
+        assertEquals(1, mbean.getHandlerCount());
+        assertFalse(mbean.disconnectHandler("failing"));
+
+        assertTrue(registry.unregister("orders"));
+        assertFalse(server.isRegistered(name));
+        assertEquals(Collections.emptySet(), registry.names());
+    }
+
+    @Test
+    @SneakyThrows
+    void testExecutorStats() {
+        val registry = new SignalRegistry(MBeanServerFactory.newMBeanServer(), "test");
+        val blocker = new CountDownLatch(1);
+        val counter = new AtomicInteger();
+        val signal = ConsumingParallelSignal.<Integer>builder()
+                .executorService(Executors.newSingleThreadExecutor())
+                .build();
+        signal.connect(x -> {
+            awaitQuietly(blocker);
+            counter.incrementAndGet();
+        });
+        val mbean = registry.register("parallel", signal);
+        val dispatcher = Executors.newFixedThreadPool(3);
+        loop(3).forEach(i -> dispatcher.submit(() -> signal.dispatch(i)));
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> mbean.getActiveInvocations() == 1 && mbean.getQueueDepth() == 2);
+        blocker.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> counter.get() == 3);
+        assertEquals(0, mbean.getRejectedCount());
+        signal.close();
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @SneakyThrows
+    void testCollectedSignalsArePurged() {
+        val server = MBeanServerFactory.newMBeanServer();
+        val registry = new SignalRegistry(server, "test");
+        registerTemporary(registry);
+        assertEquals(Collections.singleton("temporary"), registry.names());
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            System.gc();
+            return registry.purge() == 1;
+        });
+        assertFalse(server.isRegistered(new ObjectName("test:type=Signal,name=\"temporary\"")));
+        assertEquals(Collections.emptySet(), registry.names());
+    }
+
+    @Test
+    @SneakyThrows
+    void testLookupsPurgeCollectedSignals() {
+        val server = MBeanServerFactory.newMBeanServer();
+        val registry = new SignalRegistry(server, "test");
+        val objectName = new ObjectName("test:type=Signal,name=\"temporary\"");
+        registerTemporary(registry);
+        await().atMost(Duration.ofSeconds(10)).until(() -> {
+            System.gc();
+            registry.names();
+            return !server.isRegistered(objectName);
+        });
+        assertEquals(0, registry.purge());
+        assertFalse(registry.find("temporary").isPresent());
+    }
+
+    private static void registerTemporary(SignalRegistry registry) {
+        val signal = new ConsumingSyncSignal<Integer>();
+        signal.connect(x -> {});
+        registry.register("temporary", signal);
+    }
+
+    @SneakyThrows
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.await();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.memo;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ */
+class MemoCacheTest {
+
+    @Test
+    void testTtlAndRefresh() {
+        val clock = new AtomicLong();
+        val loads = new AtomicInteger();
+        val refreshes = new ArrayDeque<Runnable>();
+        val cache = new MemoCache<String, Integer>(MemoConfig.<String, Integer>builder()
+                                                           .ttl(Duration.ofSeconds(10))
+                                                           .refreshAfterWrite(Duration.ofSeconds(5))
+                                                           .refreshExecutor(refreshes::add)
+                                                           .build(),
+                                                   clock::get);
+        Function<String, Integer> loader = key -> loads.incrementAndGet();
+        assertEquals(1, cache.get("a", loader));
+        assertEquals(1, cache.get("a", loader));
+        clock.set(6_000);
+        assertEquals(1, cache.get("a", loader)); //Refresh started in the background
+        assertEquals(1, cache.get("a", loader)); //Only one refresh at a time
+        assertEquals(1, refreshes.size());
+        assertEquals(1, loads.get());
+        refreshes.poll().run();
+        assertEquals(2, cache.get("a", loader));
+        clock.set(20_000);
+        assertEquals(3, cache.get("a", loader)); //Expired
+        val stats = cache.stats();
+        assertEquals(4, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getRefreshes());
+    }
+
+    @Test
+    void testNotCacheable() {
+        val loads = new AtomicInteger();
+        val cache = new MemoCache<String, Integer>(MemoConfig.<String, Integer>builder().build());
+        assertEquals(1, cache.get("a", key -> loads.incrementAndGet(), value -> false));
+        assertEquals(2, cache.get("a", key -> loads.incrementAndGet(), value -> true));
+        assertEquals(2, cache.get("a", key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    void testWeightBound() {
+        val cache = new MemoCache<Integer, String>(MemoConfig.<Integer, String>builder()
+                                                           .maxWeight(100)
+                                                           .weigher((key, value) -> value.length())
+                                                           .segments(4)
+                                                           .build());
+        loop(1000).forEach(i -> cache.get(i, key -> "xxxxx"));
+        val stats = cache.stats();
+        assertTrue(stats.getSize() <= 20);
+        assertTrue(stats.getEvictions() >= 980);
+    }
+
+    @Test
+    void testInvalidate() {
+        val loads = new AtomicInteger();
+        val cache = new MemoCache<String, Integer>(MemoConfig.<String, Integer>builder().build());
+        cache.get("a", key -> loads.incrementAndGet());
+        cache.invalidateAll();
+        assertEquals(2, cache.get("a", key -> loads.incrementAndGet()));
+        //Values computed across an invalidation are not cached
+        cache.get("b", key -> {
+            cache.invalidateAll();
+            return loads.incrementAndGet();
+        });
+        assertEquals(4, cache.get("b", key -> loads.incrementAndGet()));
+    }
+}
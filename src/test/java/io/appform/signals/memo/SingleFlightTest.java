@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.memo;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class SingleFlightTest {
+
+    @Test
+    void testCollapsed() throws Exception {
+        val singleFlight = new SingleFlight<String, Integer>();
+        val computations = new AtomicInteger();
+        val release = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(10);
+        val futures = new ArrayList<Future<Integer>>();
+        loop(10).forEach(i -> futures.add(executor.submit(() -> singleFlight.execute("key", () -> {
+            computations.incrementAndGet();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 42;
+        }))));
+        await().until(() -> singleFlight.collapsed() == 9);
+        release.countDown();
+        for (val future : futures) {
+            assertEquals(42, future.get());
+        }
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.inFlight());
+        executor.shutdown();
+    }
+
+    @Test
+    void testErrorShared() throws Exception {
+        val singleFlight = new SingleFlight<String, Integer>();
+        val release = new CountDownLatch(1);
+        val executor = Executors.newFixedThreadPool(2);
+        val leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("backend down");
+        }));
+        await().until(() -> singleFlight.inFlight() == 1);
+        val follower = executor.submit(() -> singleFlight.execute("key", () -> 1));
+        await().until(() -> singleFlight.collapsed() == 1);
+        release.countDown();
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+        assertEquals(1, singleFlight.execute("key", () -> 1)); //Nothing is remembered
+        executor.shutdown();
+    }
+
+    @Test
+    void testReentrantCallRejected() {
+        val singleFlight = new SingleFlight<String, Integer>();
+        assertThrows(IllegalStateException.class,
+                     () -> singleFlight.execute("key", () -> singleFlight.execute("key", () -> 1)));
+        assertEquals(0, singleFlight.inFlight());
+        assertEquals(2, singleFlight.execute("key", () -> singleFlight.execute("other", () -> 2)));
+    }
+}
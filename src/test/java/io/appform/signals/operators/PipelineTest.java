@@ -0,0 +1,106 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.operators;
+
+import io.appform.signals.signals.ConsumingSyncSignal;
+import io.appform.signals.signals.GeneratingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class PipelineTest {
+
+    @Test
+    void testFilterMap() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val received = new ArrayList<String>();
+        Pipeline.from(signal)
+                .filter(i -> i % 2 == 0)
+                .map(i -> "v" + i)
+                .connect("collector", received::add);
+        IntStream.range(0, 6).forEach(signal::dispatch);
+        assertEquals(Arrays.asList("v0", "v2", "v4"), received);
+    }
+
+    @Test
+    void testFusedIntoOneHandler() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val counted = new AtomicInteger();
+        val invocations = new AtomicInteger();
+        signal.connect("counter", i -> invocations.incrementAndGet());
+        Pipeline.from(signal)
+                .map(i -> i + 1)
+                .map(i -> i * 2)
+                .filter(i -> i > 2)
+                .connect("sink", i -> counted.incrementAndGet());
+        IntStream.range(0, 3).forEach(signal::dispatch);
+        assertEquals(3, invocations.get());
+        assertEquals(2, counted.get());
+    }
+
+    @Test
+    void testMergeAndDisconnect() {
+        val numbers = new ConsumingSyncSignal<Integer>();
+        val words = new ConsumingSyncSignal<String>();
+        val received = new ArrayList<Object>();
+        val merged = Pipeline.<Object>merge(Pipeline.from(numbers), Pipeline.from(words).map(String::length))
+                .connect("collector", received::add);
+        numbers.dispatch(1);
+        words.dispatch("hello");
+        assertEquals(Arrays.asList(1, 5), received);
+        merged.disconnect("collector");
+        numbers.dispatch(2);
+        words.dispatch("world");
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void testMergeList() {
+        val signals = Arrays.asList(new ConsumingSyncSignal<Integer>(), new ConsumingSyncSignal<Integer>());
+        val received = new ArrayList<Integer>();
+        Pipeline.merge(signals.stream().map(Pipeline::from).collect(Collectors.toList()))
+                .connect("collector", received::add);
+        signals.get(0).dispatch(1);
+        signals.get(1).dispatch(2);
+        assertEquals(Arrays.asList(1, 2), received);
+    }
+
+    @Test
+    void testIntoDerivedSignal() {
+        val source = new ConsumingSyncSignal<Integer>();
+        val derived = new GeneratingSyncSignal<Integer, Integer>();
+        val received = new ArrayList<Integer>();
+        derived.connect(i -> {
+            received.add(i);
+            return i;
+        });
+        Pipeline.from(source)
+                .map(i -> i * 10)
+                .into("derived", derived);
+        source.dispatch(4);
+        assertEquals(Arrays.asList(40), received);
+    }
+}
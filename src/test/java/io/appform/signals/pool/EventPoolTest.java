@@ -0,0 +1,64 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.pool;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class EventPoolTest {
+
+    @Test
+    void testRecycle() {
+        val resets = new AtomicInteger();
+        val pool = new EventPool<>(2, StringBuilder::new, sb -> {
+            sb.setLength(0);
+            resets.incrementAndGet();
+        });
+        val event = pool.claim();
+        assertEquals(1, pool.available());
+        event.get().append("hello");
+        event.retain(2);
+        event.release();
+        event.release();
+        assertEquals(1, pool.available());
+        event.release();
+        assertEquals(2, pool.available());
+        assertEquals(1, resets.get());
+        assertEquals(0, event.get().length());
+        assertThrows(IllegalStateException.class, event::release);
+        assertThrows(IllegalStateException.class, () -> event.retain(1));
+    }
+
+    @Test
+    void testOverflow() {
+        val pool = new EventPool<>(1, StringBuilder::new, sb -> sb.setLength(0));
+        val first = pool.claim();
+        val second = pool.claim();
+        assertNotSame(first, second);
+        assertEquals(2, pool.allocated());
+        first.release();
+        second.release(); //No room, dropped
+        assertEquals(1, pool.available());
+        assertSame(first, pool.claim());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.reactive;
+
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class SignalPublisherTest {
+
+    private static final class TestSubscriber<T> implements Subscriber<T> {
+        final List<T> items = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final AtomicBoolean completed = new AtomicBoolean();
+        Subscription subscription;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed.set(true);
+        }
+    }
+
+    @Test
+    void testDemand() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val publisher = SignalPublisher.connect(signal, "publisher", 16, OverflowStrategy.DROP_NEWEST);
+        val subscriber = new TestSubscriber<Integer>();
+        publisher.subscribe(subscriber);
+        IntStream.range(0, 5).forEach(signal::dispatch);
+        assertTrue(subscriber.items.isEmpty());
+        subscriber.subscription.request(2);
+        assertEquals(Arrays.asList(0, 1), subscriber.items);
+        subscriber.subscription.request(10);
+        assertEquals(5, subscriber.items.size());
+        signal.dispatch(5);
+        assertEquals(6, subscriber.items.size());
+        publisher.complete();
+        assertTrue(subscriber.completed.get());
+        assertEquals(0, publisher.subscriberCount());
+    }
+
+    @Test
+    void testDropStrategies() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val newest = SignalPublisher.connect(signal, "newest", 2, OverflowStrategy.DROP_NEWEST);
+        val oldest = SignalPublisher.connect(signal, "oldest", 2, OverflowStrategy.DROP_OLDEST);
+        val newestSubscriber = new TestSubscriber<Integer>();
+        val oldestSubscriber = new TestSubscriber<Integer>();
+        newest.subscribe(newestSubscriber);
+        oldest.subscribe(oldestSubscriber);
+        IntStream.range(0, 5).forEach(signal::dispatch);
+        newestSubscriber.subscription.request(Long.MAX_VALUE);
+        oldestSubscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(Arrays.asList(0, 1), newestSubscriber.items);
+        assertEquals(Arrays.asList(3, 4), oldestSubscriber.items);
+        assertEquals(3, newest.dropped());
+        assertEquals(3, oldest.dropped());
+    }
+
+    @Test
+    void testErrorStrategyAndInvalidRequest() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val publisher = SignalPublisher.connect(signal, "publisher", 1, OverflowStrategy.ERROR);
+        val overflowing = new TestSubscriber<Integer>();
+        val invalid = new TestSubscriber<Integer>();
+        publisher.subscribe(overflowing);
+        publisher.subscribe(invalid);
+        invalid.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, invalid.error.get());
+        signal.dispatch(1);
+        signal.dispatch(2);
+        assertInstanceOf(IllegalStateException.class, overflowing.error.get());
+        assertEquals(0, publisher.subscriberCount());
+    }
+
+    @Test
+    void testBlockPushesBack() throws Exception {
+        val signal = new ConsumingSyncSignal<Integer>();
+        val publisher = SignalPublisher.connect(signal, "publisher", 1, OverflowStrategy.BLOCK);
+        val subscriber = new TestSubscriber<Integer>();
+        publisher.subscribe(subscriber);
+        val executor = Executors.newSingleThreadExecutor();
+        val producer = executor.submit(() -> IntStream.range(0, 3).forEach(signal::dispatch));
+        await().pollDelay(50, TimeUnit.MILLISECONDS).until(() -> !producer.isDone());
+        subscriber.subscription.request(3);
+        producer.get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(0, 1, 2), subscriber.items.stream().sorted().collect(Collectors.toList()));
+        executor.shutdown();
+    }
+}
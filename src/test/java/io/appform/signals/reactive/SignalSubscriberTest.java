@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.reactive;
+
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class SignalSubscriberTest {
+
+    @Test
+    void testRequestsAsDispatchesComplete() {
+        val received = new ArrayList<Integer>();
+        val signal = new ConsumingSyncSignal<Integer>();
+        signal.connect(received::add);
+        val requested = new AtomicLong();
+        val subscriber = new SignalSubscriber<Integer>(signal, 4);
+        subscriber.onSubscribe(subscription(requested));
+        assertEquals(4, requested.get());
+        subscriber.onNext(1);
+        assertEquals(4, requested.get());
+        subscriber.onNext(2);
+        assertEquals(6, requested.get());
+        subscriber.onComplete();
+        assertEquals(Arrays.asList(1, 2), received);
+        assertTrue(subscriber.completion().isDone());
+    }
+
+    @Test
+    void testRequestsAsAsyncHandlersComplete() {
+        val pool = Executors.newSingleThreadExecutor();
+        val blocker = new CountDownLatch(1);
+        try (val signal = ConsumingFireForgetSignal.<Integer>builder()
+                .executorService(pool)
+                .build()) {
+            signal.connect(x -> block(blocker));
+            val requested = new AtomicLong();
+            val subscriber = new SignalSubscriber<Integer>(signal, 2);
+            subscriber.onSubscribe(subscription(requested));
+            assertEquals(2, requested.get());
+            subscriber.onNext(1);
+            subscriber.onNext(2);
+            //Dispatch has returned, but the handlers have not run yet
+            assertEquals(2, requested.get());
+            blocker.countDown();
+            await().atMost(Duration.ofSeconds(5)).until(() -> requested.get() == 4);
+            subscriber.onComplete();
+            assertTrue(signal.awaitQuiescence(Duration.ofSeconds(5)));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testEndToEnd() {
+        val source = new ConsumingSyncSignal<Integer>();
+        val sink = new ConsumingSyncSignal<Integer>();
+        val received = new ArrayList<Integer>();
+        sink.connect(received::add);
+        val publisher = SignalPublisher.connect(source, "publisher", 8, OverflowStrategy.BLOCK);
+        val subscriber = new SignalSubscriber<>(sink, 2);
+        publisher.subscribe(subscriber);
+        for (int i = 0; i < 100; i++) {
+            source.dispatch(i);
+        }
+        publisher.complete();
+        assertEquals(100, received.size());
+        assertTrue(subscriber.completion().isDone());
+    }
+
+    @Test
+    void testDispatchFailureCancels() {
+        val signal = new ConsumingSyncSignal<Integer>();
+        signal.drain(Duration.ZERO);
+        val cancelled = new AtomicLong();
+        val subscriber = new SignalSubscriber<Integer>(signal);
+        subscriber.onSubscribe(new Subscription() {
+            @Override
+            public void request(long n) {
+                //Nothing to do
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.incrementAndGet();
+            }
+        });
+        subscriber.onNext(1);
+        assertEquals(1, cancelled.get());
+        assertTrue(subscriber.completion().isCompletedExceptionally());
+    }
+
+    @SneakyThrows
+    private static void block(CountDownLatch latch) {
+        latch.await();
+    }
+
+    private static Subscription subscription(AtomicLong requested) {
+        return new Subscription() {
+            @Override
+            public void request(long n) {
+                requested.addAndGet(n);
+            }
+
+            @Override
+            public void cancel() {
+                //Nothing to do
+            }
+        };
+    }
+}
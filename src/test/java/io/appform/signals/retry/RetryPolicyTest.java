@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.retry;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class RetryPolicyTest {
+
+    @Test
+    void testExponentialDelay() {
+        val p = RetryPolicy.builder()
+                .initialDelay(Duration.ofMillis(100))
+                .maxDelay(Duration.ofMillis(500))
+                .multiplier(2)
+                .jitter(0)
+                .build();
+        assertEquals(100, p.delayMillis(1));
+        assertEquals(200, p.delayMillis(2));
+        assertEquals(400, p.delayMillis(3));
+        assertEquals(500, p.delayMillis(4));
+    }
+
+    @Test
+    void testJitter() {
+        val p = RetryPolicy.builder()
+                .initialDelay(Duration.ofMillis(100))
+                .jitter(0.5)
+                .build();
+        loop(100).forEach(i -> {
+            val delay = p.delayMillis(1);
+            assertTrue(delay >= 50 && delay <= 150);
+        });
+    }
+
+    @Test
+    void testShouldRetry() {
+        val p = RetryPolicy.builder()
+                .maxAttempts(3)
+                .retryOn(e -> e instanceof IllegalStateException)
+                .build();
+        assertTrue(p.shouldRetry(1, new IllegalStateException()));
+        assertTrue(p.shouldRetry(2, new IllegalStateException()));
+        assertFalse(p.shouldRetry(3, new IllegalStateException()));
+        assertFalse(p.shouldRetry(1, new IllegalArgumentException()));
+    }
+
+    @Test
+    void testValidation() {
+        val builder = RetryPolicy.builder().maxAttempts(0);
+        assertThrows(IllegalArgumentException.class, builder::build);
+        val jitter = RetryPolicy.builder().jitter(2);
+        assertThrows(IllegalArgumentException.class, jitter::build);
+    }
+}
@@ -19,13 +19,14 @@ import lombok.val;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.appform.signals.TestingUtils.loop;
 import static io.appform.signals.TestingUtils.printTime;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  *
@@ -82,6 +83,56 @@ class ConsumingFireForgetSignalTest {
         assertEquals(100, errorCounter.get()); // Five times per dispatch
     }
 
+    @Test
+    void testDrain() {
+        val s = new ConsumingFireForgetSignal<Integer>();
+        val sum = new AtomicInteger();
+        s.connect(i -> {
+            sleep(10);
+            sum.addAndGet(i);
+        });
+        loop(10).forEach(s::dispatch);
+        val result = s.drain(Duration.ofSeconds(5));
+        assertTrue(result.isCompleted());
+        assertEquals(55, sum.get());
+        assertTrue(s.isClosed());
+        assertThrows(IllegalStateException.class, () -> s.dispatch(1));
+    }
+
+    @Test
+    void testDrainTimeout() {
+        val s = new ConsumingFireForgetSignal<Integer>();
+        s.connect(i -> sleep(200));
+        loop(10).forEach(s::dispatch);
+        val result = s.drain(Duration.ofMillis(100));
+        assertFalse(result.isCompleted());
+        assertEquals(9, result.getDropped());
+        assertEquals(1, result.getInterrupted());
+    }
+
+    @Test
+    void testAwaitQuiescence() {
+        try (val s = new ConsumingFireForgetSignal<Integer>()) {
+            val sum = new AtomicInteger();
+            s.connect(i -> {
+                sleep(10);
+                sum.addAndGet(i);
+            });
+            loop(10).forEach(s::dispatch);
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+            assertEquals(55, sum.get());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void testSum(ConsumingFireForgetSignal<Integer> s) {
         val sum = new AtomicInteger();
        loop(10).forEach(i -> s.connect(sum::addAndGet));
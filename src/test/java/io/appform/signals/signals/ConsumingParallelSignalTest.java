@@ -15,15 +15,22 @@
 package io.appform.signals.signals;
 
 import io.appform.signals.CountingConsumer;
+import io.appform.signals.dedup.Deduplicator;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.appform.signals.TestingUtils.loop;
 import static io.appform.signals.TestingUtils.printTime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -36,6 +43,44 @@ class ConsumingParallelSignalTest {
         testSum(s);
     }
 
+    @Test
+    void testDeduplicate() {
+        val counter = new AtomicInteger();
+        val s = new ConsumingParallelSignal<Integer>();
+        s.deduplicate(Deduplicator.<Integer>builder().keyExtractor(i -> i % 10).build());
+        loop(5).forEach(i -> s.connect(x -> counter.incrementAndGet()));
+        loop(100).forEach(s::dispatch);
+        assertEquals(50, counter.get()); //Only ten distinct keys, each fanned out to five handlers
+        s.close();
+    }
+
+    @Test
+    void testRejectedDispatchIsNotADuplicate() {
+        val saturated = new AtomicBoolean(true);
+        val executorService = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>()) {
+            @Override
+            public void execute(Runnable command) {
+                if (saturated.get()) {
+                    throw new RejectedExecutionException("Saturated");
+                }
+                super.execute(command);
+            }
+        };
+        val counter = new AtomicInteger();
+        val s = ConsumingParallelSignal.<Integer>builder()
+                .executorService(executorService)
+                .build();
+        s.deduplicate(Deduplicator.<Integer>builder().keyExtractor(i -> i).build());
+        s.connect(x -> counter.incrementAndGet());
+        assertThrows(RejectedExecutionException.class, () -> s.dispatch(1));
+        saturated.set(false);
+        s.dispatch(1);
+        s.dispatch(1);
+        assertEquals(1, counter.get());
+        s.close();
+        executorService.shutdown();
+    }
+
     @Test
     void testBuilder() {
         val s = ConsumingParallelSignal.<Integer>builder().build();
@@ -100,6 +100,21 @@ class ConsumingSyncSignalTest {
 
     }
 
+    @Test
+    void testConnectDuringDispatch() {
+        val s = new ConsumingSyncSignal<Void>();
+        val ctr = new AtomicInteger();
+
+        s.connect("connecting", v -> {
+            s.connect(1, "late", x -> ctr.incrementAndGet());
+            s.disconnect("connecting");
+        });
+        s.dispatch(null); // Handlers connected during a dispatch are called from the next one
+        assertEquals(0, ctr.get());
+        s.dispatch(null);
+        assertEquals(1, ctr.get());
+    }
+
     private void sumTest(ConsumingSyncSignal<Integer> s) {
         final int[] sum = {0};
         loop(10).forEach(i -> s.connect(x -> sum[0] += x));
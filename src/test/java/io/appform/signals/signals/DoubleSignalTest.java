@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.combiners.DoubleCombiners;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class DoubleSignalTest {
+
+    @Test
+    void testCombiners() {
+        val sum = DoubleSignal.builder().combiner(DoubleCombiners.sum()).build();
+        val min = DoubleSignal.builder().combiner(DoubleCombiners.min()).build();
+        IntStream.rangeClosed(1, 4).forEach(i -> {
+            sum.connect(x -> x / i);
+            min.connect(x -> x / i);
+        });
+        assertEquals(2.0 + 1.0 + 2.0 / 3 + 0.5, sum.dispatch(2.0), 1e-9);
+        assertEquals(0.5, min.dispatch(2.0), 1e-9);
+    }
+
+    @Test
+    void testErrorCarriesEvent() {
+        val errors = new AtomicInteger();
+        val s = DoubleSignal.builder()
+                .errorHandler(new TaskErrorHandler() {
+                    @Override
+                    public void handle(Exception e) {
+                        errors.incrementAndGet();
+                    }
+
+                    @Override
+                    public void handle(HandlerFailure failure) {
+                        assertEquals("failing", failure.getHandlerName());
+                        assertEquals(1.5, failure.getData());
+                        handle(failure.getError());
+                    }
+                })
+                .build();
+        s.connect("failing", x -> {
+            throw new IllegalArgumentException();
+        });
+        s.dispatch(1.5);
+        assertEquals(1, errors.get());
+    }
+}
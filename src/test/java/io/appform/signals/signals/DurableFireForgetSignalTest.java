@@ -0,0 +1,264 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.appform.signals.signals;
+
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.journal.EventSerializer;
+import io.appform.signals.journal.JournalConfig;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class DurableFireForgetSignalTest {
+    private static final EventSerializer<Integer> SERIALIZER = new EventSerializer<Integer>() {
+        @Override
+        public byte[] serialize(Integer data) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(data).array();
+        }
+
+        @Override
+        public Integer deserialize(byte[] data) {
+            return ByteBuffer.wrap(data).getInt();
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDispatch() {
+        val sum = new AtomicInteger();
+        try (val s = signal(Executors.newSingleThreadExecutor())) {
+            loop(10).forEach(i -> s.connect("h" + i, sum::addAndGet));
+            loop(20).forEach(s::dispatch);
+            Awaitility.await()
+                    .timeout(3, TimeUnit.SECONDS)
+                    .until(() -> sum.get() == 2100);
+            assertEquals(0, s.recover());
+        }
+        assertEquals(2100, sum.get());
+    }
+
+    @Test
+    void testRecovery() {
+        val blocker = new CountDownLatch(1);
+        val s = signal(Executors.newCachedThreadPool());
+        val consumed = new AtomicInteger();
+        s.connect("blocked", data -> {
+            //Simulates a handler that never finishes before the process goes down
+            while (blocker.getCount() > 0) {
+                try {
+                    blocker.await();
+                }
+                catch (InterruptedException e) {
+                    //Ignore
+                }
+            }
+        });
+        s.connect("fast", data -> consumed.incrementAndGet());
+        loop(10).forEach(s::dispatch);
+        Awaitility.await()
+                .timeout(3, TimeUnit.SECONDS)
+                .until(() -> consumed.get() == 10);
+        s.close();
+
+        val sum = new AtomicInteger();
+        val fastCount = new AtomicInteger();
+        try (val restarted = signal(Executors.newSingleThreadExecutor())) {
+            restarted.connect("blocked", sum::addAndGet);
+            restarted.connect("fast", data -> fastCount.incrementAndGet());
+            assertEquals(10, restarted.recover());
+            Awaitility.await()
+                    .timeout(3, TimeUnit.SECONDS)
+                    .until(() -> sum.get() == 55);
+        }
+        finally {
+            blocker.countDown();
+        }
+        assertEquals(55, sum.get());
+        assertEquals(0, fastCount.get());
+    }
+
+    @Test
+    void testDisconnectReleasesJournal() {
+        val blocker = new CountDownLatch(1);
+        val consumed = new AtomicInteger();
+        try (val s = signal(Executors.newCachedThreadPool())) {
+            s.connect("fast", data -> consumed.incrementAndGet());
+            s.connect("removed", data -> await(blocker));
+            s.dispatch(0);
+            s.disconnect("removed");
+            blocker.countDown();
+            loop(300).forEach(s::dispatch);
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+            assertEquals(301, consumed.get());
+            Awaitility.await()
+                    .timeout(3, TimeUnit.SECONDS)
+                    .until(() -> segmentCount() == 1);
+        }
+        try (val restarted = signal(Executors.newSingleThreadExecutor())) {
+            restarted.connect("fast", data -> {});
+            restarted.connect("removed", data -> {});
+            assertEquals(0, restarted.recover());
+        }
+    }
+
+    @Test
+    void testDiscardedEventsAcknowledged() {
+        val blocker = new CountDownLatch(1);
+        val started = new CountDownLatch(1);
+        val consumed = new AtomicInteger();
+        try (val s = signal(Executors.newSingleThreadExecutor())) {
+            s.connect("handler", data -> {
+                started.countDown();
+                await(blocker);
+                consumed.incrementAndGet();
+            });
+            s.dispatch(1);
+            await(started);
+            val deadline = Deadline.after(Duration.ofMillis(10));
+            s.dispatch(2, deadline);
+            Awaitility.await()
+                    .timeout(3, TimeUnit.SECONDS)
+                    .until(deadline::isExpired);
+            blocker.countDown();
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+            assertEquals(1, consumed.get());
+        }
+        try (val restarted = signal(Executors.newSingleThreadExecutor())) {
+            restarted.connect("handler", data -> {});
+            assertEquals(0, restarted.recover());
+        }
+    }
+
+    @Test
+    void testGroupsInOrder() {
+        val called = new CopyOnWriteArrayList<String>();
+        try (val s = signal(Executors.newSingleThreadExecutor())) {
+            s.connect(2, "second", data -> called.add("second"));
+            s.connect(1, "first", data -> called.add("first"));
+            s.dispatch(1);
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+            //Deadline has expired before the first group, nothing is handed over or left to recover
+            s.dispatch(2, Deadline.after(Duration.ZERO));
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        }
+        assertEquals(Arrays.asList("first", "second"), called);
+        try (val restarted = signal(Executors.newSingleThreadExecutor())) {
+            restarted.connect(2, "second", data -> {});
+            restarted.connect(1, "first", data -> {});
+            assertEquals(0, restarted.recover());
+        }
+    }
+
+    @Test
+    void testRejectedRecoveryRetried() {
+        val blocker = new CountDownLatch(1);
+        try (val s = signal(Executors.newSingleThreadExecutor())) {
+            s.connect("handler", data -> {
+                //Never finishes before the process goes down
+                while (blocker.getCount() > 0) {
+                    try {
+                        blocker.await();
+                    }
+                    catch (InterruptedException e) {
+                        //Ignore
+                    }
+                }
+            });
+            loop(5).forEach(s::dispatch);
+        }
+        finally {
+            blocker.countDown();
+        }
+        val rejecting = Executors.newSingleThreadExecutor();
+        rejecting.shutdown();
+        try (val restarted = signal(rejecting)) {
+            restarted.connect("handler", data -> {});
+            assertEquals(0, restarted.recover());
+        }
+        val sum = new AtomicInteger();
+        try (val restarted = signal(Executors.newSingleThreadExecutor())) {
+            restarted.connect("handler", sum::addAndGet);
+            assertEquals(5, restarted.recover());
+            assertTrue(restarted.awaitQuiescence(Duration.ofSeconds(5)));
+        }
+        assertEquals(15, sum.get());
+    }
+
+    @Test
+    void testJournalCleanedWithoutHandlers() {
+        try (val s = signal(Executors.newSingleThreadExecutor())) {
+            loop(300).forEach(s::dispatch);
+            Awaitility.await()
+                    .timeout(3, TimeUnit.SECONDS)
+                    .until(() -> segmentCount() == 1);
+        }
+    }
+
+    @Test
+    void testNoSerializer() {
+        val builder = DurableFireForgetSignal.<Integer>builder()
+                .journalConfig(JournalConfig.builder().directory(directory).build());
+        val e = assertThrows(NullPointerException.class, builder::build);
+        assertEquals("Serializer is needed for building durable signal", e.getMessage());
+    }
+
+    @SneakyThrows
+    private static void await(CountDownLatch latch) {
+        latch.await(5, TimeUnit.SECONDS);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private DurableFireForgetSignal<Integer> signal(ExecutorService executorService) {
+        return DurableFireForgetSignal.<Integer>builder()
+                .executorService(executorService)
+                .serializer(SERIALIZER)
+                .journalConfig(JournalConfig.builder()
+                                       .directory(directory)
+                                       .segmentSize(1024)
+                                       .fsyncBatchSize(4)
+                                       .fsyncInterval(Duration.ofMillis(100))
+                                       .build())
+                .build();
+    }
+}
@@ -15,16 +15,24 @@
 package io.appform.signals.signals;
 
 import io.appform.signals.Adder;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.executors.AdaptiveHandlerExecutor;
 import lombok.val;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import static io.appform.signals.TestingUtils.loop;
 import static io.appform.signals.TestingUtils.printTime;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  *
@@ -39,6 +47,77 @@ class GeneratingParallelSignalTest {
         // 210 -> sum of 1..20 as each time combiner returns only the index passed in that dispatch
     }
 
+    @Test
+    void testDefaultRunsInCallingThread() {
+        val s = new GeneratingParallelSignal<Integer, Integer>();
+        val caller = Thread.currentThread();
+        loop(10).forEach(i -> s.connect(x -> {
+            assertSame(caller, Thread.currentThread());
+            return x * i;
+        }));
+        //Last connected handler always wins with the default combiner
+        assertEquals(50, s.dispatch(5));
+    }
+
+    @Test
+    void testCollapse() throws Exception {
+        val calls = new AtomicInteger();
+        val release = new CountDownLatch(1);
+        val s = GeneratingParallelSignal.<Integer, Integer>builder()
+                .collapseBy(Function.identity())
+                .build();
+        s.connect(x -> {
+            calls.incrementAndGet();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return x * 2;
+        });
+        val callers = Executors.newFixedThreadPool(8);
+        val results = new ArrayList<Future<Integer>>();
+        loop(8).forEach(i -> results.add(callers.submit(() -> s.dispatch(21))));
+        await().until(() -> s.collapsedDispatches() == 7);
+        release.countDown();
+        for (val result : results) {
+            assertEquals(42, result.get());
+        }
+        assertEquals(1, calls.get());
+        callers.shutdown();
+        s.close();
+    }
+
+    @Test
+    void testDispatchWithDeadlineNotCollapsed() throws Exception {
+        val calls = new AtomicInteger();
+        val release = new CountDownLatch(1);
+        val s = GeneratingParallelSignal.<Integer, Integer>builder()
+                .collapseBy(Function.identity())
+                .build();
+        s.connect(x -> {
+            if (calls.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return x * 2;
+        });
+        val callers = Executors.newSingleThreadExecutor();
+        val leader = callers.submit(() -> s.dispatch(21));
+        await().until(() -> calls.get() == 1);
+        assertEquals(42, s.dispatch(21, Deadline.after(Duration.ofSeconds(5))));
+        assertEquals(0, s.collapsedDispatches());
+        release.countDown();
+        assertEquals(42, leader.get());
+        callers.shutdown();
+        s.close();
+    }
+
     @Test
     void testBuilder() {
         val s = GeneratingParallelSignal.<Integer, Integer>builder()
@@ -56,6 +135,15 @@ class GeneratingParallelSignalTest {
         testRun(s);
     }
 
+    @Test
+    void testBuilderHandlerExecutor() {
+        val s = GeneratingParallelSignal.<Integer, Integer>builder()
+                .combiner(new Adder())
+                .handlerExecutor(new AdaptiveHandlerExecutor<>(Executors.newCachedThreadPool()))
+                .build();
+        testRun(s);
+    }
+
     @Test
     void testBuilderException() {
         val errorCounter = new AtomicInteger();
@@ -72,6 +160,18 @@ class GeneratingParallelSignalTest {
         assertEquals(100, errorCounter.get()); // Five times per dispatch
     }
 
+    @Test
+    void testClose() {
+        val s = GeneratingParallelSignal.<Integer, Integer>builder()
+                .combiner(new Adder())
+                .build();
+        s.connect(x -> x);
+        assertEquals(1, s.dispatch(1));
+        s.close();
+        assertTrue(s.isClosed());
+        assertThrows(IllegalStateException.class, () -> s.dispatch(1));
+    }
+
     private void testRun(GeneratingParallelSignal<Integer, Integer> s) {
         loop(10).forEach(i -> s.connect(x -> x)); //Each step will be 10 * step index
         printTime(() -> assertEquals(15400, IntStream.rangeClosed(1, 20).map(s::dispatch).sum()));
@@ -24,6 +24,8 @@ import java.util.stream.IntStream;
 import static io.appform.signals.TestingUtils.loop;
 import static io.appform.signals.TestingUtils.printTime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  *
@@ -62,6 +64,52 @@ class GeneratingSyncSignalTest {
         assertEquals(100, errorCounter.get()); // Five times per dispatch
     }
 
+    @Test
+    void testHandlerCounters() {
+        val s = new GeneratingSyncSignal<Integer, Integer>();
+        s.connect("ok", x -> x);
+        s.connect("failing", x -> {
+            throw new IllegalStateException();
+        });
+        val counters = s.handlerCounters();
+        loop(3).forEach(s::dispatch);
+        s.pause("ok");
+        s.dispatch(1);
+        assertEquals(3L, counters.invocations().get("ok"));
+        assertEquals(4L, counters.invocations().get("failing"));
+        assertEquals(4L, counters.failures().get("failing"));
+        s.resume("ok");
+
+        //Counters of disconnected handlers are dropped, and start afresh if connected again
+        s.disconnect("failing");
+        assertFalse(counters.invocations().containsKey("failing"));
+        assertFalse(counters.failures().containsKey("failing"));
+        s.connect("failing", x -> x);
+        s.dispatch(1);
+        assertEquals(1L, counters.invocations().get("failing"));
+        assertEquals(4L, counters.invocations().get("ok"));
+    }
+
+    @Test
+    void testPausedStateClearedOnDisconnect() {
+        val s = new GeneratingSyncSignal<Integer, Integer>();
+        s.pause("unknown");
+        assertFalse(s.isPaused("unknown"));
+
+        s.connect(1, "paused", x -> x);
+        s.connect(2, "paused", x -> x);
+        s.pause("paused");
+        s.disconnect(1, "paused");
+        assertTrue(s.isPaused("paused"));
+        s.disconnect(2, "paused");
+        assertFalse(s.isPaused("paused"));
+
+        val called = new AtomicInteger();
+        s.connect("paused", x -> called.incrementAndGet());
+        s.dispatch(1);
+        assertEquals(1, called.get());
+    }
+
     private void testRun(GeneratingSyncSignal<Integer, Integer> s) {
         loop(10).forEach(i -> s.connect(x -> x)); //Each step will be 10 * step index
         printTime(() -> assertEquals(15400, IntStream.rangeClosed(1, 20).map(s::dispatch).sum()));
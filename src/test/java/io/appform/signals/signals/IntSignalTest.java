@@ -0,0 +1,54 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.combiners.IntCombiners;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class IntSignalTest {
+
+    @Test
+    void testDefault() {
+        val s = new IntSignal();
+        loop(10).forEach(i -> s.connect(x -> x));
+        assertEquals(210, IntStream.rangeClosed(1, 20).map(s::dispatch).sum());
+    }
+
+    @Test
+    void testCombiners() {
+        val sum = IntSignal.builder().combiner(IntCombiners.sum()).build();
+        val max = IntSignal.builder().combiner(IntCombiners.max()).build();
+        val consumed = new AtomicInteger();
+        IntStream.rangeClosed(1, 4).forEach(i -> {
+            sum.connect(x -> x * i);
+            max.connect(x -> x * i);
+        });
+        max.connectConsumer(consumed::addAndGet);
+        assertEquals(20, sum.dispatch(2));
+        assertEquals(8, max.dispatch(2));
+        assertEquals(2, consumed.get());
+    }
+}
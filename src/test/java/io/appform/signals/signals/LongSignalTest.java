@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.combiners.LongCombiners;
+import io.appform.signals.signalhandlers.LongSignalConsumer;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static io.appform.signals.TestingUtils.loop;
+import static io.appform.signals.TestingUtils.printTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class LongSignalTest {
+
+    @Test
+    void testDefault() {
+        val s = new LongSignal();
+        loop(10).forEach(i -> s.connect(x -> x));
+        printTime(() -> assertEquals(210, IntStream.rangeClosed(1, 20).mapToLong(s::dispatch).sum()));
+    }
+
+    @Test
+    void testSum() {
+        val s = LongSignal.builder()
+                .combiner(LongCombiners.sum())
+                .build();
+        loop(10).forEach(i -> s.connect(x -> x));
+        assertEquals(10, s.dispatch(1));
+        assertEquals(20, s.dispatch(2)); //Only the results for this dispatch
+    }
+
+    @Test
+    void testMinMax() {
+        val min = LongSignal.builder().combiner(LongCombiners.min()).build();
+        val max = LongSignal.builder().combiner(LongCombiners.max()).build();
+        IntStream.rangeClosed(1, 5).forEach(i -> {
+            min.connect(x -> x * i);
+            max.connect(x -> x * i);
+        });
+        assertEquals(3, min.dispatch(3));
+        assertEquals(15, max.dispatch(3));
+    }
+
+    @Test
+    void testConsumerSkipsCombiner() {
+        val counter = new AtomicLong();
+        val s = LongSignal.builder()
+                .combiner(LongCombiners.min())
+                .build();
+        s.connectConsumer(counter::addAndGet);
+        s.connect(x -> x + 1);
+        assertEquals(6, s.dispatch(5));
+        assertEquals(5, counter.get());
+        //Consumers connected as handlers are still consumers
+        final LongSignalConsumer consumer = counter::addAndGet;
+        s.connect("consumer", consumer);
+        assertEquals(6, s.dispatch(5));
+        assertEquals(15, counter.get());
+    }
+
+    @Test
+    void testGroupsAndDisconnect() {
+        val order = new StringBuilder();
+        val s = new LongSignal();
+        s.connect(2, "second", x -> {
+            order.append("2");
+            return x * 2;
+        });
+        s.connect(1, "first", x -> {
+            order.append("1");
+            return x;
+        });
+        assertEquals(20, s.dispatch(10));
+        assertEquals("12", order.toString());
+        s.disconnect(2, "second");
+        assertEquals(10, s.dispatch(10));
+    }
+
+    @Test
+    void testErrors() {
+        val errorCounter = new AtomicInteger();
+        val s = LongSignal.builder()
+                .errorHandler(e -> errorCounter.incrementAndGet())
+                .build();
+        loop(10).forEach(i -> s.connect(x -> {
+            if (x % 2 == 0) {
+                throw new IllegalStateException();
+            }
+            return x;
+        }));
+        loop(20).forEach(s::dispatch);
+        assertEquals(100, errorCounter.get());
+    }
+}
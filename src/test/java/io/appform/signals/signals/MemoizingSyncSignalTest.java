@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.ResponseCombiner;
+import io.appform.signals.memo.MemoConfig;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ *
+ */
+class MemoizingSyncSignalTest {
+
+    @Test
+    void testMemoized() {
+        val calls = new AtomicInteger();
+        val s = new MemoizingSyncSignal<Integer, Integer>();
+        s.connect(x -> {
+            calls.incrementAndGet();
+            return x * 2;
+        });
+        loop(100).forEach(i -> assertEquals((i % 5) * 2, s.dispatch(i % 5)));
+        assertEquals(5, calls.get());
+        assertEquals(95, s.stats().getHits());
+        assertEquals(5, s.stats().getMisses());
+    }
+
+    @Test
+    void testFailuresNotCached() {
+        val calls = new AtomicInteger();
+        val s = new MemoizingSyncSignal<Integer, Integer>();
+        s.connect(x -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("Failed");
+            }
+            return x * 2;
+        });
+        assertEquals(4, s.dispatch(2));
+        //Result of the previous dispatch does not leak into this one
+        assertNull(s.dispatch(3));
+        assertEquals(6, s.dispatch(3));
+        assertEquals(6, s.dispatch(3));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testCombinerPerComputation() {
+        val s = MemoizingSyncSignal.<Integer, Integer>builder()
+                .combiner(() -> new ResponseCombiner<Integer>() {
+                    private int sum;
+
+                    @Override
+                    public void assimilateHandlerResult(Integer data) {
+                        sum += data;
+                    }
+
+                    @Override
+                    public Integer result() {
+                        return sum;
+                    }
+                })
+                .build();
+        s.connect(x -> x);
+        s.connect(x -> x * 10);
+        assertEquals(22, s.dispatch(2));
+        assertEquals(33, s.dispatch(3));
+        assertEquals(22, s.dispatch(2));
+    }
+
+    @Test
+    void testInvalidatedOnConnectAndDisconnect() {
+        val s = MemoizingSyncSignal.<Integer, Integer>builder()
+                .memoConfig(MemoConfig.<Integer, Integer>builder().maxWeight(10).build())
+                .build();
+        s.connect("double", x -> x * 2);
+        assertEquals(4, s.dispatch(2));
+        s.connect(1, "triple", x -> x * 3);
+        assertEquals(6, s.dispatch(2));
+        s.disconnect(1, "triple");
+        assertEquals(4, s.dispatch(2));
+        assertEquals(3, s.stats().getMisses());
+    }
+}
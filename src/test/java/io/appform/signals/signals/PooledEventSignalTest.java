@@ -0,0 +1,217 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.HandlerFailure;
+import io.appform.signals.TaskErrorHandler;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.dedup.Deduplicator;
+import io.appform.signals.executors.ParallelHandlerExecutor;
+import io.appform.signals.pool.PooledEvent;
+import io.appform.signals.retry.RetryPolicy;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ *
+ */
+class PooledEventSignalTest {
+
+    private static final class Tick {
+        long value;
+    }
+
+    @Test
+    void testRecycledAfterAllHandlers() {
+        val sum = new AtomicLong();
+        try (val s = PooledEventSignal.<Tick>builder()
+                .executorService(Executors.newFixedThreadPool(4))
+                .poolCapacity(8)
+                .eventFactory(Tick::new)
+                .eventReset(tick -> tick.value = 0)
+                .build()) {
+            loop(3).forEach(i -> s.connect(event -> sum.addAndGet(event.get().value)));
+            loop(1000).forEach(i -> {
+                val event = s.claim();
+                event.get().value = 1;
+                s.dispatch(event);
+            });
+            await().until(() -> s.pool().available() == 8);
+            assertEquals(3000, sum.get());
+            assertTrue(s.pool().allocated() < 1000);
+        }
+    }
+
+    @Test
+    void testReleasedOnFailureAndAfterRetries() {
+        val attempts = new AtomicInteger();
+        val errors = new AtomicInteger();
+        try (val s = PooledEventSignal.<Tick>builder()
+                .handlerExecutor(new ParallelHandlerExecutor<>(Executors.newCachedThreadPool()))
+                .poolCapacity(2)
+                .eventFactory(Tick::new)
+                .errorHandler(e -> errors.incrementAndGet())
+                .build()) {
+            s.connect(event -> {
+                throw new IllegalStateException();
+            });
+            s.connect("retrying", event -> {
+                if (attempts.incrementAndGet() < 3) {
+                    throw new IllegalStateException();
+                }
+            }, RetryPolicy.builder().maxAttempts(3).initialDelay(Duration.ofMillis(1)).build());
+            s.dispatch(s.claim());
+            assertEquals(2, s.pool().available());
+            assertEquals(3, attempts.get());
+            assertEquals(1, errors.get());
+        }
+    }
+
+    @Test
+    void testReleasedWhenErrorHandlerOrHandlerThrows() {
+        val reported = new AtomicInteger();
+        try (val s = PooledEventSignal.<Tick>builder()
+                .handlerExecutor(new ParallelHandlerExecutor<>(Executors.newCachedThreadPool()))
+                .poolCapacity(2)
+                .eventFactory(Tick::new)
+                .errorHandler(new TaskErrorHandler() {
+                    @Override
+                    public void handle(Exception e) {
+                        reported.incrementAndGet();
+                    }
+
+                    @Override
+                    public void handle(HandlerFailure failure) {
+                        throw new IllegalStateException("Error handler failed");
+                    }
+                })
+                .build()) {
+            s.connect(event -> {
+                throw new IllegalStateException();
+            });
+            s.connect(event -> {
+                throw new AssertionError("Handler died");
+            });
+            loop(10).forEach(i -> s.dispatch(s.claim()));
+            assertEquals(2, s.pool().available());
+            assertEquals(20, reported.get());
+        }
+    }
+
+    @Test
+    void testErrorHandlerSeesFailedEvent() {
+        val seen = new CopyOnWriteArrayList<Long>();
+        try (val s = PooledEventSignal.<Tick>builder()
+                .poolCapacity(1)
+                .eventFactory(Tick::new)
+                .eventReset(tick -> tick.value = 0)
+                .errorHandler(new TaskErrorHandler() {
+                    @Override
+                    public void handle(Exception e) {
+                        //Not called for handler failures
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void handle(HandlerFailure failure) {
+                        seen.add(((PooledEvent<Tick>) failure.getData()).get().value);
+                    }
+                })
+                .build()) {
+            s.connect(event -> {
+                throw new IllegalStateException();
+            });
+            loop(10).forEach(i -> {
+                val event = s.claim();
+                event.get().value = i;
+                s.dispatch(event);
+                await().until(() -> s.pool().available() == 1);
+            });
+            assertEquals(10, seen.size());
+            loop(10).forEach(i -> assertEquals(i, seen.get(i - 1).longValue()));
+        }
+    }
+
+    @Test
+    void testReleasedWhenDiscarded() throws Exception {
+        val started = new CountDownLatch(1);
+        val blocker = new CountDownLatch(1);
+        val pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(3));
+        try (val s = PooledEventSignal.<Tick>builder()
+                .executorService(pool)
+                .poolCapacity(8)
+                .eventFactory(Tick::new)
+                .build()) {
+            s.connect(event -> {
+                if (event.get().value == 1) {
+                    started.countDown();
+                    block(blocker);
+                }
+            });
+            s.connect(event -> {});
+            s.deduplicate(Deduplicator.<PooledEvent<Tick>>builder().keyExtractor(event -> event.get().value).build());
+
+            //Blocks the only thread
+            val blocking = s.claim();
+            blocking.get().value = 1;
+            s.dispatch(blocking);
+            started.await();
+            //Waits in the queue till the deadline expires
+            val expiring = s.claim();
+            expiring.get().value = 2;
+            s.dispatch(expiring, Deadline.after(Duration.ofMillis(50)));
+            //Queue is full, both invocations are rejected
+            assertThrows(RejectedExecutionException.class, () -> s.dispatch(s.claim()));
+            //Duplicates are not dispatched
+            val duplicate = s.claim();
+            duplicate.get().value = 1;
+            s.dispatch(duplicate);
+            assertEquals(6, s.pool().available());
+            Thread.sleep(100);
+            blocker.countDown();
+            await().until(() -> s.pool().available() == 8);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void block(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
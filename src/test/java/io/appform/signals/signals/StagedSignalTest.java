@@ -0,0 +1,198 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.DiscardAware;
+import io.appform.signals.deadline.Deadline;
+import io.appform.signals.signalhandlers.SignalConsumer;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ */
+class StagedSignalTest {
+
+    @Test
+    void testOrdering() {
+        val s = new StagedSignal<Integer>();
+        final List<List<Integer>> seen = new ArrayList<>();
+        loop(3).forEach(group -> {
+            val events = Collections.synchronizedList(new ArrayList<Integer>());
+            seen.add(events);
+            s.connect(group, "stage-" + group, events::add);
+        });
+        val expected = new ArrayList<Integer>();
+        loop(100).forEach(i -> {
+            s.dispatch(i);
+            expected.add(i);
+        });
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        seen.forEach(events -> assertEquals(expected, events));
+        assertEquals(3, s.stageCount());
+        s.close();
+    }
+
+    @Test
+    @SneakyThrows
+    void testStagesOverlap() {
+        val s = new StagedSignal<Integer>();
+        val secondInFirstStage = new CountDownLatch(1);
+        val overlapped = new AtomicBoolean();
+        s.connect(0, "first", i -> {
+            if (i == 2) {
+                secondInFirstStage.countDown();
+            }
+        });
+        s.connect(1, "second", i -> {
+            if (i == 1) {
+                //Only completes if event 2 can run the first stage while event 1 is in the second one
+                overlapped.set(await(secondInFirstStage));
+            }
+        });
+        s.dispatch(1);
+        s.dispatch(2);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertTrue(overlapped.get());
+        s.close();
+    }
+
+    @Test
+    void testGroupOrderPerEvent() {
+        val s = StagedSignal.<Integer>builder()
+                .workersPerStage(4)
+                .queueCapacity(8)
+                .build();
+        val stageOfEvent = new int[201];
+        val outOfOrder = new AtomicInteger();
+        loop(3).forEach(group -> s.connect(group, "stage-" + group, i -> {
+            synchronized (stageOfEvent) {
+                if (stageOfEvent[i] != group - 1) {
+                    outOfOrder.incrementAndGet();
+                }
+                stageOfEvent[i] = group;
+            }
+        }));
+        loop(200).forEach(s::dispatch);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(0, outOfOrder.get());
+        s.close();
+    }
+
+    @Test
+    void testHandlersConnectedLater() {
+        val s = new StagedSignal<Integer>();
+        val counter = new AtomicInteger();
+        s.dispatch(1); //No handlers, nothing to do
+        s.connect(0, "first", counter::addAndGet);
+        s.dispatch(1);
+        s.connect(1, "second", counter::addAndGet);
+        s.dispatch(10);
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(21, counter.get());
+        s.close();
+        assertThrows(IllegalStateException.class, () -> s.dispatch(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void testDrain() {
+        val s = new StagedSignal<Integer>();
+        val blocker = new CountDownLatch(1);
+        val discarded = new ConcurrentLinkedQueue<Integer>();
+        s.connect(0, "blocking", i -> await(blocker));
+        s.connect(1, "counting", new DiscardingConsumer(discarded));
+        loop(5).forEach(s::dispatch);
+        assertEquals(5, s.executorStats().getQueued() + s.executorStats().getActive());
+        val result = s.drain(Duration.ofMillis(50));
+        assertFalse(result.isCompleted());
+        assertEquals(4, result.getDropped());
+        assertEquals(1, result.getInterrupted());
+        blocker.countDown();
+        //Dropped events leave the pipeline, and the interrupted one can't get to the next stage
+        assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+        assertEquals(0, s.executorStats().getQueued() + s.executorStats().getActive());
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), discarded.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @SneakyThrows
+    void testExpiredEventsDiscarded() {
+        try (val s = new StagedSignal<Integer>()) {
+            val blocker = new CountDownLatch(1);
+            val started = new CountDownLatch(1);
+            val called = new AtomicInteger();
+            val discarded = new ConcurrentLinkedQueue<Integer>();
+            s.connect(0, "blocking", i -> {
+                started.countDown();
+                await(blocker);
+            });
+            s.connect(1, "first", new DiscardingConsumer(discarded));
+            s.connect(2, "second", new DiscardingConsumer(discarded));
+            s.connect(2, "paused", i -> called.incrementAndGet());
+            s.pause("paused");
+            s.dispatch(1);
+            await(started);
+            s.dispatch(2, Deadline.after(Duration.ofMillis(1)));
+            Awaitility.await().pollDelay(10, TimeUnit.MILLISECONDS).until(() -> true);
+            blocker.countDown();
+            assertTrue(s.awaitQuiescence(Duration.ofSeconds(5)));
+            assertEquals(Arrays.asList(2, 2), new ArrayList<>(discarded));
+            assertEquals(0, called.get());
+        }
+    }
+
+    private static final class DiscardingConsumer implements SignalConsumer<Integer>, DiscardAware<Integer> {
+        private final Queue<Integer> discarded;
+
+        private DiscardingConsumer(Queue<Integer> discarded) {
+            this.discarded = discarded;
+        }
+
+        @Override
+        public void consume(Integer data) {
+            //Nothing to do
+        }
+
+        @Override
+        public void discarded(Integer data) {
+            discarded.add(data);
+        }
+    }
+
+    @SneakyThrows
+    private static boolean await(CountDownLatch latch) {
+        return latch.await(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.signals;
+
+import io.appform.signals.errorhandlers.LoggingTaskErrorHandler;
+import io.appform.signals.windows.Window;
+import io.appform.signals.windows.WindowAggregators;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ *
+ */
+class WindowedSignalTest {
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void testTumbling() {
+        val clock = new AtomicLong(10 * HOUR);
+        val windows = new ArrayList<Window<Long>>();
+        try (val s = new WindowedSignal<Integer, long[], Long>(WindowAggregators.count(),
+                                                               Duration.ofHours(1),
+                                                               Duration.ofHours(1),
+                                                               new LoggingTaskErrorHandler(),
+                                                               clock::get)) {
+            s.connect(windows::add);
+            loop(5).forEach(s::consume);
+            clock.addAndGet(HOUR);
+            loop(3).forEach(s::consume);
+            s.closeWindows(clock.get());
+            assertEquals(1, windows.size());
+            assertEquals(5L, windows.get(0).getValue());
+            assertEquals(Instant.ofEpochMilli(10 * HOUR), windows.get(0).getStart());
+            assertEquals(Instant.ofEpochMilli(11 * HOUR), windows.get(0).getEnd());
+        }
+        //Close flushes the partial window
+        assertEquals(2, windows.size());
+        assertEquals(3L, windows.get(1).getValue());
+    }
+
+    @Test
+    void testSliding() {
+        val clock = new AtomicLong(0);
+        val windows = new ArrayList<Window<Long>>();
+        try (val s = new WindowedSignal<Integer, long[], Long>(WindowAggregators.sum(i -> i),
+                                                               Duration.ofHours(3),
+                                                               Duration.ofHours(1),
+                                                               new LoggingTaskErrorHandler(),
+                                                               clock::get)) {
+            s.connect(windows::add);
+            IntStream.rangeClosed(1, 4).forEach(i -> {
+                s.consume(i);
+                clock.addAndGet(HOUR);
+            });
+            s.closeWindows(clock.get());
+        }
+        assertEquals(IntStream.of(1, 3, 6, 9, 7).boxed().map(Long::valueOf).collect(Collectors.toList()),
+                     windows.stream().limit(5).map(Window::getValue).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testConcurrentIngest() throws Exception {
+        val clock = new AtomicLong(0);
+        val windows = new CopyOnWriteArrayList<Window<Integer>>();
+        val s = new WindowedSignal<Integer, Set<Integer>, Integer>(WindowAggregators.distinct(i -> i % 100),
+                                                                             Duration.ofHours(1),
+                                                                             Duration.ofHours(1),
+                                                                             new LoggingTaskErrorHandler(),
+                                                                             clock::get);
+        s.connect(windows::add);
+        val threads = new ArrayList<Thread>();
+        loop(4).forEach(t -> threads.add(new Thread(() -> loop(10_000).forEach(s::consume))));
+        threads.forEach(Thread::start);
+        for (val thread : threads) {
+            thread.join();
+        }
+        s.close();
+        assertEquals(1, windows.size());
+        assertEquals(100, windows.get(0).getValue());
+    }
+
+    @Test
+    void testTimer() {
+        val windows = new CopyOnWriteArrayList<Window<Long>>();
+        try (val s = WindowedSignal.<Integer, long[], Long>builder()
+                .aggregator(WindowAggregators.count())
+                .size(Duration.ofMillis(100))
+                .build()) {
+            s.connect(windows::add);
+            loop(10).forEach(s::consume);
+            await().until(() -> !windows.isEmpty());
+        }
+        assertEquals(10L, windows.stream().mapToLong(Window::getValue).sum());
+    }
+
+    @Test
+    void testInvalidSlide() {
+        val builder = WindowedSignal.<Integer, long[], Long>builder()
+                .aggregator(WindowAggregators.count())
+                .size(Duration.ofSeconds(10))
+                .slide(Duration.ofSeconds(3));
+        assertThrows(IllegalArgumentException.class, builder::build);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.windows;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.appform.signals.TestingUtils.loop;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ *
+ */
+class StripedPanesTest {
+
+    @Test
+    void testNoEventsLostWhileHarvesting() throws Exception {
+        val panes = new StripedPanes<Integer, long[]>(WindowAggregators.count(), 10);
+        val clock = new AtomicLong();
+        val running = new AtomicBoolean(true);
+        val harvested = new AtomicLong();
+        val harvester = new Thread(() -> {
+            while (running.get()) {
+                val now = clock.addAndGet(10);
+                panes.harvest(panes.paneIndex(now)).values().forEach(count -> harvested.addAndGet(count[0]));
+            }
+        });
+        harvester.start();
+        val writers = new ArrayList<Thread>();
+        loop(4).forEach(t -> writers.add(new Thread(() -> loop(100_000).forEach(i -> panes.add(i, clock.get())))));
+        writers.forEach(Thread::start);
+        for (val writer : writers) {
+            writer.join();
+        }
+        running.set(false);
+        harvester.join();
+        panes.harvest(Long.MAX_VALUE).values().forEach(count -> harvested.addAndGet(count[0]));
+        assertEquals(400_000, harvested.get());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021. Santanu Sinha
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in
+ *  compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software distributed under the License is
+ * distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.appform.signals.events;
+
+import io.appform.signals.signals.ConsumingFireForgetSignal;
+import io.appform.signals.signals.ConsumingSyncSignal;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the multi-release jar, where signals record flight recorder events
+ */
+class SignalEventsIT {
+
+    @Test
+    void testEventsRecorded() throws Exception {
+        assertTrue(SignalEvents.isSupported());
+        val file = Files.createTempFile("signals", ".jfr");
+        try (val recording = new Recording()) {
+            recording.enable("io.appform.signals.Dispatch").withThreshold(Duration.ZERO);
+            recording.enable("io.appform.signals.GroupExecution").withThreshold(Duration.ZERO);
+            recording.enable("io.appform.signals.HandlerExecution").withThreshold(Duration.ZERO);
+            recording.enable("io.appform.signals.HandlerError");
+            recording.enable("io.appform.signals.QueueWait").withThreshold(Duration.ZERO);
+            recording.start();
+
+            val signal = new ConsumingSyncSignal<Integer>();
+            signal.connect("failing", x -> {
+                throw new IllegalStateException("Failed");
+            });
+            signal.connect("counting", x -> {});
+            signal.dispatch(1);
+            try (val async = ConsumingFireForgetSignal.<Integer>builder()
+                    .executorService(Executors.newSingleThreadExecutor())
+                    .build()) {
+                async.connect("queued", x -> {});
+                async.dispatch(1);
+                assertTrue(async.awaitQuiescence(Duration.ofSeconds(5)));
+            }
+
+            recording.stop();
+            recording.dump(file);
+            val events = RecordingFile.readAllEvents(file);
+            assertEquals(2, named(events, "io.appform.signals.Dispatch").size());
+            assertFalse(named(events, "io.appform.signals.GroupExecution").isEmpty());
+            assertFalse(named(events, "io.appform.signals.QueueWait").isEmpty());
+            val handlers = named(events, "io.appform.signals.HandlerExecution")
+                    .stream()
+                    .map(event -> event.getString("handlerName"))
+                    .collect(Collectors.toSet());
+            assertTrue(handlers.containsAll(Arrays.asList("failing", "counting", "queued")));
+            val errors = named(events, "io.appform.signals.HandlerError");
+            assertEquals(1, errors.size());
+            assertEquals("failing", errors.get(0).getString("handlerName"));
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> named(final List<RecordedEvent> events, final String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}